@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2012-2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.core;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Collections;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowReader;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+/**
+ * ArrowReader over the record batches of an Arrow result set, in chunk order.
+ *
+ * <p>Each call to {@link #loadNextBatch()} moves the remaining rows of the next record batch into
+ * the vectors of {@link #getVectorSchemaRoot()} with a TransferPair, so the data is not copied. The
+ * result chunk memory is released to the chunk downloader once the reader moves past the last
+ * record batch of the chunk. The transferred buffers are owned by the reader allocator and are
+ * freed when the next batch is loaded or the reader is closed.
+ */
+class ArrowResultSetReader extends ArrowReader {
+  private final SFArrowResultSet resultSet;
+
+  // true if readSchema() already moved the result set to a record batch not loaded yet
+  private boolean pendingRecordBatch = false;
+
+  private long bytesRead = 0;
+
+  ArrowResultSetReader(SFArrowResultSet resultSet, BufferAllocator allocator) {
+    super(allocator);
+    this.resultSet = resultSet;
+  }
+
+  @Override
+  protected Schema readSchema() throws IOException {
+    // the schema is only known from the vectors of the first record batch
+    if (!advance()) {
+      return new Schema(Collections.emptyList());
+    }
+    pendingRecordBatch = true;
+    return resultSet.getCurrentRecordBatchSchema();
+  }
+
+  @Override
+  public boolean loadNextBatch() throws IOException {
+    prepareLoadNextBatch();
+    if (pendingRecordBatch) {
+      pendingRecordBatch = false;
+    } else if (!advance()) {
+      return false;
+    }
+    VectorSchemaRoot root = getVectorSchemaRoot();
+    root.setRowCount(resultSet.transferRecordBatchRows(root.getFieldVectors()));
+    for (FieldVector vector : root.getFieldVectors()) {
+      bytesRead += vector.getBufferSize();
+    }
+    return true;
+  }
+
+  private boolean advance() throws IOException {
+    try {
+      return resultSet.next();
+    } catch (SFException | SQLException ex) {
+      throw new IOException("Failed to fetch next record batch: " + ex.getMessage(), ex);
+    }
+  }
+
+  @Override
+  public long bytesRead() {
+    return bytesRead;
+  }
+
+  @Override
+  protected void closeReadSource() {
+    // the vector schema root is already closed, so all buffers are returned to the allocator
+    allocator.close();
+  }
+}
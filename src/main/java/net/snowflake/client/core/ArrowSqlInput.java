@@ -24,6 +24,8 @@ import net.snowflake.client.jdbc.FieldMetadata;
 import net.snowflake.client.log.SFLogger;
 import net.snowflake.client.log.SFLoggerFactory;
 import net.snowflake.client.util.ThrowingBiFunction;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.complex.StructVector;
 import org.apache.arrow.vector.util.JsonStringArrayList;
 import org.apache.arrow.vector.util.JsonStringHashMap;
 
@@ -31,7 +33,10 @@ import org.apache.arrow.vector.util.JsonStringHashMap;
 public class ArrowSqlInput extends BaseSqlInput {
   private static final SFLogger logger = SFLoggerFactory.getLogger(ArrowSqlInput.class);
 
-  private final Map<String, Object> input;
+  private Map<String, Object> input;
+  // when set, the fields are read from the child vectors at rowIndex instead of from input
+  private final StructVector structVector;
+  private final int rowIndex;
   private int currentIndex = 0;
   private boolean wasNull = false;
 
@@ -42,9 +47,36 @@ public class ArrowSqlInput extends BaseSqlInput {
       List<FieldMetadata> fields) {
     super(session, converters, fields);
     this.input = input;
+    this.structVector = null;
+    this.rowIndex = -1;
+  }
+
+  /**
+   * Reads the fields of a row of a struct vector directly from its child vectors, without building
+   * a map of the whole row first.
+   *
+   * @param structVector the struct vector
+   * @param rowIndex index of the row in the vector
+   * @param session the session
+   * @param converters the converters
+   * @param fields the fields of the struct
+   */
+  public ArrowSqlInput(
+      StructVector structVector,
+      int rowIndex,
+      SFBaseSession session,
+      Converters converters,
+      List<FieldMetadata> fields) {
+    super(session, converters, fields);
+    this.input = null;
+    this.structVector = structVector;
+    this.rowIndex = rowIndex;
   }
 
   public Map<String, Object> getInput() {
+    if (input == null && structVector != null) {
+      input = (Map<String, Object>) structVector.getObject(rowIndex);
+    }
     return input;
   }
 
@@ -175,6 +207,21 @@ public class ArrowSqlInput extends BaseSqlInput {
 
   @Override
   public <T> T readObject(Class<T> type, TimeZone tz) throws SQLException {
+    if (structVector != null && SQLData.class.isAssignableFrom(type)) {
+      FieldMetadata field = fields.get(currentIndex);
+      ValueVector child = structVector.getChild(field.getName());
+      if (child instanceof StructVector) {
+        currentIndex++;
+        wasNull = child.isNull(rowIndex);
+        if (wasNull) {
+          return null;
+        }
+        return readSqlData(
+            type,
+            new ArrowSqlInput(
+                (StructVector) child, rowIndex, session, converters, field.getFields()));
+      }
+    }
     return withNextValue((value, fieldMetadata) -> convertObject(type, tz, value, fieldMetadata));
   }
 
@@ -183,12 +230,10 @@ public class ArrowSqlInput extends BaseSqlInput {
     if (value == null) {
       return null;
     } else if (SQLData.class.isAssignableFrom(type)) {
-      ArrowSqlInput sqlInput =
+      return readSqlData(
+          type,
           new ArrowSqlInput(
-              (Map<String, Object>) value, session, converters, fieldMetadata.getFields());
-      SQLData instance = (SQLData) SQLDataCreationHelper.create(type);
-      instance.readSQL(sqlInput, null);
-      return (T) instance;
+              (Map<String, Object>) value, session, converters, fieldMetadata.getFields()));
     } else if (Map.class.isAssignableFrom(type)) {
       return (T) convertSqlInputToMap((SQLInput) value);
     } else if (String.class.isAssignableFrom(type)) {
@@ -227,6 +272,12 @@ public class ArrowSqlInput extends BaseSqlInput {
     }
   }
 
+  private static <T> T readSqlData(Class<T> type, ArrowSqlInput sqlInput) throws SQLException {
+    SQLData instance = (SQLData) SQLDataCreationHelper.create(type);
+    instance.readSQL(sqlInput, null);
+    return (T) instance;
+  }
+
   @Override
   public <T> List<T> readList(Class<T> type) throws SQLException {
     return withNextValue(
@@ -297,8 +348,17 @@ public class ArrowSqlInput extends BaseSqlInput {
   private <T> T withNextValue(ThrowingBiFunction<Object, FieldMetadata, T, SQLException> action)
       throws SQLException {
     FieldMetadata field = fields.get(currentIndex++);
-    Object value = input.get(field.getName());
+    Object value = structVector != null ? readChild(field) : input.get(field.getName());
     wasNull = value == null;
     return action.apply(value, field);
   }
+
+  private Object readChild(FieldMetadata field) {
+    // same value as in the map built by StructVector.getObject(rowIndex)
+    ValueVector child = structVector.getChild(field.getName());
+    if (child == null || rowIndex >= child.getValueCount()) {
+      return null;
+    }
+    return child.getObject(rowIndex);
+  }
 }
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2012-2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.core;
+
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import net.snowflake.client.jdbc.QueryStatusV2;
+import net.snowflake.client.log.SFLogger;
+import net.snowflake.client.log.SFLoggerFactory;
+
+/**
+ * Polls the status of the asynchronous queries of a session on one background thread, instead of
+ * one polling loop per waiting thread, and completes a future per query once it stopped running.
+ *
+ * <p>The poll interval of a query grows with its age, from {@link #MIN_POLL_INTERVAL_MILLIS} to
+ * {@link #MAX_POLL_INTERVAL_MILLIS}, so that short queries complete quickly while long running
+ * queries do not flood the server. All queries due for a poll are checked in the same round.
+ */
+class AsyncQueryMonitor {
+  private static final SFLogger logger = SFLoggerFactory.getLogger(AsyncQueryMonitor.class);
+
+  static final long MIN_POLL_INTERVAL_MILLIS = 500;
+
+  static final long MAX_POLL_INTERVAL_MILLIS = 5000;
+
+  private static final long TICK_MILLIS = 100;
+
+  // give up on a query after this many polls returning no data, about two minutes
+  private static final int NO_DATA_MAX_POLLS = 30;
+
+  /** Reads the status of a query from the server */
+  @FunctionalInterface
+  interface StatusReader {
+    QueryStatusV2 getQueryStatus(String queryID) throws SQLException;
+  }
+
+  private static class MonitoredQuery {
+    private final CompletableFuture<QueryStatusV2> future = new CompletableFuture<>();
+
+    private final long registeredMillis;
+
+    private long nextPollMillis;
+
+    private int noDataPolls = 0;
+
+    private MonitoredQuery(long registeredMillis) {
+      this.registeredMillis = registeredMillis;
+      this.nextPollMillis = registeredMillis;
+    }
+  }
+
+  private final StatusReader statusReader;
+
+  private final Map<String, MonitoredQuery> queries = new ConcurrentHashMap<>();
+
+  private ScheduledExecutorService scheduler = null;
+
+  private ScheduledFuture<?> pollFuture = null;
+
+  private boolean closed = false;
+
+  AsyncQueryMonitor(StatusReader statusReader) {
+    this.statusReader = statusReader;
+  }
+
+  /**
+   * Start monitoring a query, or join the monitoring of a query already monitored.
+   *
+   * @param queryID query ID
+   * @return future completed with the status of the query once it is not running anymore, or
+   *     completed exceptionally if the status could not be read
+   */
+  synchronized CompletableFuture<QueryStatusV2> monitor(String queryID) {
+    if (closed) {
+      CompletableFuture<QueryStatusV2> future = new CompletableFuture<>();
+      future.completeExceptionally(new SQLException("Session is closed"));
+      return future;
+    }
+    MonitoredQuery query =
+        queries.computeIfAbsent(queryID, id -> new MonitoredQuery(System.currentTimeMillis()));
+    if (pollFuture == null) {
+      if (scheduler == null) {
+        scheduler =
+            Executors.newSingleThreadScheduledExecutor(
+                runnable -> {
+                  Thread thread = Executors.defaultThreadFactory().newThread(runnable);
+                  thread.setName("async-query-monitor (" + thread.getId() + ")");
+                  thread.setDaemon(true);
+                  return thread;
+                });
+      }
+      pollFuture =
+          scheduler.scheduleWithFixedDelay(this::poll, 0, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+    return query.future;
+  }
+
+  /** Stop monitoring and fail the futures of the queries still monitored. */
+  synchronized void close() {
+    closed = true;
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+      scheduler = null;
+      pollFuture = null;
+    }
+    for (MonitoredQuery query : queries.values()) {
+      query.future.completeExceptionally(new SQLException("Session is closed"));
+    }
+    queries.clear();
+  }
+
+  static long getPollInterval(long queryAgeMillis) {
+    return Math.max(
+        MIN_POLL_INTERVAL_MILLIS, Math.min(MAX_POLL_INTERVAL_MILLIS, queryAgeMillis / 4));
+  }
+
+  private void poll() {
+    long now = System.currentTimeMillis();
+    Iterator<Map.Entry<String, MonitoredQuery>> iterator = queries.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<String, MonitoredQuery> entry = iterator.next();
+      String queryID = entry.getKey();
+      MonitoredQuery query = entry.getValue();
+      if (query.future.isDone()) {
+        // canceled by the caller
+        iterator.remove();
+        continue;
+      }
+      if (query.nextPollMillis > now) {
+        continue;
+      }
+      try {
+        QueryStatusV2 status = statusReader.getQueryStatus(queryID);
+        if (status.isEmpty() && ++query.noDataPolls >= NO_DATA_MAX_POLLS) {
+          iterator.remove();
+          query.future.completeExceptionally(
+              new SQLException(
+                  "Cannot retrieve data on the status of this query. No information returned from"
+                      + " server for queryID="
+                      + queryID));
+        } else if (!status.isStillRunning()) {
+          iterator.remove();
+          query.future.complete(status);
+        } else {
+          query.nextPollMillis = now + getPollInterval(now - query.registeredMillis);
+        }
+      } catch (Exception ex) {
+        logger.debug("Failed to get status of query {}: {}", queryID, ex.getMessage());
+        iterator.remove();
+        query.future.completeExceptionally(ex);
+      }
+    }
+    stopPollingIfIdle();
+  }
+
+  private synchronized void stopPollingIfIdle() {
+    if (queries.isEmpty() && pollFuture != null) {
+      pollFuture.cancel(false);
+      pollFuture = null;
+    }
+  }
+}
@@ -11,7 +11,6 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
@@ -19,11 +18,14 @@ import java.io.Reader;
 import java.io.Writer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Date;
+import java.util.function.Function;
 import net.snowflake.client.log.SFLogger;
 import net.snowflake.client.log.SFLoggerFactory;
 
@@ -176,6 +178,57 @@ class FileCacheManager {
       // no cache or the cache is not valid.
       return null;
     }
+    return readCacheFileContent();
+  }
+
+  void writeCacheFile(JsonNode input) {
+    logger.debug("Writing cache file. File: {}", cacheFile);
+    if (cacheFile == null || !tryLockCacheFile()) {
+      // no cache file or it failed to lock file
+      logger.debug(
+          "No cache file exists or failed to lock the file. Skipping writing the cache", false);
+      return;
+    }
+    // NOTE: must unlock cache file
+    try {
+      writeCacheFileContent(input);
+    } finally {
+      if (!unlockCacheFile()) {
+        logger.debug("Failed to unlock cache file", false);
+      }
+    }
+  }
+
+  /**
+   * Reads the cache file and writes the content built from it, holding the lock of the cache file
+   * in between, so that other processes don't write the file meanwhile.
+   *
+   * @param update builds the content to write from the content of the cache file, which is null
+   *     if there is no cache file or it expired
+   */
+  void updateCacheFile(Function<JsonNode, JsonNode> update) {
+    logger.debug("Updating cache file. File: {}", cacheFile);
+    if (cacheFile == null || !tryLockCacheFile()) {
+      // no cache file or it failed to lock file
+      logger.debug(
+          "No cache file exists or failed to lock the file. Skipping updating the cache", false);
+      return;
+    }
+    // NOTE: must unlock cache file
+    try {
+      long cacheFileTs = fileCreationTime(cacheFile);
+      boolean upToDate =
+          cacheFileTs > 0
+              && new Date().getTime() - this.cacheExpirationInMilliseconds <= cacheFileTs;
+      writeCacheFileContent(update.apply(upToDate ? readCacheFileContent() : null));
+    } finally {
+      if (!unlockCacheFile()) {
+        logger.debug("Failed to unlock cache file", false);
+      }
+    }
+  }
+
+  private JsonNode readCacheFileContent() {
     try {
       if (!cacheFile.exists()) {
         logger.debug("Cache file doesn't exists. File: {}", cacheFile);
@@ -193,30 +246,52 @@ class FileCacheManager {
     return null;
   }
 
-  void writeCacheFile(JsonNode input) {
-    logger.debug("Writing cache file. File: {}", cacheFile);
-    if (cacheFile == null || !tryLockCacheFile()) {
-      // no cache file or it failed to lock file
-      logger.debug(
-          "No cache file exists or failed to lock the file. Skipping writing the cache", false);
+  /** Writes the cache file. The caller must hold the lock of the cache file. */
+  private void writeCacheFileContent(JsonNode input) {
+    if (input == null) {
       return;
     }
-    // NOTE: must unlock cache file
     try {
-      if (input == null) {
-        return;
-      }
-      try (Writer writer =
-          new OutputStreamWriter(new FileOutputStream(cacheFile), DEFAULT_FILE_ENCODING)) {
-        FileUtil.logFileUsage(cacheFile, "Write to cache", false);
-        writer.write(input.toString());
+      // write a temporary file replacing the cache file at once, so that the readers never see a
+      // partially written cache, even if they don't check the lock
+      Path tmpFile = Files.createTempFile(cacheDir.toPath(), baseCacheFileName, ".tmp");
+      try {
+        copyPermissions(cacheFile.toPath(), tmpFile);
+        try (Writer writer =
+            new OutputStreamWriter(Files.newOutputStream(tmpFile), DEFAULT_FILE_ENCODING)) {
+          FileUtil.logFileUsage(cacheFile, "Write to cache", false);
+          writer.write(input.toString());
+        }
+        try {
+          Files.move(
+              tmpFile,
+              cacheFile.toPath(),
+              StandardCopyOption.ATOMIC_MOVE,
+              StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException ex) {
+          Files.move(tmpFile, cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+      } finally {
+        Files.deleteIfExists(tmpFile);
       }
     } catch (IOException ex) {
       logger.debug("Failed to write the cache file. File: {}", cacheFile);
-    } finally {
-      if (!unlockCacheFile()) {
-        logger.debug("Failed to unlock cache file", false);
-      }
+    }
+  }
+
+  /**
+   * Gives the temporary file the permissions of the cache file it replaces. Files.createTempFile
+   * creates it readable by the owner only, whereas the cache file is created with the default
+   * permissions and may be shared.
+   */
+  private static void copyPermissions(Path cacheFile, Path tmpFile) throws IOException {
+    if (!cacheFile.toFile().exists()) {
+      return;
+    }
+    try {
+      Files.setPosixFilePermissions(tmpFile, Files.getPosixFilePermissions(cacheFile));
+    } catch (UnsupportedOperationException ex) {
+      // not a POSIX file system
     }
   }
 
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2012-2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.core;
+
+/** Statistics of the connection pools of the shared HTTP clients and of their TLS handshakes */
+@SnowflakeJdbcInternalApi
+public class HttpConnectionPoolStats {
+  private final int leased;
+
+  private final int available;
+
+  private final int pending;
+
+  private final int max;
+
+  private final long handshakes;
+
+  private final long resumedHandshakes;
+
+  private final long handshakeMillis;
+
+  HttpConnectionPoolStats(
+      int leased,
+      int available,
+      int pending,
+      int max,
+      long handshakes,
+      long resumedHandshakes,
+      long handshakeMillis) {
+    this.leased = leased;
+    this.available = available;
+    this.pending = pending;
+    this.max = max;
+    this.handshakes = handshakes;
+    this.resumedHandshakes = resumedHandshakes;
+    this.handshakeMillis = handshakeMillis;
+  }
+
+  /** @return number of connections in use */
+  public int getLeased() {
+    return leased;
+  }
+
+  /** @return number of idle connections kept open in the pools */
+  public int getAvailable() {
+    return available;
+  }
+
+  /** @return number of requests waiting for a connection */
+  public int getPending() {
+    return pending;
+  }
+
+  /** @return maximum number of connections of the pools */
+  public int getMax() {
+    return max;
+  }
+
+  /** @return number of TLS handshakes done since the driver was loaded */
+  public long getHandshakes() {
+    return handshakes;
+  }
+
+  /** @return number of TLS handshakes that resumed an earlier session */
+  public long getResumedHandshakes() {
+    return resumedHandshakes;
+  }
+
+  /** @return total time spent in TLS handshakes, in milliseconds */
+  public long getHandshakeMillis() {
+    return handshakeMillis;
+  }
+
+  @Override
+  public String toString() {
+    return "[leased: "
+        + leased
+        + "; pending: "
+        + pending
+        + "; available: "
+        + available
+        + "; max: "
+        + max
+        + "; handshakes: "
+        + handshakes
+        + "; resumed: "
+        + resumedHandshakes
+        + "; handshake time: "
+        + handshakeMillis
+        + " ms]";
+  }
+}
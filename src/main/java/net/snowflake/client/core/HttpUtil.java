@@ -9,6 +9,8 @@ import static org.apache.http.client.config.CookieSpecs.DEFAULT;
 import static org.apache.http.client.config.CookieSpecs.IGNORE_COOKIES;
 
 import com.amazonaws.ClientConfiguration;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Strings;
 import com.microsoft.azure.storage.OperationContext;
@@ -19,16 +21,23 @@ import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.net.InetSocketAddress;
 import java.net.Proxy;
+import java.net.ProxySelector;
 import java.net.Socket;
+import java.net.URI;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import javax.annotation.Nullable;
+import javax.net.ssl.SSLContext;
 import javax.net.ssl.TrustManager;
 import net.snowflake.client.jdbc.ErrorCode;
 import net.snowflake.client.jdbc.RestRequest;
@@ -44,6 +53,7 @@ import net.snowflake.client.util.SecretDetector;
 import net.snowflake.client.util.Stopwatch;
 import net.snowflake.common.core.SqlState;
 import org.apache.commons.io.IOUtils;
+import org.apache.http.HttpClientConnection;
 import org.apache.http.HttpHost;
 import org.apache.http.auth.AuthScope;
 import org.apache.http.auth.Credentials;
@@ -51,9 +61,13 @@ import org.apache.http.auth.UsernamePasswordCredentials;
 import org.apache.http.client.CredentialsProvider;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.client.utils.URIUtils;
 import org.apache.http.config.Registry;
 import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.routing.HttpRoute;
 import org.apache.http.conn.socket.ConnectionSocketFactory;
 import org.apache.http.conn.socket.PlainConnectionSocketFactory;
 import org.apache.http.impl.client.BasicCredentialsProvider;
@@ -61,6 +75,8 @@ import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.DefaultRedirectStrategy;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.conn.SystemDefaultRoutePlanner;
+import org.apache.http.pool.PoolStats;
 import org.apache.http.protocol.HttpContext;
 import org.apache.http.ssl.SSLInitializationException;
 import org.apache.http.util.EntityUtils;
@@ -68,6 +84,8 @@ import org.apache.http.util.EntityUtils;
 public class HttpUtil {
   private static final SFLogger logger = SFLoggerFactory.getLogger(HttpUtil.class);
 
+  private static final ObjectMapper mapper = ObjectMapperFactory.getObjectMapper();
+
   static final int DEFAULT_MAX_CONNECTIONS = 300;
   static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 300;
   private static final int DEFAULT_HTTP_CLIENT_CONNECTION_TIMEOUT_IN_MS = 60000;
@@ -104,8 +122,16 @@ public class HttpUtil {
   static Map<HttpClientSettingsKey, SnowflakeMutableProxyRoutePlanner> httpClientRoutePlanner =
       new ConcurrentHashMap<>();
 
-  /** Handle on the static connection manager, to gather statistics mainly */
-  private static PoolingHttpClientConnectionManager connectionManager = null;
+  /** Connection managers of the HTTP clients, to gather statistics and warm up connections */
+  private static final Map<CloseableHttpClient, PoolingHttpClientConnectionManager>
+      connectionManagers = Collections.synchronizedMap(new WeakHashMap<>());
+
+  /**
+   * SSL contexts of the HTTP clients. The clients of a key share their SSL context, and so its TLS
+   * session cache and trust manager.
+   */
+  private static final Map<HttpClientSettingsKey, SSLContext> sslContexts =
+      new ConcurrentHashMap<>();
 
   /** default request configuration, to be copied on individual requests. */
   private static RequestConfig DefaultRequestConfig = null;
@@ -131,15 +157,111 @@ public class HttpUtil {
   }
 
   public static void closeExpiredAndIdleConnections() {
-    if (connectionManager != null) {
+    logger.debug("Connection pool stats: {}", (ArgSupplier) HttpUtil::getHttpClientStats);
+    for (PoolingHttpClientConnectionManager connectionManager : getConnectionManagers()) {
       synchronized (connectionManager) {
-        logger.debug("Connection pool stats: {}", connectionManager.getTotalStats());
         connectionManager.closeExpiredConnections();
         connectionManager.closeIdleConnections(DEFAULT_IDLE_CONNECTION_TIMEOUT, TimeUnit.SECONDS);
       }
     }
   }
 
+  @VisibleForTesting
+  static List<PoolingHttpClientConnectionManager> getConnectionManagers() {
+    synchronized (connectionManagers) {
+      return new ArrayList<>(connectionManagers.values());
+    }
+  }
+
+  @VisibleForTesting
+  static PoolingHttpClientConnectionManager getConnectionManager(CloseableHttpClient client) {
+    return connectionManagers.get(client);
+  }
+
+  /**
+   * @return statistics of the connection pools of all the HTTP clients and of their TLS handshakes
+   */
+  @SnowflakeJdbcInternalApi
+  public static HttpConnectionPoolStats getConnectionPoolStats() {
+    int leased = 0;
+    int available = 0;
+    int pending = 0;
+    int max = 0;
+    for (PoolingHttpClientConnectionManager connectionManager : getConnectionManagers()) {
+      PoolStats stats = connectionManager.getTotalStats();
+      leased += stats.getLeased();
+      available += stats.getAvailable();
+      pending += stats.getPending();
+      max += stats.getMax();
+    }
+    return new HttpConnectionPoolStats(
+        leased,
+        available,
+        pending,
+        max,
+        SFSSLConnectionSocketFactory.getHandshakeCount(),
+        SFSSLConnectionSocketFactory.getResumedHandshakeCount(),
+        SFSSLConnectionSocketFactory.getHandshakeMillis());
+  }
+
+  /**
+   * Open a connection to the host of the url and return it to the pool of the HTTP client of the
+   * key, unless the pool already holds an idle connection to this host. Connections through a proxy
+   * are not warmed up.
+   *
+   * <p>The TLS session of the connection is cached, so connections opened next to the same host
+   * resume it instead of doing a full handshake and certificate validation each.
+   *
+   * @param key key of the HTTP client
+   * @param url url of a resource on the host
+   */
+  @SnowflakeJdbcInternalApi
+  public static void warmUpConnection(HttpClientSettingsKey key, String url) {
+    if (key.usesProxy()) {
+      return;
+    }
+    PoolingHttpClientConnectionManager connectionManager =
+        connectionManagers.get(getHttpClient(key));
+    if (connectionManager == null) {
+      return;
+    }
+    HttpClientConnection connection = null;
+    try {
+      URI uri = new URI(url);
+      HttpClientContext context = HttpClientContext.create();
+      HttpRoute route =
+          new SystemDefaultRoutePlanner(ProxySelector.getDefault())
+              .determineRoute(URIUtils.extractHost(uri), new HttpGet(uri), context);
+      if (route.getProxyHost() != null || connectionManager.getStats(route).getAvailable() > 0) {
+        return;
+      }
+      Stopwatch stopwatch = new Stopwatch();
+      stopwatch.start();
+      int connectTimeout = (int) getConnectionTimeout().toMillis();
+      connection =
+          connectionManager
+              .requestConnection(route, null)
+              .get(connectTimeout, TimeUnit.MILLISECONDS);
+      if (!connection.isOpen()) {
+        connectionManager.connect(connection, route, connectTimeout, context);
+        connectionManager.routeComplete(connection, route, context);
+      }
+      stopwatch.stop();
+      logger.debug(
+          "Warmed up connection to {} in {} ms", route.getTargetHost(), stopwatch.elapsedMillis());
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    } catch (Exception ex) {
+      // the requests will open their connections as usual
+      logger.debug("Failed to warm up connection to {}: {}", url, ex.getMessage());
+    } finally {
+      if (connection != null) {
+        // a connection that failed to open is closed, and so discarded by the pool
+        connectionManager.releaseConnection(connection, null, 0, TimeUnit.MILLISECONDS);
+      }
+    }
+  }
+
   /**
    * A static function to set S3 proxy params when there is a valid session
    *
@@ -334,8 +456,13 @@ public class HttpUtil {
       DefaultRequestConfig = builder.build();
     }
 
+    // a custom OCSP cache file is not part of the key, so its clients don't share an SSL context
+    boolean shareSSLContext = key != null && ocspCacheFile == null;
+    SSLContext sslContext = shareSSLContext ? sslContexts.get(key) : null;
     TrustManager[] trustManagers = null;
-    if (key != null && key.getOcspMode() != OCSPMode.INSECURE) {
+    if (sslContext != null) {
+      logger.debug("Reusing SSL context of client settings key");
+    } else if (key != null && key.getOcspMode() != OCSPMode.INSECURE) {
       // A custom TrustManager is required only if insecureMode is disabled,
       // which is by default in the production. insecureMode can be enabled
       // 1) OCSP service is down for reasons, 2) PowerMock test that doesn't
@@ -368,15 +495,21 @@ public class HttpUtil {
               + "connection socket factory",
           socksProxyDisabled);
 
+      if (sslContext == null) {
+        sslContext = SFSSLConnectionSocketFactory.getSSLContext(trustManagers);
+        if (shareSSLContext) {
+          SSLContext sharedSSLContext = sslContexts.putIfAbsent(key, sslContext);
+          sslContext = sharedSSLContext != null ? sharedSSLContext : sslContext;
+        }
+      }
       Registry<ConnectionSocketFactory> registry =
           RegistryBuilder.<ConnectionSocketFactory>create()
-              .register(
-                  "https", new SFSSLConnectionSocketFactory(trustManagers, socksProxyDisabled))
+              .register("https", new SFSSLConnectionSocketFactory(sslContext, socksProxyDisabled))
               .register("http", new SFConnectionSocketFactory())
               .build();
 
       // Build a connection manager with enough connections
-      connectionManager =
+      PoolingHttpClientConnectionManager connectionManager =
           new PoolingHttpClientConnectionManager(
               registry, null, null, null, timeToLive, TimeUnit.SECONDS);
       int maxConnections =
@@ -438,7 +571,9 @@ public class HttpUtil {
         logger.debug("Disabling content compression for http client");
         httpClientBuilder = httpClientBuilder.disableContentCompression();
       }
-      return httpClientBuilder.build();
+      CloseableHttpClient client = httpClientBuilder.build();
+      connectionManagers.put(client, connectionManager);
+      return client;
     } catch (NoSuchAlgorithmException | KeyManagementException ex) {
       throw new SSLInitializationException(ex.getMessage(), ex);
     }
@@ -563,7 +698,7 @@ public class HttpUtil {
    * @return HTTP Client stats in string representation
    */
   private static String getHttpClientStats() {
-    return connectionManager == null ? "" : connectionManager.getTotalStats().toString();
+    return getConnectionPoolStats().toString();
   }
 
   /**
@@ -750,6 +885,59 @@ public class HttpUtil {
         execTimeData);
   }
 
+  /**
+   * Executes a HTTP request for Snowflake and parses the JSON response while it is read from the
+   * connection, so that large responses are not held as a String in addition to the JSON tree.
+   *
+   * @param httpRequest HttpRequestBase
+   * @param retryTimeout retry timeout
+   * @param authTimeout authenticator timeout
+   * @param socketTimeout socket timeout (in ms)
+   * @param maxRetries retry count for the request
+   * @param injectSocketTimeout injecting socket timeout
+   * @param canceling canceling?
+   * @param includeRetryParameters whether to include retry parameters in retried requests
+   * @param retryOnHTTP403 whether to retry on HTTP 403 or not
+   * @param ocspAndProxyKey OCSP mode and proxy settings for httpclient
+   * @param execTimeData telemetry data of the query execution
+   * @return response as JSON
+   * @throws SnowflakeSQLException if Snowflake error occurs
+   * @throws com.fasterxml.jackson.core.JsonProcessingException if the response is not valid JSON
+   * @throws IOException raises if a general IO error occurs
+   */
+  public static JsonNode executeRequestForJson(
+      HttpRequestBase httpRequest,
+      int retryTimeout,
+      int authTimeout,
+      int socketTimeout,
+      int maxRetries,
+      int injectSocketTimeout,
+      AtomicBoolean canceling,
+      boolean includeRetryParameters,
+      boolean retryOnHTTP403,
+      HttpClientSettingsKey ocspAndProxyKey,
+      ExecTimeTelemetryData execTimeData)
+      throws SnowflakeSQLException, IOException {
+    boolean ocspEnabled = !(ocspAndProxyKey.getOcspMode().equals(OCSPMode.INSECURE));
+    logger.debug("Executing request with OCSP enabled: {}", ocspEnabled);
+    execTimeData.setOCSPStatus(ocspEnabled);
+    return executeRequestInternal(
+        httpRequest,
+        retryTimeout,
+        authTimeout,
+        socketTimeout,
+        maxRetries,
+        injectSocketTimeout,
+        canceling,
+        false, // with cookie (do we need cookie?)
+        includeRetryParameters,
+        true, // include request GUID
+        retryOnHTTP403,
+        getHttpClient(ocspAndProxyKey),
+        execTimeData,
+        mapper::readTree);
+  }
+
   /**
    * Helper to execute a request with retry and check and throw exception if response is not
    * success. This should be used only for small request has it execute the REST request and get
@@ -788,6 +976,49 @@ public class HttpUtil {
       CloseableHttpClient httpClient,
       ExecTimeTelemetryData execTimeData)
       throws SnowflakeSQLException, IOException {
+    return executeRequestInternal(
+        httpRequest,
+        retryTimeout,
+        authTimeout,
+        socketTimeout,
+        maxRetries,
+        injectSocketTimeout,
+        canceling,
+        withoutCookies,
+        includeRetryParameters,
+        includeRequestGuid,
+        retryOnHTTP403,
+        httpClient,
+        execTimeData,
+        ins -> {
+          StringWriter writer = new StringWriter();
+          IOUtils.copy(ins, writer, "UTF-8");
+          return writer.toString();
+        });
+  }
+
+  /** Reads the content of a successful response */
+  @FunctionalInterface
+  private interface ResponseReader<T> {
+    T read(InputStream content) throws IOException;
+  }
+
+  private static <T> T executeRequestInternal(
+      HttpRequestBase httpRequest,
+      int retryTimeout,
+      int authTimeout,
+      int socketTimeout,
+      int maxRetries,
+      int injectSocketTimeout,
+      AtomicBoolean canceling,
+      boolean withoutCookies,
+      boolean includeRetryParameters,
+      boolean includeRequestGuid,
+      boolean retryOnHTTP403,
+      CloseableHttpClient httpClient,
+      ExecTimeTelemetryData execTimeData,
+      ResponseReader<T> responseReader)
+      throws SnowflakeSQLException, IOException {
     // HttpRequest.toString() contains request URI. Scrub any credentials, if
     // present, before logging
     String requestInfoScrubbed = SecretDetector.maskSASToken(httpRequest.toString());
@@ -795,8 +1026,7 @@ public class HttpUtil {
     logger.debug(
         "Pool: {} Executing: {}", (ArgSupplier) HttpUtil::getHttpClientStats, requestInfoScrubbed);
 
-    String theString;
-    StringWriter writer = null;
+    T result;
     CloseableHttpResponse response = null;
     Stopwatch stopwatch = null;
 
@@ -844,14 +1074,11 @@ public class HttpUtil {
       }
 
       execTimeData.setResponseIOStreamStart();
-      writer = new StringWriter();
       try (InputStream ins = response.getEntity().getContent()) {
-        IOUtils.copy(ins, writer, "UTF-8");
+        result = responseReader.read(ins);
       }
-      theString = writer.toString();
       execTimeData.setResponseIOStreamEnd();
     } finally {
-      IOUtils.closeQuietly(writer);
       IOUtils.closeQuietly(response);
     }
 
@@ -861,7 +1088,7 @@ public class HttpUtil {
         requestInfoScrubbed,
         stopwatch == null ? "n/a" : stopwatch.elapsedMillis());
 
-    return theString;
+    return result;
   }
 
   // This is a workaround for JDK-7036144.
@@ -8,8 +8,15 @@ import com.fasterxml.jackson.databind.JsonNode;
 import java.math.BigDecimal;
 import java.sql.Date;
 import java.sql.SQLException;
+import java.sql.Time;
 import java.sql.Timestamp;
 import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
@@ -19,6 +26,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.TimeZone;
 import net.snowflake.client.jdbc.ErrorCode;
+import net.snowflake.client.jdbc.SnowflakeType;
 import net.snowflake.client.jdbc.SnowflakeUtil;
 import net.snowflake.client.log.ArgSupplier;
 import net.snowflake.client.log.SFLogger;
@@ -122,6 +130,101 @@ public class ResultUtil {
     }
   }
 
+  /**
+   * @param type a class
+   * @return true if the class is one of the java.time types supported by the result sets
+   */
+  public static boolean isJavaTimeType(Class<?> type) {
+    return type == LocalDateTime.class
+        || type == OffsetDateTime.class
+        || type == Instant.class
+        || type == LocalDate.class
+        || type == LocalTime.class;
+  }
+
+  /**
+   * Convert a Date, Time or Timestamp to a java.time type. Offsets and local values of timestamps
+   * are in the JVM default time zone, like the Timestamp itself.
+   *
+   * @param value Date, Time or Timestamp, may be null
+   * @param type LocalDateTime, OffsetDateTime, Instant, LocalDate or LocalTime
+   * @param <T> the java.time type
+   * @return the converted value, null if the value is null
+   * @throws SFException if the value cannot be converted to the type
+   */
+  public static <T> T toJavaTime(java.util.Date value, Class<T> type) throws SFException {
+    if (value == null) {
+      return null;
+    }
+    Object result = null;
+    if (value instanceof Timestamp) {
+      Timestamp ts = (Timestamp) value;
+      if (type == LocalDateTime.class) {
+        result = ts.toLocalDateTime();
+      } else if (type == OffsetDateTime.class) {
+        result = OffsetDateTime.ofInstant(ts.toInstant(), ZoneId.systemDefault());
+      } else if (type == Instant.class) {
+        result = ts.toInstant();
+      } else if (type == LocalDate.class) {
+        result = ts.toLocalDateTime().toLocalDate();
+      } else if (type == LocalTime.class) {
+        result = ts.toLocalDateTime().toLocalTime();
+      }
+    } else if (value instanceof Date && type == LocalDate.class) {
+      result = ((Date) value).toLocalDate();
+    } else if (value instanceof Time && type == LocalTime.class) {
+      result = ((Time) value).toLocalTime();
+    }
+    if (result == null) {
+      throw new SFException(
+          ErrorCode.INVALID_VALUE_CONVERT, value.getClass().getSimpleName(), type.getName(), value);
+    }
+    return type.cast(result);
+  }
+
+  /**
+   * Convert a timestamp to a java.time type. JSON and Arrow results both convert TIMESTAMP_NTZ,
+   * TIMESTAMP_LTZ and TIMESTAMP_TZ values with this method, so that they return the same values.
+   *
+   * @param value the timestamp, with the offset of the value, may be null
+   * @param type LocalDateTime, OffsetDateTime, Instant, LocalDate or LocalTime
+   * @param <T> the java.time type
+   * @return the converted value, null if the value is null
+   */
+  public static <T> T toJavaTime(OffsetDateTime value, Class<T> type) {
+    if (value == null) {
+      return null;
+    }
+    Object result;
+    if (type == LocalDateTime.class) {
+      result = value.toLocalDateTime();
+    } else if (type == Instant.class) {
+      result = value.toInstant();
+    } else if (type == LocalDate.class) {
+      result = value.toLocalDate();
+    } else if (type == LocalTime.class) {
+      result = value.toLocalTime();
+    } else {
+      result = value;
+    }
+    return type.cast(result);
+  }
+
+  /**
+   * TIMESTAMP_NTZ values are wall clock times without a time zone, so they are read as
+   * LocalDateTime, LocalDate or LocalTime only. An Instant or OffsetDateTime would depend on a time
+   * zone the value does not have.
+   *
+   * @param type the java.time type a TIMESTAMP_NTZ value is read as
+   * @throws SFException if the type is Instant or OffsetDateTime
+   */
+  public static void checkJavaTimeTypeOfTimestampNTZ(Class<?> type) throws SFException {
+    if (type == Instant.class || type == OffsetDateTime.class) {
+      throw new SFException(
+          ErrorCode.INVALID_VALUE_CONVERT, SnowflakeType.TIMESTAMP_NTZ.name(), type.getName(), "");
+    }
+  }
+
   /**
    * For dates before 1582-10-05, calculate the number of millis to adjust.
    *
@@ -20,9 +20,21 @@ import java.sql.SQLInput;
 import java.sql.Time;
 import java.sql.Timestamp;
 import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 import net.snowflake.client.core.arrow.ArrayConverter;
 import net.snowflake.client.core.arrow.ArrowVectorConverter;
@@ -34,9 +46,13 @@ import net.snowflake.client.jdbc.ArrowResultChunk;
 import net.snowflake.client.jdbc.ArrowResultChunk.ArrowChunkIterator;
 import net.snowflake.client.jdbc.ErrorCode;
 import net.snowflake.client.jdbc.FieldMetadata;
+import net.snowflake.client.jdbc.SnowflakeChunkDownloader;
+import net.snowflake.client.jdbc.SnowflakeRecordBatch;
+import net.snowflake.client.jdbc.SnowflakeRecordBatchHandler;
 import net.snowflake.client.jdbc.SnowflakeResultSetSerializableV1;
 import net.snowflake.client.jdbc.SnowflakeSQLException;
 import net.snowflake.client.jdbc.SnowflakeSQLLoggedException;
+import net.snowflake.client.jdbc.SnowflakeUtil;
 import net.snowflake.client.jdbc.telemetry.Telemetry;
 import net.snowflake.client.jdbc.telemetry.TelemetryData;
 import net.snowflake.client.jdbc.telemetry.TelemetryField;
@@ -48,6 +64,9 @@ import net.snowflake.common.core.SFBinaryFormat;
 import net.snowflake.common.core.SnowflakeDateTimeFormat;
 import net.snowflake.common.core.SqlState;
 import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.ipc.ArrowReader;
+import org.apache.arrow.vector.types.pojo.Schema;
 import org.apache.arrow.vector.util.JsonStringHashMap;
 
 /** Arrow result set implementation */
@@ -455,6 +474,204 @@ public class SFArrowResultSet extends SFBaseResultSet implements DataConversionC
     }
   }
 
+  /**
+   * Advance over the remaining rows of the current Arrow record batch and return them in columnar
+   * form. The returned batch is valid until the result set moves to the next chunk.
+   *
+   * @return the next batch of rows, or null if there are no more rows
+   */
+  @Override
+  public SnowflakeRecordBatch nextBatch() throws SFException, SnowflakeSQLException {
+    if (sortResult) {
+      throw new SFException(
+          ErrorCode.FEATURE_UNSUPPORTED, "columnar batch access of sorted result");
+    }
+    if (!next()) {
+      return null;
+    }
+    SnowflakeRecordBatch batch = nextRecordBatchRows(currentChunkIterator);
+    // the current row was already counted by next()
+    row += batch.getRowCount() - 1;
+    return batch;
+  }
+
+  private SnowflakeRecordBatch nextRecordBatchRows(ArrowChunkIterator iterator)
+      throws SFException, SnowflakeSQLException {
+    for (int i = 0; i < resultSetMetaData.getColumnCount(); i++) {
+      ArrowVectorConverter converter = iterator.getCurrentConverter(i);
+      converter.setTreatNTZAsUTC(treatNTZAsUTC);
+      converter.setUseSessionTimezone(useSessionTimezone);
+      converter.setSessionTimeZone(sessionTimeZone);
+    }
+    return iterator.nextRecordBatchRows();
+  }
+
+  /**
+   * Consume the remaining rows of this result set with several threads. Each thread claims whole
+   * chunks from the chunk downloader and passes their record batches to the handler. The rest of
+   * the current chunk is handled first, by one of the threads.
+   *
+   * @param parallelism number of threads
+   * @param ordered if true, chunks are claimed in chunk order, otherwise in the order they finish
+   *     downloading
+   * @param handler handler of the record batches
+   */
+  @Override
+  public void consumeInParallel(
+      int parallelism, boolean ordered, SnowflakeRecordBatchHandler handler)
+      throws SFException, SQLException {
+    if (sortResult) {
+      throw new SFException(ErrorCode.FEATURE_UNSUPPORTED, "parallel consumption of sorted result");
+    }
+    if (parallelism < 1) {
+      throw new SFException(ErrorCode.INVALID_PARAMETER_VALUE, parallelism, "parallelism");
+    }
+    final SnowflakeChunkDownloader downloader;
+    if (nextChunkIndex >= chunkCount) {
+      downloader = null;
+    } else if (chunkDownloader instanceof SnowflakeChunkDownloader) {
+      downloader = (SnowflakeChunkDownloader) chunkDownloader;
+    } else {
+      throw new SFException(ErrorCode.FEATURE_UNSUPPORTED, "parallel consumption of this result");
+    }
+
+    final ArrowChunkIterator firstIterator = currentChunkIterator;
+    final int firstChunkIndex = (int) nextChunkIndex;
+    final AtomicBoolean firstChunkTaken = new AtomicBoolean(false);
+    final AtomicBoolean failed = new AtomicBoolean(false);
+    final AtomicLong rowCount = new AtomicLong(0);
+    Callable<Void> worker =
+        () -> {
+          try {
+            if (firstChunkTaken.compareAndSet(false, true)) {
+              rowCount.addAndGet(handleChunk(firstChunkIndex, firstIterator, handler));
+            }
+            while (downloader != null && !failed.get()) {
+              int chunkIndex = downloader.claimNextChunk(ordered);
+              if (chunkIndex < 0) {
+                break;
+              }
+              try {
+                ArrowResultChunk chunk = (ArrowResultChunk) downloader.getChunk(chunkIndex);
+                // the first chunk of the result is not downloaded
+                rowCount.addAndGet(handleChunk(chunkIndex + 1, chunk.getIterator(this), handler));
+              } finally {
+                downloader.releaseChunk(chunkIndex);
+              }
+            }
+            return null;
+          } catch (Exception ex) {
+            failed.set(true);
+            throw ex;
+          }
+        };
+
+    ExecutorService executor =
+        SnowflakeUtil.createDefaultExecutorService("result-consumer-" + queryId + "-", parallelism);
+    Throwable error = null;
+    try {
+      List<Future<Void>> futures = new ArrayList<>();
+      for (int i = 0; i < parallelism; i++) {
+        futures.add(executor.submit(worker));
+      }
+      for (Future<Void> future : futures) {
+        try {
+          future.get();
+        } catch (ExecutionException ex) {
+          if (error == null) {
+            error = ex.getCause();
+          }
+        }
+      }
+    } catch (InterruptedException ex) {
+      failed.set(true);
+      executor.shutdownNow();
+      throw new SnowflakeSQLLoggedException(
+          session, ErrorCode.INTERRUPTED.getMessageCode(), SqlState.QUERY_CANCELED);
+    } finally {
+      executor.shutdown();
+    }
+
+    // all rows are consumed, or the result set is unusable after a failure
+    firstIterator.getChunk().freeData();
+    currentChunkIterator = ArrowResultChunk.getEmptyChunkIterator();
+    nextChunkIndex = chunkCount;
+    row += rowCount.get();
+    if (error instanceof SFException) {
+      throw (SFException) error;
+    } else if (error instanceof SQLException) {
+      throw (SQLException) error;
+    } else if (error != null) {
+      throw new SnowflakeSQLLoggedException(
+          session,
+          SqlState.INTERNAL_ERROR,
+          ErrorCode.INTERNAL_ERROR.getMessageCode(),
+          error,
+          "Failed to consume result in parallel: " + error.getMessage());
+    }
+    if (downloader != null) {
+      try {
+        logChunkDownloaderMetrics(downloader.terminate());
+      } catch (InterruptedException ex) {
+        throw new SnowflakeSQLLoggedException(
+            session, ErrorCode.INTERRUPTED.getMessageCode(), SqlState.QUERY_CANCELED);
+      }
+    }
+  }
+
+  /**
+   * Pass the remaining record batches of a chunk to the handler
+   *
+   * @return number of rows handled
+   */
+  private long handleChunk(
+      int chunkIndex, ArrowChunkIterator iterator, SnowflakeRecordBatchHandler handler)
+      throws SFException, SQLException {
+    long rowCount = 0;
+    while (iterator.next()) {
+      SnowflakeRecordBatch batch = nextRecordBatchRows(iterator);
+      rowCount += batch.getRowCount();
+      handler.handle(chunkIndex, batch);
+    }
+    return rowCount;
+  }
+
+  /**
+   * Get an ArrowReader over the remaining rows of this result set, in chunk order. Record batches
+   * are moved into the reader without copying. The reader must be closed before this result set.
+   *
+   * @return ArrowReader over the remaining rows
+   */
+  @Override
+  public ArrowReader getArrowReader() throws SFException {
+    if (sortResult) {
+      throw new SFException(ErrorCode.FEATURE_UNSUPPORTED, "Arrow export of sorted result");
+    }
+    return new ArrowResultSetReader(
+        this, rootAllocator.newChildAllocator("ArrowResultSetReader", 0, Long.MAX_VALUE));
+  }
+
+  /**
+   * @return Arrow schema of the current record batch
+   */
+  Schema getCurrentRecordBatchSchema() {
+    return currentChunkIterator.getCurrentRecordBatchSchema();
+  }
+
+  /**
+   * Transfer the rows of the current record batch from the current row onwards into the target
+   * vectors, and move the cursor to the last row of the batch.
+   *
+   * @param targets target vectors, one per column
+   * @return number of rows transferred
+   */
+  int transferRecordBatchRows(List<FieldVector> targets) {
+    int rowCount = currentChunkIterator.transferRecordBatchRows(targets);
+    // the current row was already counted by next()
+    row += rowCount - 1;
+    return rowCount;
+  }
+
   @Override
   public byte getByte(int columnIndex) throws SFException {
     ArrowVectorConverter converter = currentChunkIterator.getCurrentConverter(columnIndex - 1);
@@ -557,6 +774,30 @@ public class SFArrowResultSet extends SFBaseResultSet implements DataConversionC
     return converter.toTimestamp(index, tz);
   }
 
+  @Override
+  public <T> T getJavaTimeObject(int columnIndex, Class<T> type) throws SFException {
+    ArrowVectorConverter converter = currentChunkIterator.getCurrentConverter(columnIndex - 1);
+    int index = currentChunkIterator.getCurrentRowInRecordBatch();
+    wasNull = converter.isNull(index);
+    converter.setSessionTimeZone(sessionTimeZone);
+    converter.setUseSessionTimezone(useSessionTimezone);
+    Object value;
+    if (type == LocalDateTime.class) {
+      value = converter.toLocalDateTime(index);
+    } else if (type == OffsetDateTime.class) {
+      value = converter.toOffsetDateTime(index);
+    } else if (type == Instant.class) {
+      value = converter.toInstant(index);
+    } else if (type == LocalDate.class) {
+      value = converter.toLocalDate(index);
+    } else if (type == LocalTime.class) {
+      value = converter.toLocalTime(index);
+    } else {
+      return super.getJavaTimeObject(columnIndex, type);
+    }
+    return type.cast(value);
+  }
+
   @Override
   public Object getObject(int columnIndex) throws SFException {
     ArrowVectorConverter converter = currentChunkIterator.getCurrentConverter(columnIndex - 1);
@@ -565,15 +806,15 @@ public class SFArrowResultSet extends SFBaseResultSet implements DataConversionC
     converter.setTreatNTZAsUTC(treatNTZAsUTC);
     converter.setUseSessionTimezone(useSessionTimezone);
     converter.setSessionTimeZone(sessionTimeZone);
-    Object obj = converter.toObject(index);
     int type = resultSetMetaData.getColumnType(columnIndex);
     boolean isStructuredType = resultSetMetaData.isStructuredTypeColumn(columnIndex);
-    if (type == Types.STRUCT && isStructuredType) {
-      if (converter instanceof VarCharConverter) {
-        return createJsonSqlInput(columnIndex, obj);
-      } else if (converter instanceof StructConverter) {
-        return createArrowSqlInput(columnIndex, (Map<String, Object>) obj);
-      }
+    if (type == Types.STRUCT && isStructuredType && converter instanceof StructConverter) {
+      // fields are read from the child vectors, so the row is not converted to a map
+      return createArrowSqlInput(columnIndex, (StructConverter) converter, index);
+    }
+    Object obj = converter.toObject(index);
+    if (type == Types.STRUCT && isStructuredType && converter instanceof VarCharConverter) {
+      return createJsonSqlInput(columnIndex, obj);
     }
     return obj;
   }
@@ -597,13 +838,17 @@ public class SFArrowResultSet extends SFBaseResultSet implements DataConversionC
     }
   }
 
-  private Object createArrowSqlInput(int columnIndex, Map<String, Object> input)
+  private Object createArrowSqlInput(int columnIndex, StructConverter converter, int index)
       throws SFException {
-    if (input == null) {
+    if (wasNull) {
       return null;
     }
     return new ArrowSqlInput(
-        input, session, converters, resultSetMetaData.getColumnFields(columnIndex));
+        converter.getStructVector(),
+        index,
+        session,
+        converters,
+        resultSetMetaData.getColumnFields(columnIndex));
   }
 
   @Override
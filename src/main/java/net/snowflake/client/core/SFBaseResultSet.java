@@ -18,6 +18,8 @@ import java.sql.SQLInput;
 import java.sql.Time;
 import java.sql.Timestamp;
 import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -32,6 +34,8 @@ import java.util.stream.StreamSupport;
 import net.snowflake.client.core.json.Converters;
 import net.snowflake.client.jdbc.ErrorCode;
 import net.snowflake.client.jdbc.FieldMetadata;
+import net.snowflake.client.jdbc.SnowflakeRecordBatch;
+import net.snowflake.client.jdbc.SnowflakeRecordBatchHandler;
 import net.snowflake.client.jdbc.SnowflakeResultSetSerializable;
 import net.snowflake.client.jdbc.SnowflakeResultSetSerializableV1;
 import net.snowflake.client.jdbc.SnowflakeSQLException;
@@ -40,6 +44,7 @@ import net.snowflake.client.log.SFLoggerFactory;
 import net.snowflake.client.util.Converter;
 import net.snowflake.common.core.SFBinaryFormat;
 import net.snowflake.common.core.SnowflakeDateTimeFormat;
+import org.apache.arrow.vector.ipc.ArrowReader;
 
 /** Base class for query result set and metadata result set */
 public abstract class SFBaseResultSet {
@@ -113,6 +118,26 @@ public abstract class SFBaseResultSet {
 
   public abstract Object getObject(int columnIndex) throws SFException;
 
+  /**
+   * Get the value of a column as a java.time type. This implementation converts the Date, Time or
+   * Timestamp of the column; result sets that can create the java.time value directly override it.
+   *
+   * @param columnIndex column index, starting at 1
+   * @param type LocalDateTime, OffsetDateTime, Instant, LocalDate or LocalTime
+   * @param <T> the java.time type
+   * @return the value, null if the value is null
+   * @throws SFException if the value cannot be converted to the type
+   */
+  public <T> T getJavaTimeObject(int columnIndex, Class<T> type) throws SFException {
+    if (type == LocalDate.class) {
+      return ResultUtil.toJavaTime(getDate(columnIndex, null), type);
+    } else if (type == LocalTime.class) {
+      return ResultUtil.toJavaTime(getTime(columnIndex), type);
+    } else {
+      return ResultUtil.toJavaTime(getTimestamp(columnIndex, null), type);
+    }
+  }
+
   public Array getArray(int columnIndex) throws SFException {
     throw new UnsupportedOperationException();
   }
@@ -181,6 +206,43 @@ public abstract class SFBaseResultSet {
     throw new SFException(ErrorCode.FEATURE_UNSUPPORTED, "seek to a previous row");
   }
 
+  /**
+   * Advance over a batch of rows and return them in columnar form
+   *
+   * @return the next batch of rows, or null if there are no more rows
+   * @throws SFException if the result set format does not support batches
+   * @throws SnowflakeSQLException if the rows could not be fetched
+   */
+  public SnowflakeRecordBatch nextBatch() throws SFException, SnowflakeSQLException {
+    throw new SFException(ErrorCode.FEATURE_UNSUPPORTED, "columnar batch access");
+  }
+
+  /**
+   * Get an ArrowReader over the remaining rows of this result set
+   *
+   * @return ArrowReader over the remaining rows
+   * @throws SFException if the result set format does not support Arrow export
+   */
+  public ArrowReader getArrowReader() throws SFException {
+    throw new SFException(ErrorCode.FEATURE_UNSUPPORTED, "Arrow export");
+  }
+
+  /**
+   * Consume the remaining rows of this result set with several threads
+   *
+   * @param parallelism number of threads
+   * @param ordered if true, chunks are handed out in chunk order, otherwise in the order they are
+   *     ready
+   * @param handler handler of the record batches
+   * @throws SFException if the result set format does not support parallel consumption
+   * @throws SQLException if the rows could not be fetched or the handler failed
+   */
+  public void consumeInParallel(
+      int parallelism, boolean ordered, SnowflakeRecordBatchHandler handler)
+      throws SFException, SQLException {
+    throw new SFException(ErrorCode.FEATURE_UNSUPPORTED, "parallel consumption");
+  }
+
   public int getNumberOfBinds() {
     return numberOfBinds;
   }
@@ -209,6 +209,18 @@ public abstract class SFJsonResultSet extends SFBaseResultSet {
         .getTimestamp(obj, columnType, columnSubType, tz, scale);
   }
 
+  @Override
+  public <T> T getJavaTimeObject(int columnIndex, Class<T> type) throws SFException {
+    int columnType = resultSetMetaData.getColumnType(columnIndex);
+    if (columnType != Types.TIMESTAMP && columnType != Types.TIMESTAMP_WITH_TIMEZONE) {
+      return super.getJavaTimeObject(columnIndex, type);
+    }
+    Object obj = getObjectInternal(columnIndex);
+    int columnSubType = resultSetMetaData.getInternalColumnType(columnIndex);
+    int scale = resultSetMetaData.getScale(columnIndex);
+    return converters.getDateTimeConverter().getJavaTime(obj, columnSubType, scale, type);
+  }
+
   @Override
   public float getFloat(int columnIndex) throws SFException {
     logger.trace("float getFloat(int columnIndex)", false);
@@ -8,9 +8,12 @@ import static net.snowflake.client.core.StmtUtil.eventHandler;
 import static net.snowflake.client.jdbc.SnowflakeUtil.systemGetProperty;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import java.sql.Date;
 import java.sql.SQLException;
+import java.sql.Types;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.TimeZone;
 import net.snowflake.client.core.BasicEvent.QueryState;
 import net.snowflake.client.core.json.Converters;
 import net.snowflake.client.jdbc.ErrorCode;
@@ -349,6 +352,106 @@ public class SFResultSet extends SFJsonResultSet {
     return retValue;
   }
 
+  /**
+   * @param columnIndex one based column
+   * @return true if the value of the column in the current row was already parsed into a long when
+   *     the chunk was downloaded
+   */
+  private boolean hasTypedLong(int columnIndex) {
+    return isInTypedChunk(columnIndex) && currentChunk.isLongColumn(columnIndex - 1);
+  }
+
+  /**
+   * @param columnIndex one based column
+   * @return true if the value of the column in the current row was already parsed into a double
+   *     when the chunk was downloaded
+   */
+  private boolean hasTypedDouble(int columnIndex) {
+    return isInTypedChunk(columnIndex) && currentChunk.isDoubleColumn(columnIndex - 1);
+  }
+
+  private boolean isInTypedChunk(int columnIndex) {
+    return !sortResult
+        && firstChunkRowset == null
+        && currentChunk != null
+        && currentChunkRowIndex >= 0
+        && currentChunkRowIndex < currentChunkRowCount
+        && columnIndex > 0
+        && columnIndex <= columnCount;
+  }
+
+  private long getTypedLong(int columnIndex) {
+    wasNull = currentChunk.isNull(currentChunkRowIndex, columnIndex - 1);
+    return wasNull ? 0 : currentChunk.getLong(currentChunkRowIndex, columnIndex - 1);
+  }
+
+  private double getTypedDouble(int columnIndex) {
+    wasNull = currentChunk.isNull(currentChunkRowIndex, columnIndex - 1);
+    return wasNull ? 0 : currentChunk.getDouble(currentChunkRowIndex, columnIndex - 1);
+  }
+
+  @Override
+  public long getLong(int columnIndex) throws SFException {
+    if (hasTypedLong(columnIndex) && resultSetMetaData.getColumnType(columnIndex) != Types.DATE) {
+      return getTypedLong(columnIndex);
+    }
+    return super.getLong(columnIndex);
+  }
+
+  @Override
+  public int getInt(int columnIndex) throws SFException {
+    if (hasTypedLong(columnIndex) && resultSetMetaData.getColumnType(columnIndex) != Types.DATE) {
+      long value = getTypedLong(columnIndex);
+      if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+        return (int) value;
+      }
+    }
+    // out of range values raise the same error as before
+    return super.getInt(columnIndex);
+  }
+
+  @Override
+  public short getShort(int columnIndex) throws SFException {
+    if (hasTypedLong(columnIndex) && resultSetMetaData.getColumnType(columnIndex) != Types.DATE) {
+      long value = getTypedLong(columnIndex);
+      if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+        return (short) value;
+      }
+    }
+    return super.getShort(columnIndex);
+  }
+
+  @Override
+  public boolean getBoolean(int columnIndex) throws SFException {
+    if (hasTypedLong(columnIndex) && resultSetMetaData.getColumnType(columnIndex) != Types.DATE) {
+      long value = getTypedLong(columnIndex);
+      if (value == 0 || value == 1) {
+        return value == 1;
+      }
+    }
+    return super.getBoolean(columnIndex);
+  }
+
+  @Override
+  public double getDouble(int columnIndex) throws SFException {
+    if (hasTypedDouble(columnIndex)) {
+      return getTypedDouble(columnIndex);
+    }
+    if (hasTypedLong(columnIndex) && resultSetMetaData.getColumnType(columnIndex) != Types.DATE) {
+      return getTypedLong(columnIndex);
+    }
+    return super.getDouble(columnIndex);
+  }
+
+  @Override
+  public Date getDate(int columnIndex, TimeZone tz) throws SFException {
+    if (hasTypedLong(columnIndex) && resultSetMetaData.getColumnType(columnIndex) == Types.DATE) {
+      long days = getTypedLong(columnIndex);
+      return wasNull ? null : converters.getDateTimeConverter().getDate((int) days, tz);
+    }
+    return super.getDate(columnIndex, tz);
+  }
+
   private void sortResultSet() {
     // first fetch rows into firstChunkSortedRowSet
     firstChunkSortedRowSet = new Object[currentChunkRowCount][];
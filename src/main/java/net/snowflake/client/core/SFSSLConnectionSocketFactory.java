@@ -12,8 +12,11 @@ import java.net.Socket;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLServerSocketFactory;
+import javax.net.ssl.SSLSocket;
 import javax.net.ssl.TrustManager;
 import net.snowflake.client.log.ArgSupplier;
 import net.snowflake.client.log.SFLogger;
@@ -28,18 +31,54 @@ public class SFSSLConnectionSocketFactory extends SSLConnectionSocketFactory {
 
   private static final String SSL_VERSION = "TLSv1.2";
 
+  // SSL context of the factories without custom trust managers. The TLS sessions are cached per
+  // SSL context, so sharing it lets these factories resume each other's sessions.
+  private static SSLContext defaultSSLContext = null;
+
+  private static final AtomicLong handshakeCount = new AtomicLong();
+
+  private static final AtomicLong resumedHandshakeCount = new AtomicLong();
+
+  private static final AtomicLong handshakeNanos = new AtomicLong();
+
   private final boolean socksProxyDisabled;
 
   public SFSSLConnectionSocketFactory(TrustManager[] trustManagers, boolean socksProxyDisabled)
       throws NoSuchAlgorithmException, KeyManagementException {
+    this(getSSLContext(trustManagers), socksProxyDisabled);
+  }
+
+  /**
+   * @param sslContext SSL context, shared by the factories that should resume each other's TLS
+   *     sessions
+   * @param socksProxyDisabled whether to bypass the SOCKS proxy
+   */
+  SFSSLConnectionSocketFactory(SSLContext sslContext, boolean socksProxyDisabled) {
     super(
-        initSSLContext(trustManagers),
+        sslContext,
         new String[] {SSL_VERSION},
         decideCipherSuites(),
         SSLConnectionSocketFactory.getDefaultHostnameVerifier());
     this.socksProxyDisabled = socksProxyDisabled;
   }
 
+  /**
+   * @param trustManagers trust managers, or null for the default ones
+   * @return a new SSL context for custom trust managers, else the shared default SSL context
+   */
+  static SSLContext getSSLContext(TrustManager[] trustManagers)
+      throws NoSuchAlgorithmException, KeyManagementException {
+    return trustManagers == null ? getDefaultSSLContext() : initSSLContext(trustManagers);
+  }
+
+  private static synchronized SSLContext getDefaultSSLContext()
+      throws NoSuchAlgorithmException, KeyManagementException {
+    if (defaultSSLContext == null) {
+      defaultSSLContext = initSSLContext(null);
+    }
+    return defaultSSLContext;
+  }
+
   private static SSLContext initSSLContext(TrustManager[] trustManagers)
       throws NoSuchAlgorithmException, KeyManagementException {
     // enforce using SSL_VERSION
@@ -56,6 +95,37 @@ public class SFSSLConnectionSocketFactory extends SSLConnectionSocketFactory {
     return socksProxyDisabled ? new Socket(Proxy.NO_PROXY) : super.createSocket(ctx);
   }
 
+  @Override
+  public Socket createLayeredSocket(Socket socket, String target, int port, HttpContext context)
+      throws IOException {
+    long startMillis = System.currentTimeMillis();
+    long startNanos = System.nanoTime();
+    Socket sslSocket = super.createLayeredSocket(socket, target, port, context);
+    handshakeNanos.addAndGet(System.nanoTime() - startNanos);
+    handshakeCount.incrementAndGet();
+    // a resumed session was created by an earlier handshake
+    if (sslSocket instanceof SSLSocket
+        && ((SSLSocket) sslSocket).getSession().getCreationTime() < startMillis) {
+      resumedHandshakeCount.incrementAndGet();
+    }
+    return sslSocket;
+  }
+
+  /** @return number of TLS handshakes done by all the factories */
+  static long getHandshakeCount() {
+    return handshakeCount.get();
+  }
+
+  /** @return number of TLS handshakes that resumed an earlier session */
+  static long getResumedHandshakeCount() {
+    return resumedHandshakeCount.get();
+  }
+
+  /** @return total time spent in TLS handshakes, in milliseconds */
+  static long getHandshakeMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(handshakeNanos.get());
+  }
+
   /**
    * Decide cipher suites that will be passed into the SSLConnectionSocketFactory
    *
@@ -23,6 +23,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -40,6 +41,7 @@ import net.snowflake.client.jdbc.SnowflakeReauthenticationRequest;
 import net.snowflake.client.jdbc.SnowflakeSQLException;
 import net.snowflake.client.jdbc.SnowflakeSQLLoggedException;
 import net.snowflake.client.jdbc.SnowflakeUtil;
+import net.snowflake.client.jdbc.cloud.storage.StorageClientCache;
 import net.snowflake.client.jdbc.telemetry.Telemetry;
 import net.snowflake.client.jdbc.telemetry.TelemetryClient;
 import net.snowflake.client.jdbc.telemetryOOB.TelemetryService;
@@ -129,6 +131,10 @@ public class SFSession extends SFBaseSession {
   // The cache of query context sent from Cloud Service.
   private QueryContextCache qcc;
 
+  private StorageClientCache storageClientCache;
+
+  private AsyncQueryMonitor asyncQueryMonitor;
+
   // Max retries for outgoing http requests.
   private int maxHttpRetries = 7;
 
@@ -848,6 +854,15 @@ public class SFSession extends SFBaseSession {
       qcc.clearCache();
     }
 
+    synchronized (this) {
+      if (storageClientCache != null) {
+        storageClientCache.clear();
+      }
+      if (asyncQueryMonitor != null) {
+        asyncQueryMonitor.close();
+      }
+    }
+
     stopwatch.stop();
     logger.info(
         "Session {} has been successfully closed in {} ms",
@@ -1098,6 +1113,32 @@ public class SFSession extends SFBaseSession {
     this.enableCombineDescribe = enable;
   }
 
+  /**
+   * Returns the cache of storage clients shared by the PUT/GET commands of this session.
+   *
+   * @return the storage client cache
+   */
+  public synchronized StorageClientCache getStorageClientCache() {
+    if (storageClientCache == null) {
+      storageClientCache = new StorageClientCache();
+    }
+    return storageClientCache;
+  }
+
+  /**
+   * Waits for the completion of an asynchronous query without blocking the calling thread. The
+   * status of all the queries waited for in this session is polled by one background thread.
+   *
+   * @param queryID query ID of the query to wait for
+   * @return a future completed with the status of the query once it is not running anymore
+   */
+  public synchronized CompletableFuture<QueryStatusV2> awaitQueryCompletion(String queryID) {
+    if (asyncQueryMonitor == null) {
+      asyncQueryMonitor = new AsyncQueryMonitor(this::getQueryStatusV2);
+    }
+    return asyncQueryMonitor.monitor(queryID);
+  }
+
   @Override
   public synchronized Telemetry getTelemetryClient() {
     // initialize for the first time. this should only be done after session
@@ -46,6 +46,15 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TimeZone;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import javax.net.ssl.KeyManagerFactory;
 import javax.net.ssl.SSLEngine;
@@ -193,6 +202,28 @@ public class SFTrustManager extends X509ExtendedTrustManager {
   /** OCSP Response cache */
   private static final Map<OcspResponseCacheKey, SFPair<Long, String>> OCSP_RESPONSE_CACHE =
       new ConcurrentHashMap<>();
+  /** OCSP responses of the cache whose signature and certificate status were verified */
+  private static final Map<OcspResponseCacheKey, VerifiedOcspResponse>
+      VERIFIED_OCSP_RESPONSE_CACHE = new ConcurrentHashMap<>();
+  /** OCSP responses being refreshed in the background */
+  private static final Set<OcspResponseCacheKey> REFRESHING_OCSP_RESPONSES =
+      ConcurrentHashMap.newKeySet();
+  /** Maximum number of threads refreshing OCSP responses and checking certificate chains */
+  private static final int MAX_OCSP_THREADS = 8;
+  /** Threads refreshing OCSP responses and checking certificate chains in parallel */
+  private static final ExecutorService OCSP_EXECUTOR =
+      new ThreadPoolExecutor(
+          0,
+          MAX_OCSP_THREADS,
+          60L,
+          TimeUnit.SECONDS,
+          new SynchronousQueue<>(),
+          runnable -> {
+            Thread thread = Executors.defaultThreadFactory().newThread(runnable);
+            thread.setName("ocsp-revocation-check (" + thread.getId() + ")");
+            thread.setDaemon(true);
+            return thread;
+          });
   /** Date and timestamp format */
   private static final SimpleDateFormat DATE_FORMAT_UTC =
       new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
@@ -207,6 +238,15 @@ public class SFTrustManager extends X509ExtendedTrustManager {
   private static Map<Integer, Certificate> ROOT_CA = new ConcurrentHashMap<>();
 
   private static final AtomicBoolean WAS_CACHE_UPDATED = new AtomicBoolean();
+  private static final AtomicBoolean WAS_CACHE_WRITE_SCHEDULED = new AtomicBoolean();
+  /**
+   * Lock of the cache file writes, separate from the class monitor, so that the handshakes don't
+   * wait for the lock of the file shared with other processes.
+   */
+  private static final Object CACHE_FILE_WRITE_LOCK = new Object();
+  /** OCSP responses removed from the cache since the cache file was last written */
+  private static final Set<OcspResponseCacheKey> REMOVED_OCSP_RESPONSES =
+      ConcurrentHashMap.newKeySet();
   private static final AtomicBoolean WAS_CACHE_READ = new AtomicBoolean();
   /** OCSP HTTP client */
   private static Map<Integer, CloseableHttpClient> ocspCacheServerClient =
@@ -282,6 +322,8 @@ public class SFTrustManager extends X509ExtendedTrustManager {
       // read cache file once
       JsonNode res = fileCacheManager.readCacheFile();
       readJsonStoreCache(res);
+      // the responses read from the file don't need to be written back to it
+      WAS_CACHE_UPDATED.set(false);
     }
 
     logger.debug(
@@ -492,6 +534,7 @@ public class SFTrustManager extends X509ExtendedTrustManager {
         } else if (ky != null && OCSP_RESPONSE_CACHE.containsKey(ky.left)) {
           // delete it from the cache if no OCSP response is back.
           OCSP_RESPONSE_CACHE.remove(ky.left);
+          REMOVED_OCSP_RESPONSES.add(ky.left);
           WAS_CACHE_UPDATED.set(true);
         }
       }
@@ -815,25 +858,173 @@ public class SFTrustManager extends X509ExtendedTrustManager {
       // if the cache is downloaded from the server, it should be written
       // to the file cache at all times.
     }
-    executeRevocationStatusChecks(pairIssuerSubjectList, peerHost);
+    executeRevocationStatusChecks(pairIssuerSubjectList, peerHost, isCached);
     if (WAS_CACHE_UPDATED.getAndSet(false)) {
-      JsonNode input = encodeCacheToJSON();
-      fileCacheManager.writeCacheFile(input);
+      scheduleCacheFileWrite();
+    }
+  }
+
+  /**
+   * Writes the OCSP response cache to the file in the background, so that the handshakes don't
+   * wait for the lock of the file shared with other processes. Updates made while a write is
+   * scheduled are included in it.
+   */
+  private static void scheduleCacheFileWrite() {
+    if (!WAS_CACHE_WRITE_SCHEDULED.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      OCSP_EXECUTOR.execute(SFTrustManager::writeCacheFile);
+    } catch (RejectedExecutionException ex) {
+      // written after the next check
+      WAS_CACHE_WRITE_SCHEDULED.set(false);
+      WAS_CACHE_UPDATED.set(true);
+    }
+  }
+
+  /**
+   * Writes the OCSP response cache to the file, keeping the newer responses written to it by other
+   * processes meanwhile.
+   */
+  private static void writeCacheFile() {
+    synchronized (CACHE_FILE_WRITE_LOCK) {
+      WAS_CACHE_WRITE_SCHEDULED.set(false);
+      Set<OcspResponseCacheKey> removed = new HashSet<>(REMOVED_OCSP_RESPONSES);
+      // the file lock is held from the read to the write, so no process writes in between
+      fileCacheManager.updateCacheFile(
+          content -> {
+            mergeCacheFile(content);
+            return encodeCacheToJSON();
+          });
+      REMOVED_OCSP_RESPONSES.removeAll(removed);
+    }
+  }
+
+  /**
+   * Adds the OCSP responses of the cache file that are newer than the cached ones. The responses
+   * removed from the cache since the last write are not added back.
+   *
+   * @param m the content of the cache file
+   */
+  private static void mergeCacheFile(JsonNode m) {
+    if (m == null || !m.getNodeType().equals(JsonNodeType.OBJECT)) {
+      return;
+    }
+    try {
+      for (Iterator<Map.Entry<String, JsonNode>> itr = m.fields(); itr.hasNext(); ) {
+        SFPair<OcspResponseCacheKey, SFPair<Long, String>> ky = decodeCacheFromJSON(itr.next());
+        if (ky != null
+            && ky.right != null
+            && ky.right.right != null
+            && !REMOVED_OCSP_RESPONSES.contains(ky.left)) {
+          OCSP_RESPONSE_CACHE.merge(
+              ky.left, ky.right, (cached, read) -> read.left > cached.left ? read : cached);
+        }
+      }
+    } catch (IOException ex) {
+      logger.debug("Failed to decode the cache file", false);
     }
   }
 
   /**
-   * Executes the revocation status checks for all chained certificates
+   * Executes the revocation status checks for all chained certificates. The checks run in parallel
+   * if some OCSP responses are not cached, as they may have to be fetched.
    *
    * @param pairIssuerSubjectList a list of pair of issuer and subject certificates.
+   * @param isCached whether all the OCSP responses are cached
    * @throws CertificateException raises if any error occurs.
    */
   private void executeRevocationStatusChecks(
-      List<SFPair<Certificate, Certificate>> pairIssuerSubjectList, String peerHost)
+      List<SFPair<Certificate, Certificate>> pairIssuerSubjectList,
+      String peerHost,
+      boolean isCached)
       throws CertificateException {
     long currentTimeSecond = new Date().getTime() / 1000L;
+    if (isCached || pairIssuerSubjectList.size() < 2) {
+      for (SFPair<Certificate, Certificate> pairIssuerSubject : pairIssuerSubjectList) {
+        executeOneRevocationStatusCheck(pairIssuerSubject, currentTimeSecond, peerHost);
+      }
+      return;
+    }
+    List<Future<Void>> checks = new ArrayList<>();
     for (SFPair<Certificate, Certificate> pairIssuerSubject : pairIssuerSubjectList) {
-      executeOneRevocationStatusCheck(pairIssuerSubject, currentTimeSecond, peerHost);
+      FutureTask<Void> check =
+          new FutureTask<>(
+              () -> {
+                executeOneRevocationStatusCheck(pairIssuerSubject, currentTimeSecond, peerHost);
+                return null;
+              });
+      try {
+        OCSP_EXECUTOR.execute(check);
+      } catch (RejectedExecutionException ex) {
+        // all the threads are busy
+        check.run();
+      }
+      checks.add(check);
+    }
+    for (Future<Void> check : checks) {
+      try {
+        check.get();
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new CertificateException("Interrupted while checking the revocation status", ex);
+      } catch (ExecutionException ex) {
+        if (ex.getCause() instanceof CertificateException) {
+          throw (CertificateException) ex.getCause();
+        }
+        throw new CertificateException(ex.getCause().getMessage(), ex.getCause());
+      }
+    }
+  }
+
+  /**
+   * Fetches a new OCSP response in the background, so that the cached response is replaced before
+   * it expires and the checks keep finding it in the cache.
+   *
+   * @param keyOcspResponse key of the OCSP response in the cache
+   * @param pairIssuerSubject a pair of issuer and subject certificate
+   * @param req OCSP Request object
+   * @param peerHost Hostname of the server
+   */
+  private void refreshOcspResponse(
+      OcspResponseCacheKey keyOcspResponse,
+      SFPair<Certificate, Certificate> pairIssuerSubject,
+      OCSPReq req,
+      String peerHost) {
+    if (!REFRESHING_OCSP_RESPONSES.add(keyOcspResponse)) {
+      return;
+    }
+    try {
+      OCSP_EXECUTOR.execute(
+          () -> {
+            try {
+              OCSPTelemetryData telemetryData = new OCSPTelemetryData();
+              telemetryData.setSfcPeerHost(peerHost);
+              telemetryData.setCertId(encodeCacheKey(keyOcspResponse));
+              telemetryData.setOCSPMode(ocspMode);
+              OCSPResp ocspResp =
+                  fetchOcspResponse(
+                      pairIssuerSubject,
+                      req,
+                      encodeCacheKey(keyOcspResponse),
+                      peerHost,
+                      telemetryData);
+              String ocspRespB64 = ocspResponseToB64(ocspResp);
+              VerifiedOcspResponse verified = verifyOcspResponse(pairIssuerSubject, ocspRespB64);
+              OCSP_RESPONSE_CACHE.put(
+                  keyOcspResponse, SFPair.of(new Date().getTime() / 1000L, ocspRespB64));
+              VERIFIED_OCSP_RESPONSE_CACHE.put(keyOcspResponse, verified);
+              WAS_CACHE_UPDATED.set(true);
+              logger.debug("Refreshed OCSP response. {}", keyOcspResponse);
+            } catch (Throwable ex) {
+              // the cached response is used until it expires
+              logger.debug("Failed to refresh OCSP response: {}", ex.getMessage());
+            } finally {
+              REFRESHING_OCSP_RESPONSES.remove(keyOcspResponse);
+            }
+          });
+    } catch (RejectedExecutionException ex) {
+      REFRESHING_OCSP_RESPONSES.remove(keyOcspResponse);
     }
   }
 
@@ -918,8 +1109,12 @@ public class SFTrustManager extends X509ExtendedTrustManager {
             logger.debug(
                 "Validating. {}", CertificateIDToString(req.getRequestList()[0].getCertID()));
             try {
-              validateRevocationStatusMain(pairIssuerSubject, value0.right);
+              validateRevocationStatusMain(keyOcspResponse, pairIssuerSubject, value0.right);
               success = true;
+              VerifiedOcspResponse verified = VERIFIED_OCSP_RESPONSE_CACHE.get(keyOcspResponse);
+              if (verified != null && verified.isRefreshDue(System.currentTimeMillis())) {
+                refreshOcspResponse(keyOcspResponse, pairIssuerSubject, req, peerHost);
+              }
               break;
             } catch (SFOCSPException ex) {
               if (ex.getErrorCode() != OCSPErrorCode.REVOCATION_CHECK_FAILURE) {
@@ -935,6 +1130,8 @@ public class SFTrustManager extends X509ExtendedTrustManager {
             }
           }
         } catch (CertificateException ex) {
+          VERIFIED_OCSP_RESPONSE_CACHE.remove(keyOcspResponse);
+          REMOVED_OCSP_RESPONSES.add(keyOcspResponse);
           WAS_CACHE_UPDATED.set(OCSP_RESPONSE_CACHE.remove(keyOcspResponse) != null);
           if (WAS_CACHE_UPDATED.get()) {
             logger.debug("Deleting the invalid OCSP cache.", false);
@@ -1019,7 +1216,7 @@ public class SFTrustManager extends X509ExtendedTrustManager {
           break;
         } else {
           try {
-            validateRevocationStatusMain(pairIssuerSubject, res.right);
+            validateRevocationStatusMain(k, pairIssuerSubject, res.right);
           } catch (SFOCSPException ex) {
             logger.debug(
                 "Cache includes invalid OCSPResponse. "
@@ -1260,13 +1457,39 @@ public class SFTrustManager extends X509ExtendedTrustManager {
   }
 
   /**
-   * Validates the certificate revocation status
+   * Validates the certificate revocation status. An OCSP response already verified is not decoded
+   * and verified again while it is valid.
    *
+   * @param keyOcspResponse key of the OCSP response in the cache
    * @param pairIssuerSubject a pair of issuer and subject certificates
    * @param ocspRespB64 Base64 encoded OCSP Response object
    * @throws SFOCSPException raises if any other error occurs
    */
   private void validateRevocationStatusMain(
+      OcspResponseCacheKey keyOcspResponse,
+      SFPair<Certificate, Certificate> pairIssuerSubject,
+      String ocspRespB64)
+      throws SFOCSPException {
+    VerifiedOcspResponse verified = VERIFIED_OCSP_RESPONSE_CACHE.get(keyOcspResponse);
+    if (verified != null
+        && verified.ocspRespB64.equals(ocspRespB64)
+        && verified.isValid(System.currentTimeMillis())
+        && !isVerificationTestParameterEnabled()) {
+      return;
+    }
+    VERIFIED_OCSP_RESPONSE_CACHE.put(
+        keyOcspResponse, verifyOcspResponse(pairIssuerSubject, ocspRespB64));
+  }
+
+  /**
+   * Verifies the signature of an OCSP response and the certificate status it holds
+   *
+   * @param pairIssuerSubject a pair of issuer and subject certificates
+   * @param ocspRespB64 Base64 encoded OCSP Response object
+   * @return the verified OCSP response with its validity
+   * @throws SFOCSPException raises if any other error occurs
+   */
+  private VerifiedOcspResponse verifyOcspResponse(
       SFPair<Certificate, Certificate> pairIssuerSubject, String ocspRespB64)
       throws SFOCSPException {
     try {
@@ -1334,6 +1557,8 @@ public class SFTrustManager extends X509ExtendedTrustManager {
       }
 
       validateBasicOcspResponse(currentTime, basicOcspResp);
+      return VerifiedOcspResponse.of(
+          ocspRespB64, basicOcspResp, attachedCerts.length > 0 ? signVerifyCert : null);
     } catch (IOException | OCSPException ex) {
       throw new SFOCSPException(
           OCSPErrorCode.REVOCATION_CHECK_FAILURE, "Failed to check revocation status.", ex);
@@ -1404,6 +1629,13 @@ public class SFTrustManager extends X509ExtendedTrustManager {
     logger.debug("OK. Verified the certificate revocation status.", false);
   }
 
+  /** @return true if a test parameter injects a failure in the OCSP response verification */
+  private boolean isVerificationTestParameterEnabled() {
+    return isEnabledSystemTestParameter(SF_OCSP_TEST_INVALID_SIGNING_CERT)
+        || isEnabledSystemTestParameter(SF_OCSP_TEST_INJECT_UNKNOWN_STATUS)
+        || checkOCSPResponseValidityErrorParameter();
+  }
+
   private void checkCertUnknownTestParameter() throws SFOCSPException {
     if (isEnabledSystemTestParameter(SF_OCSP_TEST_INJECT_UNKNOWN_STATUS)) {
       throw new SFOCSPException(
@@ -1610,6 +1842,65 @@ public class SFTrustManager extends X509ExtendedTrustManager {
     }
   }
 
+  /** OCSP response whose signature and certificate status were verified, with its validity */
+  static class VerifiedOcspResponse {
+    private final String ocspRespB64;
+
+    private final long validFromMillis;
+
+    private final long validUntilMillis;
+
+    private final long refreshAtMillis;
+
+    VerifiedOcspResponse(
+        String ocspRespB64, long validFromMillis, long validUntilMillis, long refreshAtMillis) {
+      this.ocspRespB64 = ocspRespB64;
+      this.validFromMillis = validFromMillis;
+      this.validUntilMillis = validUntilMillis;
+      this.refreshAtMillis = refreshAtMillis;
+    }
+
+    /**
+     * @param ocspRespB64 Base64 encoded OCSP Response object
+     * @param basicOcspResp the verified response
+     * @param signingCert certificate attached to the response to verify its signature, or null
+     * @return the response valid within the same range as checked by the verification
+     */
+    static VerifiedOcspResponse of(
+        String ocspRespB64, BasicOCSPResp basicOcspResp, X509CertificateHolder signingCert) {
+      long validFromMillis = Long.MIN_VALUE;
+      long validUntilMillis = Long.MAX_VALUE;
+      long refreshAtMillis = Long.MAX_VALUE;
+      for (SingleResp singleResp : basicOcspResp.getResponses()) {
+        long thisUpdate = singleResp.getThisUpdate().getTime();
+        long nextUpdate = singleResp.getNextUpdate().getTime();
+        validFromMillis = Math.max(validFromMillis, thisUpdate - MAX_CLOCK_SKEW_IN_MILLISECONDS);
+        validUntilMillis =
+            Math.min(
+                validUntilMillis,
+                nextUpdate
+                    + calculateTolerableValidity(
+                        singleResp.getThisUpdate(), singleResp.getNextUpdate()));
+        // renew the response during the last quarter of its update period
+        refreshAtMillis = Math.min(refreshAtMillis, nextUpdate - (nextUpdate - thisUpdate) / 4);
+      }
+      if (signingCert != null) {
+        validFromMillis = Math.max(validFromMillis, signingCert.getNotBefore().getTime());
+        validUntilMillis = Math.min(validUntilMillis, signingCert.getNotAfter().getTime());
+      }
+      return new VerifiedOcspResponse(
+          ocspRespB64, validFromMillis, validUntilMillis, refreshAtMillis);
+    }
+
+    boolean isValid(long currentTimeMillis) {
+      return validFromMillis <= currentTimeMillis && currentTimeMillis <= validUntilMillis;
+    }
+
+    boolean isRefreshDue(long currentTimeMillis) {
+      return currentTimeMillis >= refreshAtMillis;
+    }
+  }
+
   /** SHA1 Digest Calculator used in OCSP Req. */
   static class SHA1DigestCalculator implements DigestCalculator {
     private ByteArrayOutputStream bOut = new ByteArrayOutputStream();
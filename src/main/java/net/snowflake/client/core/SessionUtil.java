@@ -92,6 +92,19 @@ public class SessionUtil {
   private static final String JDBC_FORMAT_DATE_WITH_TIMEZONE = "JDBC_FORMAT_DATE_WITH_TIMEZONE";
   private static final String JDBC_USE_SESSION_TIMEZONE = "JDBC_USE_SESSION_TIMEZONE";
   public static final String JDBC_CHUNK_DOWNLOADER_MAX_RETRY = "JDBC_CHUNK_DOWNLOADER_MAX_RETRY";
+  public static final String JDBC_ENABLE_ADAPTIVE_PREFETCH = "JDBC_ENABLE_ADAPTIVE_PREFETCH";
+  public static final String JDBC_ENABLE_PIPELINED_ARROW_LOADING =
+      "JDBC_ENABLE_PIPELINED_ARROW_LOADING";
+  public static final String JDBC_ENABLE_TYPED_JSON_CHUNKS = "JDBC_ENABLE_TYPED_JSON_CHUNKS";
+  public static final String JDBC_ENABLE_STREAMING_PUT = "JDBC_ENABLE_STREAMING_PUT";
+  public static final String JDBC_ENABLE_PARALLEL_PUT_COMPRESSION =
+      "JDBC_ENABLE_PARALLEL_PUT_COMPRESSION";
+  public static final String JDBC_ENABLE_SHARED_TRANSFER_POOL = "JDBC_ENABLE_SHARED_TRANSFER_POOL";
+  public static final String JDBC_ENABLE_STORAGE_CLIENT_CACHE = "JDBC_ENABLE_STORAGE_CLIENT_CACHE";
+  public static final String JDBC_ENABLE_STREAMING_GET = "JDBC_ENABLE_STREAMING_GET";
+  public static final String JDBC_ENABLE_RANGED_DOWNLOAD = "JDBC_ENABLE_RANGED_DOWNLOAD";
+  public static final String JDBC_ENABLE_ASYNC_QUERY_MONITOR = "JDBC_ENABLE_ASYNC_QUERY_MONITOR";
+  public static final String JDBC_ENABLE_CONNECTION_WARMUP = "JDBC_ENABLE_CONNECTION_WARMUP";
   private static final String CLIENT_RESULT_CHUNK_SIZE_JVM =
       "net.snowflake.jdbc.clientResultChunkSize";
   public static final String CLIENT_RESULT_CHUNK_SIZE = "CLIENT_RESULT_CHUNK_SIZE";
@@ -199,6 +212,17 @@ public class SessionUtil {
               CLIENT_METADATA_USE_SESSION_DATABASE,
               "JDBC_TREAT_DECIMAL_AS_INT",
               "JDBC_ENABLE_COMBINED_DESCRIBE",
+              JDBC_ENABLE_ADAPTIVE_PREFETCH,
+              JDBC_ENABLE_PIPELINED_ARROW_LOADING,
+              JDBC_ENABLE_TYPED_JSON_CHUNKS,
+              JDBC_ENABLE_STREAMING_PUT,
+              JDBC_ENABLE_PARALLEL_PUT_COMPRESSION,
+              JDBC_ENABLE_SHARED_TRANSFER_POOL,
+              JDBC_ENABLE_STORAGE_CLIENT_CACHE,
+              JDBC_ENABLE_STREAMING_GET,
+              JDBC_ENABLE_RANGED_DOWNLOAD,
+              JDBC_ENABLE_ASYNC_QUERY_MONITOR,
+              JDBC_ENABLE_CONNECTION_WARMUP,
               CLIENT_ENABLE_CONSERVATIVE_MEMORY_USAGE,
               CLIENT_VALIDATE_DEFAULT_PARAMETERS,
               ENABLE_STAGE_S3_PRIVATELINK_FOR_US_EAST_1,
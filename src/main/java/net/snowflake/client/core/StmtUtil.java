@@ -4,6 +4,7 @@
 
 package net.snowflake.client.core;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Strings;
@@ -304,7 +305,7 @@ public class StmtUtil {
         stmtInput.mediaType != null, "Missing media type for statement execution");
 
     try {
-      String resultAsString = null;
+      JsonNode result = null;
 
       // SNOW-20443: if we are retrying and there is get result URL, we
       // don't need to execute the query again
@@ -389,22 +390,27 @@ public class StmtUtil {
             BasicEvent.QueryState.SENDING_QUERY,
             String.format(QueryState.SENDING_QUERY.getArgString(), stmtInput.requestId));
 
-        resultAsString =
-            HttpUtil.executeRequest(
-                httpRequest,
-                stmtInput.networkTimeoutInMillis / 1000,
-                stmtInput.socketTimeout,
-                0,
-                stmtInput.maxRetries,
-                stmtInput.injectSocketTimeout,
-                stmtInput.canceling,
-                true, // include retry parameters
-                false, // no retry on HTTP 403
-                stmtInput.httpClientSettingsKey,
-                execTimeData);
+        try {
+          // the response is parsed while it is read, the first chunk of the result can be large
+          result =
+              HttpUtil.executeRequestForJson(
+                  httpRequest,
+                  stmtInput.networkTimeoutInMillis / 1000,
+                  stmtInput.socketTimeout,
+                  0,
+                  stmtInput.maxRetries,
+                  stmtInput.injectSocketTimeout,
+                  stmtInput.canceling,
+                  true, // include retry parameters
+                  false, // no retry on HTTP 403
+                  stmtInput.httpClientSettingsKey,
+                  execTimeData);
+        } catch (JsonProcessingException ex) {
+          logBadResponse(ex, httpRequest);
+        }
       }
 
-      return pollForOutput(resultAsString, stmtInput, httpRequest, execTimeData);
+      return pollForOutput(result, stmtInput, httpRequest, execTimeData);
     } catch (Exception ex) {
       if (!(ex instanceof SnowflakeSQLException)) {
         if (ex instanceof IOException) {
@@ -438,8 +444,17 @@ public class StmtUtil {
     }
   }
 
+  private static void logBadResponse(JsonProcessingException ex, HttpRequestBase httpRequest) {
+    logger.error(
+        "Bad result json, JSON parsing exception: {}, http request: {}",
+        ex.getLocalizedMessage(),
+        httpRequest);
+
+    logger.error("Exception stack trace", ex);
+  }
+
   private static StmtOutput pollForOutput(
-      String resultAsString,
+      JsonNode result,
       StmtInput stmtInput,
       HttpPost httpRequest,
       ExecTimeTelemetryData execTimeData)
@@ -458,21 +473,7 @@ public class StmtUtil {
     final int MAX_RETRIES = 3;
 
     do {
-      pingPongResponseJson = null;
-
-      if (resultAsString != null) {
-        try {
-          pingPongResponseJson = mapper.readTree(resultAsString);
-        } catch (Exception ex) {
-          logger.error(
-              "Bad result json: {}, " + "JSON parsing exception: {}, http request: {}",
-              resultAsString,
-              ex.getLocalizedMessage(),
-              httpRequest);
-
-          logger.error("Exception stack trace", ex);
-        }
-      }
+      pingPongResponseJson = result;
 
       eventHandler.triggerStateTransition(
           BasicEvent.QueryState.WAITING_FOR_RESULT,
@@ -484,7 +485,7 @@ public class StmtUtil {
          * But we don't want to retry too many times
          */
         if (retries >= MAX_RETRIES) {
-          throw new SFException(ErrorCode.BAD_RESPONSE, resultAsString);
+          throw new SFException(ErrorCode.BAD_RESPONSE, "<not valid JSON>");
         } else {
           logger.debug("Will retry get result. Retry count: {}", retries);
           execTimeData.incrementRetryCount();
@@ -532,7 +533,7 @@ public class StmtUtil {
         }
         execTimeData.incrementRetryCount();
         execTimeData.addRetryLocation("StmtUtil queryInProgress");
-        resultAsString = getQueryResult(pingPongResponseJson, previousGetResultPath, stmtInput);
+        result = getQueryResult(pingPongResponseJson, previousGetResultPath, stmtInput);
 
         // save the previous get result path in case we run into session
         // expiration
@@ -565,11 +566,11 @@ public class StmtUtil {
    * @param inProgressResponse In progress response in JSON form
    * @param previousGetResultPath previous get results path
    * @param stmtInput input statement
-   * @return results in string form
+   * @return results in JSON, or null if the response is not valid JSON
    * @throws SFException exception raised from Snowflake components
    * @throws SnowflakeSQLException exception raised from Snowflake components
    */
-  protected static String getQueryResult(
+  protected static JsonNode getQueryResult(
       JsonNode inProgressResponse, String previousGetResultPath, StmtInput stmtInput)
       throws SFException, SnowflakeSQLException {
     String getResultPath = null;
@@ -599,11 +600,11 @@ public class StmtUtil {
    *
    * @param getResultPath path to results
    * @param stmtInput object with context information
-   * @return results in string form
+   * @return results in JSON, or null if the response is not valid JSON
    * @throws SFException exception raised from Snowflake components
    * @throws SnowflakeSQLException exception raised from Snowflake components
    */
-  protected static String getQueryResult(String getResultPath, StmtInput stmtInput)
+  protected static JsonNode getQueryResult(String getResultPath, StmtInput stmtInput)
       throws SFException, SnowflakeSQLException {
     HttpGet httpRequest = null;
     logger.debug("Get query result: {}", getResultPath);
@@ -633,7 +634,7 @@ public class StmtUtil {
 
       setServiceNameHeader(stmtInput, httpRequest);
 
-      return HttpUtil.executeRequest(
+      return HttpUtil.executeRequestForJson(
           httpRequest,
           stmtInput.networkTimeoutInMillis / 1000,
           stmtInput.socketTimeout,
@@ -645,6 +646,9 @@ public class StmtUtil {
           false, // no retry on HTTP 403
           stmtInput.httpClientSettingsKey,
           new ExecTimeTelemetryData());
+    } catch (JsonProcessingException ex) {
+      logBadResponse(ex, httpRequest);
+      return null;
     } catch (URISyntaxException | IOException ex) {
       logger.error("Exception encountered when getting result for " + httpRequest, ex);
 
@@ -679,10 +683,9 @@ public class StmtUtil {
             .setHttpClientSettingsKey(session.getHttpClientKey())
             .setMaxRetries(session.getMaxHttpRetries());
 
-    String resultAsString = getQueryResult(getResultPath, stmtInput);
+    JsonNode result = getQueryResult(getResultPath, stmtInput);
 
-    StmtOutput stmtOutput =
-        pollForOutput(resultAsString, stmtInput, null, new ExecTimeTelemetryData());
+    StmtOutput stmtOutput = pollForOutput(result, stmtInput, null, new ExecTimeTelemetryData());
     return stmtOutput.getResult();
   }
 
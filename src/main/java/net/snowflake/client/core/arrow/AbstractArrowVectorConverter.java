@@ -7,8 +7,16 @@ import java.math.BigDecimal;
 import java.sql.Date;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.zone.ZoneRules;
 import java.util.TimeZone;
 import net.snowflake.client.core.DataConversionContext;
+import net.snowflake.client.core.ResultUtil;
 import net.snowflake.client.core.SFException;
 import net.snowflake.client.jdbc.ErrorCode;
 import net.snowflake.client.jdbc.SnowflakeUtil;
@@ -40,6 +48,11 @@ abstract class AbstractArrowVectorConverter implements ArrowVectorConverter {
 
   private boolean shouldTreatDecimalAsInt;
 
+  // session time zone of the cached zone rules
+  private TimeZone zoneRulesTimeZone;
+
+  private ZoneRules zoneRules;
+
   /** Field names of the struct vectors used by timestamp */
   public static final String FIELD_NAME_EPOCH = "epoch"; // seconds since epoch
 
@@ -153,6 +166,59 @@ abstract class AbstractArrowVectorConverter implements ArrowVectorConverter {
         ErrorCode.INVALID_VALUE_CONVERT, logicalTypeStr, SnowflakeUtil.BIG_DECIMAL_STR, "");
   }
 
+  @Override
+  public OffsetDateTime toOffsetDateTime(int index) throws SFException {
+    return ResultUtil.toJavaTime(toTimestamp(index, null), OffsetDateTime.class);
+  }
+
+  @Override
+  public Instant toInstant(int index) throws SFException {
+    OffsetDateTime value = toOffsetDateTime(index);
+    return value == null ? null : value.toInstant();
+  }
+
+  @Override
+  public LocalDateTime toLocalDateTime(int index) throws SFException {
+    OffsetDateTime value = toOffsetDateTime(index);
+    return value == null ? null : value.toLocalDateTime();
+  }
+
+  @Override
+  public LocalDate toLocalDate(int index) throws SFException {
+    return ResultUtil.toJavaTime(toDate(index, null, false), LocalDate.class);
+  }
+
+  @Override
+  public LocalTime toLocalTime(int index) throws SFException {
+    return ResultUtil.toJavaTime(toTime(index), LocalTime.class);
+  }
+
+  /**
+   * TIMESTAMP_LTZ values are read in the session time zone with JDBC_USE_SESSION_TIMEZONE, and in
+   * the JVM default time zone otherwise, like their Timestamp. The rules of the session time zone
+   * are looked up again only when it changes, so that values are converted to java.time types
+   * without a time zone lookup per value.
+   *
+   * @return the rules of the time zone of TIMESTAMP_LTZ values
+   */
+  protected ZoneRules getTimestampLTZZoneRules() {
+    TimeZone tz = null;
+    if (useSessionTimezone) {
+      tz = sessionTimeZone;
+      if (tz == null && context != null) {
+        tz = context.getTimeZone();
+      }
+    }
+    if (tz == null) {
+      return ZoneId.systemDefault().getRules();
+    }
+    if (tz != zoneRulesTimeZone) {
+      zoneRules = tz.toZoneId().getRules();
+      zoneRulesTimeZone = tz;
+    }
+    return zoneRules;
+  }
+
   boolean shouldTreatDecimalAsInt() {
     return shouldTreatDecimalAsInt;
   }
@@ -6,7 +6,12 @@ package net.snowflake.client.core.arrow;
 
 import java.sql.Date;
 import java.sql.Timestamp;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneRules;
 import java.util.Calendar;
 import java.util.TimeZone;
 import net.snowflake.client.core.ResultUtil;
@@ -196,4 +201,64 @@ public class ArrowResultUtil {
     ts.setNanos(fraction);
     return ts;
   }
+
+  /**
+   * create OffsetDateTime using seconds since epoch and fraction in nanoseconds, without going
+   * through Timestamp and Calendar
+   *
+   * @param seconds seconds since epoch
+   * @param fraction fraction in nanoseconds
+   * @param offset offset of the value
+   * @return OffsetDateTime
+   */
+  public static OffsetDateTime createOffsetDateTime(long seconds, int fraction, ZoneOffset offset) {
+    return OffsetDateTime.of(LocalDateTime.ofEpochSecond(seconds, fraction, offset), offset);
+  }
+
+  /**
+   * create OffsetDateTime using seconds since epoch and fraction in nanoseconds, with the offset of
+   * a time zone at that instant
+   *
+   * @param seconds seconds since epoch
+   * @param fraction fraction in nanoseconds
+   * @param rules rules of the time zone
+   * @return OffsetDateTime
+   */
+  public static OffsetDateTime createOffsetDateTime(long seconds, int fraction, ZoneRules rules) {
+    ZoneOffset offset =
+        rules.isFixedOffset()
+            ? rules.getOffset(Instant.EPOCH)
+            : rules.getOffset(Instant.ofEpochSecond(seconds));
+    return createOffsetDateTime(seconds, fraction, offset);
+  }
+
+  /**
+   * @param epoch the value since epoch time
+   * @param scale the scale of the value
+   * @return the seconds since epoch of the value
+   */
+  public static long toEpochSeconds(long epoch, int scale) {
+    return Math.floorDiv(epoch, powerOfTen(scale));
+  }
+
+  /**
+   * @param epoch the value since epoch time
+   * @param scale the scale of the value
+   * @return the fraction in nanoseconds of the value, always positive
+   */
+  public static int toEpochFraction(long epoch, int scale) {
+    return (int) (Math.floorMod(epoch, powerOfTen(scale)) * powerOfTen(9 - scale));
+  }
+
+  /**
+   * @param timeZoneIndex time zone index of a TIMESTAMP_TZ value, the offset in minutes plus 1440
+   * @param resultVersion result version, time zone indices are UTC before version 1
+   * @return the offset of the value
+   */
+  public static ZoneOffset toZoneOffset(int timeZoneIndex, long resultVersion) {
+    if (resultVersion > 0) {
+      return ZoneOffset.ofTotalSeconds((timeZoneIndex - 1440) * 60);
+    }
+    return ZoneOffset.UTC;
+  }
 }
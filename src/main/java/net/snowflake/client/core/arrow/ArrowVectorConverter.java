@@ -7,6 +7,11 @@ import java.math.BigDecimal;
 import java.sql.Date;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
 import java.util.TimeZone;
 import net.snowflake.client.core.SFException;
 
@@ -141,6 +146,55 @@ public interface ArrowVectorConverter {
    */
   Timestamp toTimestamp(int index, TimeZone tz) throws SFException;
 
+  /**
+   * Convert value in arrow vector to OffsetDateTime, without creating a Timestamp for timestamp
+   * types. TIMESTAMP_LTZ values use the offset of the session time zone with
+   * JDBC_USE_SESSION_TIMEZONE and of the JVM default time zone otherwise, TIMESTAMP_TZ values their
+   * own offset, and DATE values are in UTC. TIMESTAMP_NTZ values have no offset and cannot be
+   * converted.
+   *
+   * @param index index of the value to be converted in the vector
+   * @return OffsetDateTime converted from arrow vector
+   * @throws SFException invalid data conversion
+   */
+  OffsetDateTime toOffsetDateTime(int index) throws SFException;
+
+  /**
+   * Convert value in arrow vector to Instant
+   *
+   * @param index index of the value to be converted in the vector
+   * @return Instant converted from arrow vector
+   * @throws SFException invalid data conversion
+   */
+  Instant toInstant(int index) throws SFException;
+
+  /**
+   * Convert value in arrow vector to LocalDateTime
+   *
+   * @param index index of the value to be converted in the vector
+   * @return LocalDateTime converted from arrow vector
+   * @throws SFException invalid data conversion
+   */
+  LocalDateTime toLocalDateTime(int index) throws SFException;
+
+  /**
+   * Convert value in arrow vector to LocalDate
+   *
+   * @param index index of the value to be converted in the vector
+   * @return LocalDate converted from arrow vector
+   * @throws SFException invalid data conversion
+   */
+  LocalDate toLocalDate(int index) throws SFException;
+
+  /**
+   * Convert value in arrow vector to LocalTime
+   *
+   * @param index index of the value to be converted in the vector
+   * @return LocalTime converted from arrow vector
+   * @throws SFException invalid data conversion
+   */
+  LocalTime toLocalTime(int index) throws SFException;
+
   /**
    * Convert value in arrow vector to BigDecimal
    *
@@ -7,6 +7,10 @@ import java.nio.ByteBuffer;
 import java.sql.Date;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
 import java.util.TimeZone;
 import net.snowflake.client.core.DataConversionContext;
 import net.snowflake.client.core.ResultUtil;
@@ -68,6 +72,31 @@ public class BigIntToTimestampLTZConverter extends AbstractArrowVectorConverter
     return getTimestamp(val, scale);
   }
 
+  @Override
+  public OffsetDateTime toOffsetDateTime(int index) throws SFException {
+    if (isNull(index)) {
+      return null;
+    }
+    long val = bigIntVector.getDataBuffer().getLong(index * BigIntVector.TYPE_WIDTH);
+    int scale = context.getScale(columnIndex);
+    return ArrowResultUtil.createOffsetDateTime(
+        ArrowResultUtil.toEpochSeconds(val, scale),
+        ArrowResultUtil.toEpochFraction(val, scale),
+        getTimestampLTZZoneRules());
+  }
+
+  @Override
+  public LocalDate toLocalDate(int index) throws SFException {
+    LocalDateTime value = toLocalDateTime(index);
+    return value == null ? null : value.toLocalDate();
+  }
+
+  @Override
+  public LocalTime toLocalTime(int index) throws SFException {
+    LocalDateTime value = toLocalDateTime(index);
+    return value == null ? null : value.toLocalTime();
+  }
+
   @Override
   public Date toDate(int index, TimeZone tz, boolean useDateFormat) throws SFException {
     return isNull(index) ? null : new Date(getTimestamp(index, TimeZone.getDefault()).getTime());
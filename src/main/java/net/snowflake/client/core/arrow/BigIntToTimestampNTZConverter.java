@@ -7,6 +7,12 @@ import java.nio.ByteBuffer;
 import java.sql.Date;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.TimeZone;
 import net.snowflake.client.core.DataConversionContext;
 import net.snowflake.client.core.ResultUtil;
@@ -73,6 +79,45 @@ public class BigIntToTimestampNTZConverter extends AbstractArrowVectorConverter
     return getTimestamp(val, tz, scale, context.getHonorClientTZForTimestampNTZ(), fromToString);
   }
 
+  @Override
+  public OffsetDateTime toOffsetDateTime(int index) throws SFException {
+    // TIMESTAMP_NTZ values have no time zone, see ResultUtil.checkJavaTimeTypeOfTimestampNTZ
+    throw new SFException(
+        ErrorCode.INVALID_VALUE_CONVERT, logicalTypeStr, OffsetDateTime.class.getName(), "");
+  }
+
+  @Override
+  public Instant toInstant(int index) throws SFException {
+    // TIMESTAMP_NTZ values have no time zone, see ResultUtil.checkJavaTimeTypeOfTimestampNTZ
+    throw new SFException(
+        ErrorCode.INVALID_VALUE_CONVERT, logicalTypeStr, Instant.class.getName(), "");
+  }
+
+  @Override
+  public LocalDateTime toLocalDateTime(int index) throws SFException {
+    if (isNull(index)) {
+      return null;
+    }
+    long val = bigIntVector.getDataBuffer().getLong(index * BigIntVector.TYPE_WIDTH);
+    int scale = context.getScale(columnIndex);
+    return LocalDateTime.ofEpochSecond(
+        ArrowResultUtil.toEpochSeconds(val, scale),
+        ArrowResultUtil.toEpochFraction(val, scale),
+        ZoneOffset.UTC);
+  }
+
+  @Override
+  public LocalDate toLocalDate(int index) throws SFException {
+    LocalDateTime value = toLocalDateTime(index);
+    return value == null ? null : value.toLocalDate();
+  }
+
+  @Override
+  public LocalTime toLocalTime(int index) throws SFException {
+    LocalDateTime value = toLocalDateTime(index);
+    return value == null ? null : value.toLocalTime();
+  }
+
   @Override
   public Date toDate(int index, TimeZone tz, boolean dateFormat) throws SFException {
     return isNull(index)
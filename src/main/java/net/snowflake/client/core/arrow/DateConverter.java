@@ -6,6 +6,9 @@ package net.snowflake.client.core.arrow;
 import java.math.BigDecimal;
 import java.sql.Date;
 import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.TimeZone;
 import net.snowflake.client.core.DataConversionContext;
 import net.snowflake.client.core.ResultUtil;
@@ -41,6 +44,20 @@ public class DateConverter extends AbstractArrowVectorConverter {
     return getDate(index, jvmTz, useDateFormat);
   }
 
+  @Override
+  public LocalDate toLocalDate(int index) {
+    if (isNull(index)) {
+      return null;
+    }
+    return LocalDate.ofEpochDay(dateVector.getDataBuffer().getInt(index * IntVector.TYPE_WIDTH));
+  }
+
+  @Override
+  public OffsetDateTime toOffsetDateTime(int index) {
+    LocalDate date = toLocalDate(index);
+    return date == null ? null : date.atStartOfDay().atOffset(ZoneOffset.UTC);
+  }
+
   @Override
   public int toInt(int index) {
     if (isNull(index)) {
@@ -16,6 +16,10 @@ public class StructConverter extends AbstractArrowVectorConverter {
     structVector = vector;
   }
 
+  public StructVector getStructVector() {
+    return structVector;
+  }
+
   @Override
   public Object toObject(int index) throws SFException {
     return structVector.getObject(index);
@@ -6,6 +6,10 @@ package net.snowflake.client.core.arrow;
 import java.sql.Date;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
 import java.util.TimeZone;
 import net.snowflake.client.core.DataConversionContext;
 import net.snowflake.client.core.ResultUtil;
@@ -75,6 +79,28 @@ public class TwoFieldStructToTimestampLTZConverter extends AbstractArrowVectorCo
     return getTimestamp(epoch, fraction, sessionTimeZone, useSessionTimezone, fromToString);
   }
 
+  @Override
+  public OffsetDateTime toOffsetDateTime(int index) throws SFException {
+    if (isNull(index)) {
+      return null;
+    }
+    long epoch = epochs.getDataBuffer().getLong(index * BigIntVector.TYPE_WIDTH);
+    int fraction = fractions.getDataBuffer().getInt(index * IntVector.TYPE_WIDTH);
+    return ArrowResultUtil.createOffsetDateTime(epoch, fraction, getTimestampLTZZoneRules());
+  }
+
+  @Override
+  public LocalDate toLocalDate(int index) throws SFException {
+    LocalDateTime value = toLocalDateTime(index);
+    return value == null ? null : value.toLocalDate();
+  }
+
+  @Override
+  public LocalTime toLocalTime(int index) throws SFException {
+    LocalDateTime value = toLocalDateTime(index);
+    return value == null ? null : value.toLocalTime();
+  }
+
   @Override
   public byte[] toBytes(int index) throws SFException {
     if (epochs.isNull(index)) {
@@ -6,6 +6,12 @@ package net.snowflake.client.core.arrow;
 import java.sql.Date;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.TimeZone;
 import net.snowflake.client.core.DataConversionContext;
 import net.snowflake.client.core.ResultUtil;
@@ -85,6 +91,42 @@ public class TwoFieldStructToTimestampNTZConverter extends AbstractArrowVectorCo
         fromToString);
   }
 
+  @Override
+  public OffsetDateTime toOffsetDateTime(int index) throws SFException {
+    // TIMESTAMP_NTZ values have no time zone, see ResultUtil.checkJavaTimeTypeOfTimestampNTZ
+    throw new SFException(
+        ErrorCode.INVALID_VALUE_CONVERT, logicalTypeStr, OffsetDateTime.class.getName(), "");
+  }
+
+  @Override
+  public Instant toInstant(int index) throws SFException {
+    // TIMESTAMP_NTZ values have no time zone, see ResultUtil.checkJavaTimeTypeOfTimestampNTZ
+    throw new SFException(
+        ErrorCode.INVALID_VALUE_CONVERT, logicalTypeStr, Instant.class.getName(), "");
+  }
+
+  @Override
+  public LocalDateTime toLocalDateTime(int index) throws SFException {
+    if (isNull(index)) {
+      return null;
+    }
+    long epoch = epochs.getDataBuffer().getLong(index * BigIntVector.TYPE_WIDTH);
+    int fraction = fractions.getDataBuffer().getInt(index * IntVector.TYPE_WIDTH);
+    return LocalDateTime.ofEpochSecond(epoch, fraction, ZoneOffset.UTC);
+  }
+
+  @Override
+  public LocalDate toLocalDate(int index) throws SFException {
+    LocalDateTime value = toLocalDateTime(index);
+    return value == null ? null : value.toLocalDate();
+  }
+
+  @Override
+  public LocalTime toLocalTime(int index) throws SFException {
+    LocalDateTime value = toLocalDateTime(index);
+    return value == null ? null : value.toLocalTime();
+  }
+
   @Override
   public byte[] toBytes(int index) throws SFException {
     if (epochs.isNull(index)) {
@@ -6,6 +6,10 @@ package net.snowflake.client.core.arrow;
 import java.sql.Date;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
 import java.util.TimeZone;
 import net.snowflake.client.core.DataConversionContext;
 import net.snowflake.client.core.ResultUtil;
@@ -74,6 +78,32 @@ public class TwoFieldStructToTimestampTZConverter extends AbstractArrowVectorCon
     return getTimestamp(epoch, timeZoneIndex, context.getScale(columnIndex));
   }
 
+  @Override
+  public OffsetDateTime toOffsetDateTime(int index) throws SFException {
+    if (isNull(index)) {
+      return null;
+    }
+    long epoch = epochs.getDataBuffer().getLong(index * BigIntVector.TYPE_WIDTH);
+    int timeZoneIndex = timeZoneIndices.getDataBuffer().getInt(index * IntVector.TYPE_WIDTH);
+    int scale = context.getScale(columnIndex);
+    return ArrowResultUtil.createOffsetDateTime(
+        ArrowResultUtil.toEpochSeconds(epoch, scale),
+        ArrowResultUtil.toEpochFraction(epoch, scale),
+        ArrowResultUtil.toZoneOffset(timeZoneIndex, context.getResultVersion()));
+  }
+
+  @Override
+  public LocalDate toLocalDate(int index) throws SFException {
+    LocalDateTime value = toLocalDateTime(index);
+    return value == null ? null : value.toLocalDate();
+  }
+
+  @Override
+  public LocalTime toLocalTime(int index) throws SFException {
+    LocalDateTime value = toLocalDateTime(index);
+    return value == null ? null : value.toLocalTime();
+  }
+
   @Override
   public Date toDate(int index, TimeZone tz, boolean dateFormat) throws SFException {
     if (epochs.isNull(index)) {
@@ -7,10 +7,12 @@ package net.snowflake.client.core.bind;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.ByteBuffer;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.sql.SQLException;
 import java.sql.Time;
 import java.sql.Timestamp;
@@ -22,9 +24,16 @@ import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.GregorianCalendar;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.TimeZone;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import net.snowflake.client.core.ExecTimeTelemetryData;
 import net.snowflake.client.core.ParameterBindingDTO;
 import net.snowflake.client.core.SFBaseSession;
@@ -32,8 +41,10 @@ import net.snowflake.client.core.SFBaseStatement;
 import net.snowflake.client.core.SFException;
 import net.snowflake.client.jdbc.ErrorCode;
 import net.snowflake.client.jdbc.SFBaseFileTransferAgent;
+import net.snowflake.client.jdbc.SnowflakeFileTransferAgent;
 import net.snowflake.client.jdbc.SnowflakeSQLLoggedException;
 import net.snowflake.client.jdbc.SnowflakeType;
+import net.snowflake.client.jdbc.SnowflakeUtil;
 import net.snowflake.client.log.SFLogger;
 import net.snowflake.client.log.SFLoggerFactory;
 import net.snowflake.client.util.SFPair;
@@ -54,6 +65,9 @@ public class BindUploader implements Closeable {
   // size (bytes) of max input stream (10MB default)
   private long inputStreamBufferSize = 1024 * 1024 * 10;
 
+  // max number of bind files uploaded concurrently after the first one
+  private int uploadParallelism = 4;
+
   private int fileCount = 0;
 
   private final DateFormat timestampFormat;
@@ -64,9 +78,9 @@ public class BindUploader implements Closeable {
 
   static class ColumnTypeDataPair {
     public String type;
-    public List<String> data;
+    public List<?> data;
 
-    ColumnTypeDataPair(String type, List<String> data) {
+    ColumnTypeDataPair(String type, List<?> data) {
       this.type = type;
       this.data = data;
     }
@@ -204,37 +218,141 @@ public class BindUploader implements Closeable {
       throws BindException, SQLException {
     if (!closed) {
       List<ColumnTypeDataPair> columns = getColumnValues(bindValues);
-      List<byte[]> bindingRows = buildRowsAsBytes(columns);
-      int startIndex = 0;
-      int numBytes = 0;
-      int rowNum = 0;
+      int numRows = getRowCount(columns);
       fileCount = 0;
 
-      while (rowNum < bindingRows.size()) {
-        // create a list of byte arrays
-        while (numBytes < inputStreamBufferSize && rowNum < bindingRows.size()) {
-          numBytes += bindingRows.get(rowNum).length;
-          rowNum++;
-        }
-        // concatenate all byte arrays into 1 and put into input stream
-        ByteBuffer bb = ByteBuffer.allocate(numBytes);
-        for (int i = startIndex; i < rowNum; i++) {
-          bb.put(bindingRows.get(i));
-        }
-        byte[] finalBytearray = bb.array();
-        try (ByteArrayInputStream inputStream = new ByteArrayInputStream(finalBytearray)) {
+      // Rows are serialized straight into the buffer of the file being built. The first file runs
+      // the PUT command; the following files reuse its stage information and are uploaded by a
+      // bounded pool while the next file is serialized. At most uploadParallelism + 1 file buffers
+      // are held in memory.
+      BlockingQueue<BindFileBuffer> freeBuffers = new ArrayBlockingQueue<>(uploadParallelism + 1);
+      for (int i = 0; i <= uploadParallelism; i++) {
+        freeBuffers.add(new BindFileBuffer());
+      }
+      List<Future<Void>> uploads = new ArrayList<>();
+      ExecutorService uploadExecutor = null;
+      SFBaseFileTransferAgent transferAgent = null;
+      BindFileBuffer fileBuffer = freeBuffers.poll();
+      String[] row = new String[columns.size()];
+      try {
+        for (int rowIdx = 0; rowIdx < numRows; rowIdx++) {
+          for (int colIdx = 0; colIdx < row.length; colIdx++) {
+            row[colIdx] = getColumnValue(columns.get(colIdx), rowIdx);
+          }
+          writeCSVRecord(fileBuffer.writer, row);
+          fileBuffer.writer.flush();
+          if (fileBuffer.size() < inputStreamBufferSize && rowIdx < numRows - 1) {
+            continue;
+          }
+
           // do the upload
           String fileName = Integer.toString(++fileCount);
-          uploadStreamInternal(inputStream, fileName, compressData);
-          startIndex = rowNum;
-          numBytes = 0;
-        } catch (IOException ex) {
-          throw new BindException(
-              String.format(
-                  "Failure using inputstream to upload bind data. Message: %s", ex.getMessage()),
-              BindException.Type.SERIALIZATION);
+          if (transferAgent instanceof SnowflakeFileTransferAgent) {
+            if (uploadExecutor == null) {
+              uploadExecutor =
+                  SnowflakeUtil.createDefaultExecutorService(
+                      "sf-bind-upload-worker-", uploadParallelism);
+            }
+            uploads.add(
+                uploadExecutor.submit(
+                    getUploadCallable(
+                        (SnowflakeFileTransferAgent) transferAgent,
+                        fileBuffer,
+                        fileName,
+                        compressData,
+                        freeBuffers)));
+            // wait for a buffer whose upload is done, and stop at the first failed upload
+            fileBuffer = freeBuffers.take();
+            checkFinishedUploads(uploads);
+          } else {
+            try (InputStream inputStream = fileBuffer.toInputStream()) {
+              transferAgent = uploadStreamInternal(inputStream, fileName, compressData);
+            }
+            fileBuffer.reset();
+          }
+        }
+        for (Future<Void> upload : uploads) {
+          upload.get();
+        }
+      } catch (IOException ex) {
+        throw new BindException(
+            String.format(
+                "Failure using inputstream to upload bind data. Message: %s", ex.getMessage()),
+            BindException.Type.SERIALIZATION);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new BindException("Interrupted while uploading bind data", BindException.Type.UPLOAD);
+      } catch (ExecutionException ex) {
+        if (ex.getCause() instanceof SQLException) {
+          throw (SQLException) ex.getCause();
         }
+        throw new BindException(
+            String.format("Failure uploading bind data. Message: %s", ex.getCause().getMessage()),
+            BindException.Type.UPLOAD);
+      } finally {
+        if (uploadExecutor != null) {
+          uploadExecutor.shutdownNow();
+        }
+      }
+    }
+  }
+
+  /**
+   * Remove the finished uploads, so that a failed upload stops the serialization of the next files
+   *
+   * @param uploads the uploads in progress
+   * @throws ExecutionException if an upload failed
+   * @throws InterruptedException if interrupted
+   */
+  private static void checkFinishedUploads(List<Future<Void>> uploads)
+      throws ExecutionException, InterruptedException {
+    Iterator<Future<Void>> it = uploads.iterator();
+    while (it.hasNext()) {
+      Future<Void> upload = it.next();
+      if (upload.isDone()) {
+        upload.get();
+        it.remove();
+      }
+    }
+  }
+
+  /**
+   * Upload a bind file with the stage information of an executed PUT command
+   *
+   * @param transferAgent the agent of the executed PUT command
+   * @param fileBuffer the bind file
+   * @param fileName destination file name
+   * @param compressData whether or not to compress data
+   * @param freeBuffers queue the file buffer is returned to once uploaded
+   * @return the upload task
+   */
+  private static Callable<Void> getUploadCallable(
+      SnowflakeFileTransferAgent transferAgent,
+      BindFileBuffer fileBuffer,
+      String fileName,
+      boolean compressData,
+      BlockingQueue<BindFileBuffer> freeBuffers) {
+    return () -> {
+      try {
+        transferAgent.uploadAdditionalStream(fileBuffer.toInputStream(), fileName, compressData);
+      } finally {
+        fileBuffer.reset();
+        freeBuffers.add(fileBuffer);
       }
+      return null;
+    };
+  }
+
+  /** Buffer of one bind file that can be read without copying the data */
+  private static class BindFileBuffer extends ByteArrayOutputStream {
+    private final Writer writer = new OutputStreamWriter(this, UTF_8);
+
+    private BindFileBuffer() {
+      super(8192);
+    }
+
+    private InputStream toInputStream() {
+      return new ByteArrayInputStream(buf, 0, count);
     }
   }
 
@@ -251,9 +369,10 @@ public class BindUploader implements Closeable {
    * @param inputStream input stream from which the data will be uploaded
    * @param destFileName destination file name to use
    * @param compressData whether compression is requested fore uploading data
+   * @return the file transfer agent that executed the PUT command
    * @throws SQLException raises if any error occurs
    */
-  private void uploadStreamInternal(
+  private SFBaseFileTransferAgent uploadStreamInternal(
       InputStream inputStream, String destFileName, boolean compressData)
       throws SQLException, BindException {
 
@@ -302,11 +421,12 @@ public class BindUploader implements Closeable {
     transferAgent.execute();
 
     stmt.close();
+    return transferAgent;
   }
 
   /**
-   * Convert bind map to a list of values for each column Perform necessary type casts and invariant
-   * checks
+   * Convert bind map to a list of values for each column and perform invariant checks. The values
+   * are converted when they are written, see {@link #getColumnValue(ColumnTypeDataPair, int)}.
    *
    * @param bindValues the bind map to convert
    * @return list of values for each column
@@ -327,27 +447,7 @@ public class BindUploader implements Closeable {
 
       ParameterBindingDTO value = bindValues.get(key);
       try {
-        String type = value.getType();
-        List<?> list = (List<?>) value.getValue();
-        List<String> convertedList = new ArrayList<>(list.size());
-        if ("TIMESTAMP_LTZ".equals(type) || "TIMESTAMP_NTZ".equals(type)) {
-          for (Object e : list) {
-            convertedList.add(synchronizedTimestampFormat((String) e, type));
-          }
-        } else if ("DATE".equals(type)) {
-          for (Object e : list) {
-            convertedList.add(synchronizedDateFormat((String) e));
-          }
-        } else if ("TIME".equals(type)) {
-          for (Object e : list) {
-            convertedList.add(synchronizedTimeFormat((String) e));
-          }
-        } else {
-          for (Object e : list) {
-            convertedList.add((String) e);
-          }
-        }
-        columns.add(i - 1, new ColumnTypeDataPair(type, convertedList));
+        columns.add(i - 1, new ColumnTypeDataPair(value.getType(), (List<?>) value.getValue()));
       } catch (ClassCastException ex) {
         throw new BindException(
             "Value in binding DTO could not be cast to a list", BindException.Type.SERIALIZATION);
@@ -357,14 +457,39 @@ public class BindUploader implements Closeable {
   }
 
   /**
-   * Transpose a list of columns and their values to a list of rows in bytes instead of strings
+   * Convert one bind value to its CSV representation. Performs the necessary type casts.
    *
-   * @param columns the list of columns to transpose
-   * @return list of rows
+   * @param column the column of the value
+   * @param rowIdx the row of the value
+   * @return the value to write
+   * @throws BindException if the value is not a string
+   */
+  private String getColumnValue(ColumnTypeDataPair column, int rowIdx) throws BindException {
+    String value;
+    try {
+      value = (String) column.data.get(rowIdx);
+    } catch (ClassCastException ex) {
+      throw new BindException(
+          "Value in binding DTO could not be cast to a String", BindException.Type.SERIALIZATION);
+    }
+    if ("TIMESTAMP_LTZ".equals(column.type) || "TIMESTAMP_NTZ".equals(column.type)) {
+      return synchronizedTimestampFormat(value, column.type);
+    } else if ("DATE".equals(column.type)) {
+      return synchronizedDateFormat(value);
+    } else if ("TIME".equals(column.type)) {
+      return synchronizedTimeFormat(value);
+    }
+    return value;
+  }
+
+  /**
+   * Check that all columns have the same number of binds
+   *
+   * @param columns the list of columns
+   * @return number of rows
    * @throws BindException if columns improperly formed
    */
-  private List<byte[]> buildRowsAsBytes(List<ColumnTypeDataPair> columns) throws BindException {
-    List<byte[]> rows = new ArrayList<>();
+  private int getRowCount(List<ColumnTypeDataPair> columns) throws BindException {
     int numColumns = columns.size();
     // columns should have binds
     if (columns.get(0).data.isEmpty()) {
@@ -383,35 +508,24 @@ public class BindUploader implements Closeable {
             BindException.Type.SERIALIZATION);
       }
     }
-
-    for (int rowIdx = 0; rowIdx < numRows; rowIdx++) {
-      String[] row = new String[numColumns];
-      for (int colIdx = 0; colIdx < numColumns; colIdx++) {
-        row[colIdx] = columns.get(colIdx).data.get(rowIdx);
-      }
-      rows.add(createCSVRecord(row));
-    }
-
-    return rows;
+    return numRows;
   }
 
   /**
    * Serialize row to a csv Duplicated from StreamLoader class
    *
+   * @param writer the writer of the bind file
    * @param data the row to create a csv record from
-   * @return serialized csv for row
+   * @throws IOException if writing fails
    */
-  private byte[] createCSVRecord(String[] data) {
-    StringBuilder sb = new StringBuilder(1024);
-
+  private void writeCSVRecord(Writer writer, String[] data) throws IOException {
     for (int i = 0; i < data.length; ++i) {
       if (i > 0) {
-        sb.append(',');
+        writer.write(',');
       }
-      sb.append(SnowflakeType.escapeForCSV(data[i]));
+      writer.write(SnowflakeType.escapeForCSV(data[i]));
     }
-    sb.append('\n');
-    return sb.toString().getBytes(UTF_8);
+    writer.write('\n');
   }
 
   /**
@@ -465,6 +579,15 @@ public class BindUploader implements Closeable {
     this.inputStreamBufferSize = bufferSize;
   }
 
+  /**
+   * Set the maximum number of bind files uploaded concurrently
+   *
+   * @param uploadParallelism number of upload threads
+   */
+  public void setUploadParallelism(int uploadParallelism) {
+    this.uploadParallelism = Math.max(1, uploadParallelism);
+  }
+
   /**
    * Return the number of files that binding data is split into on internal stage. Used for testing
    * purposes.
@@ -4,10 +4,15 @@
 
 package net.snowflake.client.core.json;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.sql.Date;
 import java.sql.Time;
 import java.sql.Timestamp;
 import java.sql.Types;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneRules;
 import java.util.TimeZone;
 import net.snowflake.client.core.ResultUtil;
 import net.snowflake.client.core.SFBaseSession;
@@ -115,6 +120,53 @@ public class DateTimeConverter {
     }
   }
 
+  /**
+   * Convert a TIMESTAMP_NTZ, TIMESTAMP_LTZ or TIMESTAMP_TZ value to a java.time type, with the same
+   * values as the Arrow timestamp converters. TIMESTAMP_NTZ values are wall clock times and are not
+   * converted to Instant or OffsetDateTime. TIMESTAMP_LTZ values are in the session time zone with
+   * JDBC_USE_SESSION_TIMEZONE and in the JVM default time zone otherwise. TIMESTAMP_TZ values keep
+   * their own offset.
+   *
+   * @param obj the value
+   * @param columnSubType the internal type of the column
+   * @param scale the scale of the column
+   * @param type LocalDateTime, OffsetDateTime, Instant, LocalDate or LocalTime
+   * @param <T> the java.time type
+   * @return the converted value, null if the value is null
+   * @throws SFException if the value cannot be converted to the type
+   */
+  public <T> T getJavaTime(Object obj, int columnSubType, int scale, Class<T> type)
+      throws SFException {
+    if (columnSubType == Types.TIMESTAMP) {
+      ResultUtil.checkJavaTimeTypeOfTimestampNTZ(type);
+    }
+    if (obj == null) {
+      return null;
+    }
+    SFTimestamp sfTS =
+        ResultUtil.getSFTimestamp(
+            obj.toString(), scale, columnSubType, resultVersion, sessionTimeZone, session);
+    BigDecimal nanosSinceEpoch = sfTS.getNanosSinceEpoch();
+    BigDecimal secondsSinceEpoch =
+        nanosSinceEpoch.scaleByPowerOfTen(-9).setScale(0, RoundingMode.FLOOR);
+    int fraction = nanosSinceEpoch.subtract(secondsSinceEpoch.scaleByPowerOfTen(9)).intValueExact();
+
+    ZoneRules rules;
+    if (columnSubType == Types.TIMESTAMP) {
+      rules = ZoneOffset.UTC.getRules();
+    } else if (columnSubType == SnowflakeUtil.EXTRA_TYPES_TIMESTAMP_LTZ) {
+      rules =
+          useSessionTimezone && sessionTimeZone != null
+              ? sessionTimeZone.toZoneId().getRules()
+              : ZoneId.systemDefault().getRules();
+    } else {
+      rules = sfTS.getTimeZone().toZoneId().getRules();
+    }
+    return ResultUtil.toJavaTime(
+        ArrowResultUtil.createOffsetDateTime(secondsSinceEpoch.longValueExact(), fraction, rules),
+        type);
+  }
+
   public Time getTime(Object obj, int columnType, int columnSubType, TimeZone tz, int scale)
       throws SFException {
     if (obj == null) {
@@ -170,10 +222,7 @@ public class DateTimeConverter {
       return new Date(getTimestamp(obj, columnType, columnSubType, tz, scale).getTime());
 
     } else if (Types.DATE == columnType) {
-      if (tz == null || !formatDateWithTimeZone) {
-        return ArrowResultUtil.getDate(Integer.parseInt((String) obj));
-      }
-      return ArrowResultUtil.getDate(Integer.parseInt((String) obj), tz, sessionTimeZone);
+      return getDate(Integer.parseInt((String) obj), tz);
     }
     // for Types.TIME and all other type, throw user error
     else {
@@ -182,6 +231,21 @@ public class DateTimeConverter {
     }
   }
 
+  /**
+   * Convert a DATE value given as days since the epoch
+   *
+   * @param days days since the epoch
+   * @param tz the requested time zone, may be null
+   * @return the date
+   * @throws SFException if the date can't be converted
+   */
+  public Date getDate(int days, TimeZone tz) throws SFException {
+    if (tz == null || !formatDateWithTimeZone) {
+      return ArrowResultUtil.getDate(days);
+    }
+    return ArrowResultUtil.getDate(days, tz, sessionTimeZone);
+  }
+
   private TimeZone adjustTimezoneForTimestampTZ(Object obj, int columnSubType) {
     // If the timestamp is of type timestamp_tz, use the associated offset timezone instead of the
     // session timezone for formatting
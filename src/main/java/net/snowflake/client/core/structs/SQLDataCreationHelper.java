@@ -3,6 +3,10 @@
  */
 package net.snowflake.client.core.structs;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
 import java.sql.SQLData;
 import java.sql.SQLException;
 import java.util.Optional;
@@ -11,19 +15,43 @@ import net.snowflake.client.core.SnowflakeJdbcInternalApi;
 
 @SnowflakeJdbcInternalApi
 public class SQLDataCreationHelper {
+  // no-arg constructors of the SQLData classes, resolved once per class instead of per row
+  private static final ClassValue<Supplier<SQLData>> constructors =
+      new ClassValue<Supplier<SQLData>>() {
+        @Override
+        protected Supplier<SQLData> computeValue(Class<?> type) {
+          return createConstructor(type);
+        }
+      };
+
   public static <T> T create(Class<T> type) throws SQLException {
     Optional<Supplier<SQLData>> typeFactory = SnowflakeObjectTypeFactories.get(type);
-    return (T)
-        typeFactory
-            .map(Supplier::get)
-            .orElseGet(() -> createUsingReflection((Class<SQLData>) type));
+    return (T) typeFactory.orElseGet(() -> constructors.get(type)).get();
   }
 
-  private static SQLData createUsingReflection(Class<? extends SQLData> type) {
+  private static Supplier<SQLData> createConstructor(Class<?> type) {
+    MethodHandle constructor;
     try {
-      return type.newInstance();
-    } catch (InstantiationException | IllegalAccessException e) {
-      throw new RuntimeException(e);
+      Constructor<?> declaredConstructor = type.getDeclaredConstructor();
+      declaredConstructor.setAccessible(true);
+      constructor =
+          MethodHandles.lookup()
+              .unreflectConstructor(declaredConstructor)
+              .asType(MethodType.methodType(SQLData.class));
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      // report the failure on each creation, as the reflective creation did
+      return () -> {
+        throw new RuntimeException(e);
+      };
     }
+    return () -> {
+      try {
+        return (SQLData) constructor.invokeExact();
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new RuntimeException(e);
+      }
+    };
   }
 }
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2012-2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import net.snowflake.client.core.SFException;
+import net.snowflake.client.core.arrow.ArrowVectorConverter;
+import org.apache.arrow.vector.BaseIntVector;
+import org.apache.arrow.vector.FloatingPointVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.VarCharVector;
+
+/**
+ * Record batch view over a range of rows of an Arrow record batch. Values are read directly from
+ * the Arrow vectors when the column type allows it, otherwise through the column converters.
+ */
+class ArrowRecordBatch implements SnowflakeRecordBatch {
+  private final List<ValueVector> vectors;
+
+  private final List<ArrowVectorConverter> converters;
+
+  private final int fromRow;
+
+  private final int rowCount;
+
+  /**
+   * @param vectors Arrow vectors of the record batch
+   * @param converters converters of the record batch, one per vector
+   * @param fromRow index of the first row of the view in the record batch
+   * @param rowCount number of rows of the view
+   */
+  ArrowRecordBatch(
+      List<ValueVector> vectors,
+      List<ArrowVectorConverter> converters,
+      int fromRow,
+      int rowCount) {
+    this.vectors = vectors;
+    this.converters = converters;
+    this.fromRow = fromRow;
+    this.rowCount = rowCount;
+  }
+
+  @Override
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  @Override
+  public int getColumnCount() {
+    return converters.size();
+  }
+
+  @Override
+  public SnowflakeColumnVector getColumn(int columnIndex) throws SQLException {
+    if (columnIndex < 1 || columnIndex > converters.size()) {
+      throw new SnowflakeSQLException(ErrorCode.COLUMN_DOES_NOT_EXIST, columnIndex);
+    }
+    return new ArrowColumnVector(
+        vectors.get(columnIndex - 1), converters.get(columnIndex - 1), fromRow, rowCount);
+  }
+
+  private static class ArrowColumnVector implements SnowflakeColumnVector {
+    private final ValueVector vector;
+
+    private final ArrowVectorConverter converter;
+
+    private final int fromRow;
+
+    private final int rowCount;
+
+    private final String logicalType;
+
+    private final String scale;
+
+    // UTF-8 values, computed on first access
+    private byte[] utf8Bytes;
+
+    private int[] utf8Offsets;
+
+    private ArrowColumnVector(
+        ValueVector vector, ArrowVectorConverter converter, int fromRow, int rowCount) {
+      this.vector = vector;
+      this.converter = converter;
+      this.fromRow = fromRow;
+      this.rowCount = rowCount;
+      Map<String, String> customMeta = vector.getField().getMetadata();
+      this.logicalType = customMeta.get("logicalType");
+      this.scale = customMeta.get("scale");
+    }
+
+    @Override
+    public boolean isNull(int rowIndex) {
+      return converter.isNull(fromRow + rowIndex);
+    }
+
+    @Override
+    public BitSet getNulls() {
+      BitSet nulls = new BitSet(rowCount);
+      for (int i = 0; i < rowCount; i++) {
+        if (converter.isNull(fromRow + i)) {
+          nulls.set(i);
+        }
+      }
+      return nulls;
+    }
+
+    @Override
+    public long[] getLongs() throws SQLException {
+      long[] values = new long[rowCount];
+      if (vector instanceof BaseIntVector && "FIXED".equals(logicalType) && "0".equals(scale)) {
+        BaseIntVector intVector = (BaseIntVector) vector;
+        for (int i = 0; i < rowCount; i++) {
+          int index = fromRow + i;
+          values[i] = intVector.isNull(index) ? 0 : intVector.getValueAsLong(index);
+        }
+        return values;
+      }
+      try {
+        for (int i = 0; i < rowCount; i++) {
+          values[i] = converter.toLong(fromRow + i);
+        }
+      } catch (SFException ex) {
+        throw toSQLException(ex);
+      }
+      return values;
+    }
+
+    @Override
+    public double[] getDoubles() throws SQLException {
+      double[] values = new double[rowCount];
+      if (vector instanceof FloatingPointVector && "REAL".equals(logicalType)) {
+        FloatingPointVector floatVector = (FloatingPointVector) vector;
+        for (int i = 0; i < rowCount; i++) {
+          int index = fromRow + i;
+          values[i] = floatVector.isNull(index) ? 0 : floatVector.getValueAsDouble(index);
+        }
+        return values;
+      }
+      try {
+        for (int i = 0; i < rowCount; i++) {
+          values[i] = converter.toDouble(fromRow + i);
+        }
+      } catch (SFException ex) {
+        throw toSQLException(ex);
+      }
+      return values;
+    }
+
+    @Override
+    public byte[] getUtf8Bytes() throws SQLException {
+      loadUtf8();
+      return utf8Bytes;
+    }
+
+    @Override
+    public int[] getUtf8Offsets() throws SQLException {
+      loadUtf8();
+      return utf8Offsets;
+    }
+
+    private void loadUtf8() throws SQLException {
+      if (utf8Bytes != null) {
+        return;
+      }
+      int[] offsets = new int[rowCount + 1];
+      if (vector instanceof VarCharVector) {
+        // VARCHAR data is already UTF-8 encoded, so copy the value range in one go
+        VarCharVector varCharVector = (VarCharVector) vector;
+        int start = rowCount == 0 ? 0 : varCharVector.getStartOffset(fromRow);
+        for (int i = 0; i < rowCount; i++) {
+          offsets[i] = varCharVector.getStartOffset(fromRow + i) - start;
+        }
+        int end = rowCount == 0 ? 0 : varCharVector.getEndOffset(fromRow + rowCount - 1);
+        offsets[rowCount] = end - start;
+        byte[] bytes = new byte[end - start];
+        varCharVector.getDataBuffer().getBytes(start, bytes, 0, bytes.length);
+        utf8Offsets = offsets;
+        utf8Bytes = bytes;
+        return;
+      }
+      byte[][] values = new byte[rowCount][];
+      int length = 0;
+      try {
+        for (int i = 0; i < rowCount; i++) {
+          String value = converter.toString(fromRow + i);
+          values[i] = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+          offsets[i] = length;
+          length += values[i].length;
+        }
+      } catch (SFException ex) {
+        throw toSQLException(ex);
+      }
+      offsets[rowCount] = length;
+      byte[] bytes = new byte[length];
+      for (int i = 0; i < rowCount; i++) {
+        System.arraycopy(values[i], 0, bytes, offsets[i], values[i].length);
+      }
+      utf8Offsets = offsets;
+      utf8Bytes = bytes;
+    }
+
+    private static SQLException toSQLException(SFException ex) {
+      return new SnowflakeSQLException(
+          ex.getCause(), ex.getSqlState(), ex.getVendorCode(), ex.getParams());
+    }
+  }
+}
@@ -10,7 +10,10 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
 import net.snowflake.client.core.DataConversionContext;
+import net.snowflake.client.core.HttpUtil;
 import net.snowflake.client.core.SFBaseSession;
 import net.snowflake.client.core.SFException;
 import net.snowflake.client.core.arrow.ArrayConverter;
@@ -64,6 +67,8 @@ import org.apache.arrow.vector.complex.MapVector;
 import org.apache.arrow.vector.complex.StructVector;
 import org.apache.arrow.vector.ipc.ArrowStreamReader;
 import org.apache.arrow.vector.types.Types;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
 import org.apache.arrow.vector.util.TransferPair;
 
 public class ArrowResultChunk extends SnowflakeResultChunk {
@@ -86,6 +91,29 @@ public class ArrowResultChunk extends SnowflakeResultChunk {
   private VectorSchemaRoot root;
   private static SFBaseSession session;
 
+  /** Timeout that the consumer waits for the next record batch of a pipelined chunk */
+  private static final long batchLoadedConditionTimeoutInSeconds =
+      HttpUtil.getDownloadedConditionTimeoutInSeconds();
+
+  /**
+   * If true, record batches are consumable as soon as they are decoded, while later batches of the
+   * chunk are still being downloaded.
+   */
+  private boolean pipelined = false;
+
+  // a condition to signal from downloader to consumer that a record batch was loaded
+  private final Condition batchLoadedCondition = getLock().newCondition();
+
+  // whether the downloader finished loading record batches, guarded by the chunk lock
+  private boolean allBatchesLoaded = true;
+
+  // error that stopped loading record batches after some were published, guarded by the chunk lock
+  private String batchLoadError;
+
+  // whether the chunk data was freed, so that the downloader stops adding record batches, guarded
+  // by the chunk lock
+  private boolean freed = false;
+
   public ArrowResultChunk(
       String url,
       int rowCount,
@@ -99,8 +127,148 @@ public class ArrowResultChunk extends SnowflakeResultChunk {
     this.session = session;
   }
 
-  private void addBatchData(List<ValueVector> batch) {
-    batchOfVectors.add(batch);
+  /**
+   * Add a loaded record batch to the chunk
+   *
+   * @param batch the vectors of the record batch
+   * @return false if the chunk was freed, in which case the batch is not added
+   */
+  private boolean addBatchData(List<ValueVector> batch) {
+    getLock().lock();
+    try {
+      if (freed) {
+        return false;
+      }
+      batchOfVectors.add(batch);
+      if (pipelined) {
+        if (batchOfVectors.size() == 1) {
+          // the first record batch makes the chunk ready to consume
+          setDownloadState(DownloadState.SUCCESS);
+          getDownloadCondition().signal();
+        }
+        batchLoadedCondition.signalAll();
+      }
+      return true;
+    } finally {
+      getLock().unlock();
+    }
+  }
+
+  /**
+   * Make record batches consumable as soon as they are decoded. Must be called before the chunk is
+   * downloaded.
+   */
+  void enablePipelinedLoading() {
+    this.pipelined = true;
+  }
+
+  private void startLoadingBatches() {
+    getLock().lock();
+    try {
+      allBatchesLoaded = false;
+      batchLoadError = null;
+    } finally {
+      getLock().unlock();
+    }
+  }
+
+  private void finishLoadingBatches() {
+    getLock().lock();
+    try {
+      allBatchesLoaded = true;
+      batchLoadedCondition.signalAll();
+    } finally {
+      getLock().unlock();
+    }
+  }
+
+  /**
+   * Record a failure that happened while loading record batches of a pipelined chunk
+   *
+   * @param ex the failure
+   * @return true if some record batches were already published to the consumer, so the chunk data
+   *     must be kept and the consumer fails once it reaches the missing batches
+   */
+  private boolean failLoadingBatches(Exception ex) {
+    if (!pipelined) {
+      return false;
+    }
+    getLock().lock();
+    try {
+      if (batchOfVectors.isEmpty()) {
+        return false;
+      }
+      batchLoadError = ex.getClass().getName() + ": " + ex.getLocalizedMessage();
+      return true;
+    } finally {
+      getLock().unlock();
+    }
+  }
+
+  /**
+   * @return true if loading of the record batches failed after some were published to the consumer,
+   *     so the chunk data is kept until the consumer releases the chunk
+   */
+  boolean keepsPublishedBatches() {
+    getLock().lock();
+    try {
+      return batchLoadError != null && !batchOfVectors.isEmpty();
+    } finally {
+      getLock().unlock();
+    }
+  }
+
+  /**
+   * Wait until the given number of record batches is loaded or the chunk is fully loaded
+   *
+   * @param count number of record batches to wait for
+   * @return number of record batches loaded
+   * @throws SnowflakeSQLException if loading of the record batches failed or timed out
+   */
+  private int awaitRecordBatchCount(int count) throws SnowflakeSQLException {
+    if (!pipelined) {
+      return batchOfVectors.size();
+    }
+    getLock().lock();
+    try {
+      while (batchOfVectors.size() < count && !allBatchesLoaded) {
+        if (!batchLoadedCondition.await(batchLoadedConditionTimeoutInSeconds, TimeUnit.SECONDS)) {
+          throw new SnowflakeSQLLoggedException(
+              session,
+              ErrorCode.INTERNAL_ERROR.getMessageCode(),
+              SqlState.INTERNAL_ERROR,
+              "Timeout waiting for record batch #" + count + " of chunk " + getScrubbedUrl());
+        }
+      }
+      if (batchOfVectors.size() < count && batchLoadError != null) {
+        throw new SnowflakeSQLLoggedException(
+            session,
+            ErrorCode.INTERNAL_ERROR.getMessageCode(),
+            SqlState.INTERNAL_ERROR,
+            "Failed to load record batch #" + count + " of chunk: " + batchLoadError);
+      }
+      return batchOfVectors.size();
+    } catch (InterruptedException ex) {
+      throw new SnowflakeSQLLoggedException(
+          session,
+          ErrorCode.INTERNAL_ERROR.getMessageCode(),
+          SqlState.INTERNAL_ERROR,
+          "Interrupted while waiting for record batch #" + count);
+    } finally {
+      getLock().unlock();
+    }
+  }
+
+  private List<ValueVector> getRecordBatch(int index) {
+    if (!pipelined) {
+      return batchOfVectors.get(index);
+    }
+    getLock().lock();
+    try {
+      return batchOfVectors.get(index);
+    } finally {
+      getLock().unlock();
+    }
   }
 
   /**
@@ -110,17 +278,25 @@ public class ArrowResultChunk extends SnowflakeResultChunk {
    * ArrowResultChunk class and once ArrowStreamReader is garbage collected, memory will not be
    * cleared up
    *
+   * <p>If pipelined loading is enabled, each record batch is published to the consumer as soon as
+   * it is loaded, and the chunk becomes ready to consume with the first batch.
+   *
    * @param is inputStream which contains arrow data file in bytes
    * @throws IOException if failed to read data as arrow file
    */
   public void readArrowStream(InputStream is) throws IOException {
+    if (pipelined) {
+      startLoadingBatches();
+    }
     ArrayList<ValueVector> valueVectors = new ArrayList<>();
     try (ArrowStreamReader reader = new ArrowStreamReader(is, rootAllocator)) {
-      root = reader.getVectorSchemaRoot();
+      // the field may be cleared by freeData() while loading
+      VectorSchemaRoot readerRoot = reader.getVectorSchemaRoot();
+      root = readerRoot;
       while (reader.loadNextBatch()) {
         valueVectors = new ArrayList<>();
 
-        for (FieldVector f : root.getFieldVectors()) {
+        for (FieldVector f : readerRoot.getFieldVectors()) {
           // transfer will not copy data but transfer ownership of memory
           // from streamReader to resultChunk
           TransferPair t = f.getTransferPair(rootAllocator);
@@ -128,25 +304,47 @@ public class ArrowResultChunk extends SnowflakeResultChunk {
           valueVectors.add(t.getTo());
         }
 
-        addBatchData(valueVectors);
-        root.clear();
+        if (!addBatchData(valueVectors)) {
+          logger.debug("Chunk was freed while loading, stop loading record batches", false);
+          break;
+        }
+        // the batch is owned by the chunk now
+        valueVectors = new ArrayList<>();
+        readerRoot.clear();
       }
+      // a batch not taken by a freed chunk
+      valueVectors.forEach(ValueVector::close);
     } catch (ClosedByInterruptException cbie) {
       // happens when the statement is closed before finish parsing
       logger.debug("Interrupted when loading Arrow result", cbie);
       valueVectors.forEach(ValueVector::close);
-      freeData();
+      if (!failLoadingBatches(cbie)) {
+        freeData();
+      }
     } catch (Exception ex) {
       valueVectors.forEach(ValueVector::close);
-      freeData();
+      if (!failLoadingBatches(ex)) {
+        freeData();
+      }
       throw ex;
+    } finally {
+      if (pipelined) {
+        finishLoadingBatches();
+      }
     }
   }
 
   @Override
   public void reset() {
-    freeData();
-    this.batchOfVectors.clear();
+    getLock().lock();
+    try {
+      freeData();
+      this.batchOfVectors.clear();
+      // the chunk is downloaded again
+      freed = false;
+    } finally {
+      getLock().unlock();
+    }
   }
 
   @Override
@@ -156,14 +354,20 @@ public class ArrowResultChunk extends SnowflakeResultChunk {
 
   @Override
   public void freeData() {
-    batchOfVectors.forEach(list -> list.forEach(ValueVector::close));
-    this.batchOfVectors.clear();
-    if (firstResultChunkSortedIndices != null) {
-      firstResultChunkSortedIndices.close();
-    }
-    if (root != null) {
-      root.clear();
-      root = null;
+    getLock().lock();
+    try {
+      freed = true;
+      batchOfVectors.forEach(list -> list.forEach(ValueVector::close));
+      this.batchOfVectors.clear();
+      if (firstResultChunkSortedIndices != null) {
+        firstResultChunkSortedIndices.close();
+      }
+      if (root != null) {
+        root.clear();
+        root = null;
+      }
+    } finally {
+      getLock().unlock();
     }
   }
 
@@ -413,6 +617,9 @@ public class ArrowResultChunk extends SnowflakeResultChunk {
     /** number of rows inside current record batch */
     private int rowCountInCurrentRecordBatch;
 
+    /** number of rows inside the record batches before the current one */
+    private int rowCountBeforeCurrentRecordBatch;
+
     /**
      * list of converters that attached to current record batch Note: this list is updated every
      * time iterator points to a new record batch
@@ -448,7 +655,8 @@ public class ArrowResultChunk extends SnowflakeResultChunk {
         return true;
       } else {
         currentRecordBatchIndex++;
-        if (currentRecordBatchIndex < totalRecordBatch) {
+        if (hasRecordBatch(currentRecordBatchIndex)) {
+          this.rowCountBeforeCurrentRecordBatch += rowCountInCurrentRecordBatch;
           this.currentRowInRecordBatch = 0;
           if (currentRecordBatchIndex == 0 && resultChunk.sortFirstResultChunkEnabled()) {
             // perform client-side sorting for the first chunk (only used in Snowflake internal
@@ -465,11 +673,9 @@ public class ArrowResultChunk extends SnowflakeResultChunk {
                     resultChunk.batchOfVectors.get(currentRecordBatchIndex), dataConversionContext);
             resultChunk.sortFirstResultChunk(currentConverters);
           } else {
-            this.rowCountInCurrentRecordBatch =
-                resultChunk.batchOfVectors.get(currentRecordBatchIndex).get(0).getValueCount();
-            currentConverters =
-                initConverters(
-                    resultChunk.batchOfVectors.get(currentRecordBatchIndex), dataConversionContext);
+            List<ValueVector> recordBatch = resultChunk.getRecordBatch(currentRecordBatchIndex);
+            this.rowCountInCurrentRecordBatch = recordBatch.get(0).getValueCount();
+            currentConverters = initConverters(recordBatch, dataConversionContext);
           }
           return true;
         }
@@ -477,7 +683,26 @@ public class ArrowResultChunk extends SnowflakeResultChunk {
       return false;
     }
 
+    /**
+     * Check whether a record batch exists, waiting for it if the chunk is still being loaded
+     *
+     * @param index index of the record batch
+     * @return true if the record batch exists
+     */
+    private boolean hasRecordBatch(int index) throws SnowflakeSQLException {
+      if (index < totalRecordBatch) {
+        return true;
+      }
+      totalRecordBatch = resultChunk.awaitRecordBatchCount(index + 1);
+      return index < totalRecordBatch;
+    }
+
     public boolean isLast() {
+      if (resultChunk.pipelined) {
+        // the number of record batches is not known until the chunk is fully loaded
+        return rowCountBeforeCurrentRecordBatch + currentRowInRecordBatch + 1
+            == resultChunk.getRowCount();
+      }
       return currentRecordBatchIndex + 1 == totalRecordBatch
           && currentRowInRecordBatch + 1 == rowCountInCurrentRecordBatch;
     }
@@ -499,6 +724,57 @@ public class ArrowResultChunk extends SnowflakeResultChunk {
       return currentConverters.get(columnIdx);
     }
 
+    /**
+     * Get the rows of the current record batch from the current row to the end of the batch, and
+     * move the iterator to the last row of the batch. Not supported when the first chunk is sorted
+     * on the client side.
+     *
+     * @return record batch view over the remaining rows of the current record batch
+     */
+    public SnowflakeRecordBatch nextRecordBatchRows() throws SnowflakeSQLException {
+      List<ValueVector> recordBatch = resultChunk.getRecordBatch(currentRecordBatchIndex);
+      int fromRow = currentRowInRecordBatch;
+      currentRowInRecordBatch = rowCountInCurrentRecordBatch - 1;
+      return new ArrowRecordBatch(
+          recordBatch, currentConverters, fromRow, rowCountInCurrentRecordBatch - fromRow);
+    }
+
+    /**
+     * @return Arrow schema of the current record batch
+     */
+    public Schema getCurrentRecordBatchSchema() {
+      List<Field> fields = new ArrayList<>();
+      for (ValueVector vector : resultChunk.getRecordBatch(currentRecordBatchIndex)) {
+        fields.add(vector.getField());
+      }
+      return new Schema(fields);
+    }
+
+    /**
+     * Transfer the rows of the current record batch from the current row to the end of the batch
+     * into the target vectors, and move the iterator to the last row of the batch. The whole batch
+     * is transferred without copying; a partial batch is split off. Row access to the transferred
+     * rows is no longer possible afterwards.
+     *
+     * @param targets target vectors, one per column, of the same types as the record batch
+     * @return number of rows transferred
+     */
+    public int transferRecordBatchRows(List<FieldVector> targets) {
+      List<ValueVector> recordBatch = resultChunk.getRecordBatch(currentRecordBatchIndex);
+      int fromRow = currentRowInRecordBatch;
+      int rowCount = rowCountInCurrentRecordBatch - fromRow;
+      for (int i = 0; i < recordBatch.size(); i++) {
+        TransferPair transferPair = recordBatch.get(i).makeTransferPair(targets.get(i));
+        if (fromRow == 0) {
+          transferPair.transfer();
+        } else {
+          transferPair.splitAndTransfer(fromRow, rowCount);
+        }
+      }
+      currentRowInRecordBatch = rowCountInCurrentRecordBatch - 1;
+      return rowCount;
+    }
+
     /**
      * @return index of row in current record batch
      */
@@ -0,0 +1,303 @@
+/*
+ * Copyright (c) 2012-2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import net.snowflake.client.core.SnowflakeJdbcInternalApi;
+import net.snowflake.client.log.SFLogger;
+import net.snowflake.client.log.SFLoggerFactory;
+
+/**
+ * Process-wide broker of the memory used by result chunks.
+ *
+ * <p>All chunk downloaders in the JVM reserve chunk memory through a single broker instance, so the
+ * memory limit is enforced against the total usage of all running queries. The effective limit is
+ * the largest memory limit of the registered downloaders, and each downloader is additionally bound
+ * by its own limit.
+ *
+ * <p>Reservations are fair-shared: a downloader may prefetch beyond its share (limit / number of
+ * registered downloaders) only when nobody else is waiting for memory. Consumers that are blocked
+ * waiting for the chunk they need next reserve with priority: while such a reservation is pending,
+ * no prefetch reservation is granted. Waiting reservations are woken up when memory is released
+ * instead of polling with sleeps.
+ *
+ * <p>Downloaders are held weakly: a downloader whose result set was abandoned without being closed
+ * is unregistered, and its memory released, once it was garbage collected.
+ */
+@SnowflakeJdbcInternalApi
+public class ChunkMemoryBroker {
+  private static final SFLogger logger = SFLoggerFactory.getLogger(ChunkMemoryBroker.class);
+
+  private static final ChunkMemoryBroker INSTANCE = new ChunkMemoryBroker();
+
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private final Condition memoryReleased = lock.newCondition();
+
+  // memory limit and usage of each registered downloader, the downloaders don't override equals
+  private final Map<Object, Reservation> reservations = new WeakHashMap<>();
+
+  // reservations of the downloaders that were garbage collected without being unregistered
+  private final ReferenceQueue<Object> collectedOwners = new ReferenceQueue<>();
+
+  // total reserved memory across JVM
+  private long usedMemory = 0;
+
+  // number of reservations blocked waiting for memory
+  private int waitingReservations = 0;
+
+  // number of priority reservations blocked waiting for memory
+  private int waitingPriorityReservations = 0;
+
+  private final AtomicLong grantedBytes = new AtomicLong();
+
+  private final AtomicLong deniedBytes = new AtomicLong();
+
+  private final AtomicLong waitedBytes = new AtomicLong();
+
+  /** @return the broker shared by all downloaders in the JVM */
+  public static ChunkMemoryBroker getInstance() {
+    return INSTANCE;
+  }
+
+  ChunkMemoryBroker() {}
+
+  private static class Reservation extends WeakReference<Object> {
+    private long memoryLimit;
+    private long usedMemory;
+    private boolean unregistered = false;
+
+    private Reservation(Object owner, long memoryLimit, ReferenceQueue<Object> queue) {
+      super(owner, queue);
+      this.memoryLimit = memoryLimit;
+    }
+  }
+
+  /**
+   * Register a downloader, or update the limit of an already registered one
+   *
+   * @param owner the downloader
+   * @param memoryLimit memory limit of the downloader in bytes
+   */
+  void register(Object owner, long memoryLimit) {
+    lock.lock();
+    try {
+      releaseCollectedReservations();
+      Reservation reservation = reservations.get(owner);
+      if (reservation == null) {
+        reservations.put(owner, new Reservation(owner, memoryLimit, collectedOwners));
+      } else {
+        reservation.memoryLimit = memoryLimit;
+      }
+      // a raised limit may allow waiting reservations to proceed
+      memoryReleased.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Unregister a downloader and release all memory it still holds
+   *
+   * @param owner the downloader
+   */
+  void unregister(Object owner) {
+    lock.lock();
+    try {
+      Reservation reservation = reservations.remove(owner);
+      if (reservation != null) {
+        reservation.unregistered = true;
+        usedMemory -= reservation.usedMemory;
+        memoryReleased.signalAll();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Reserve memory without waiting
+   *
+   * @param owner the downloader
+   * @param bytes number of bytes to reserve
+   * @return true if the memory was reserved
+   */
+  boolean tryReserve(Object owner, long bytes) {
+    lock.lock();
+    try {
+      releaseCollectedReservations();
+      if (canGrant(owner, bytes, false)) {
+        grant(owner, bytes);
+        return true;
+      }
+      deniedBytes.addAndGet(bytes);
+      return false;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Reserve memory, waiting until it is released by other downloaders
+   *
+   * @param owner the downloader
+   * @param bytes number of bytes to reserve
+   * @param priority true if the caller is a consumer blocked on this memory
+   * @param timeoutMillis maximum time to wait
+   * @return true if the memory was reserved, false on timeout
+   * @throws InterruptedException if the waiting thread was interrupted
+   */
+  boolean reserve(Object owner, long bytes, boolean priority, long timeoutMillis)
+      throws InterruptedException {
+    lock.lock();
+    try {
+      releaseCollectedReservations();
+      if (canGrant(owner, bytes, priority)) {
+        grant(owner, bytes);
+        return true;
+      }
+      long remainingNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+      waitingReservations++;
+      if (priority) {
+        waitingPriorityReservations++;
+      }
+      try {
+        logger.debug(
+            "Waiting for {} bytes of chunk memory, used: {}, priority: {}",
+            bytes,
+            usedMemory,
+            priority);
+        while (!canGrant(owner, bytes, priority)) {
+          if (remainingNanos <= 0) {
+            deniedBytes.addAndGet(bytes);
+            return false;
+          }
+          remainingNanos = memoryReleased.awaitNanos(remainingNanos);
+          releaseCollectedReservations();
+        }
+      } finally {
+        waitingReservations--;
+        if (priority) {
+          waitingPriorityReservations--;
+        }
+      }
+      grant(owner, bytes);
+      waitedBytes.addAndGet(bytes);
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Release memory reserved by a downloader
+   *
+   * @param owner the downloader
+   * @param bytes number of bytes to release
+   */
+  void release(Object owner, long bytes) {
+    lock.lock();
+    try {
+      Reservation reservation = reservations.get(owner);
+      if (reservation == null) {
+        return;
+      }
+      long released = Math.min(bytes, reservation.usedMemory);
+      reservation.usedMemory -= released;
+      usedMemory -= released;
+      memoryReleased.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Release the memory of the downloaders garbage collected without being unregistered */
+  private void releaseCollectedReservations() {
+    Reservation reservation;
+    while ((reservation = (Reservation) collectedOwners.poll()) != null) {
+      if (!reservation.unregistered) {
+        logger.debug(
+            "Releasing {} bytes of chunk memory of a downloader that was not closed",
+            reservation.usedMemory);
+        reservation.unregistered = true;
+        usedMemory -= reservation.usedMemory;
+        memoryReleased.signalAll();
+      }
+    }
+  }
+
+  private boolean canGrant(Object owner, long bytes, boolean priority) {
+    Reservation reservation = reservations.get(owner);
+    if (reservation == null) {
+      return false;
+    }
+    if (reservation.usedMemory == 0 && usedMemory == 0) {
+      // always allow a single chunk, even if it is larger than the limit
+      return true;
+    }
+    if (reservation.usedMemory + bytes > reservation.memoryLimit
+        || usedMemory + bytes > getMemoryLimit()) {
+      return false;
+    }
+    if (priority) {
+      return true;
+    }
+    if (waitingPriorityReservations > 0) {
+      // consumers blocked on a chunk go first
+      return false;
+    }
+    return waitingReservations == 0 || reservation.usedMemory + bytes <= getFairShare();
+  }
+
+  private void grant(Object owner, long bytes) {
+    reservations.get(owner).usedMemory += bytes;
+    usedMemory += bytes;
+    grantedBytes.addAndGet(bytes);
+  }
+
+  private long getMemoryLimit() {
+    long memoryLimit = 0;
+    for (Reservation reservation : reservations.values()) {
+      memoryLimit = Math.max(memoryLimit, reservation.memoryLimit);
+    }
+    return memoryLimit;
+  }
+
+  private long getFairShare() {
+    return reservations.isEmpty() ? 0 : getMemoryLimit() / reservations.size();
+  }
+
+  /** @return memory currently reserved by all downloaders in bytes */
+  public long getUsedMemory() {
+    lock.lock();
+    try {
+      releaseCollectedReservations();
+      return usedMemory;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** @return total number of bytes granted */
+  public long getGrantedBytes() {
+    return grantedBytes.get();
+  }
+
+  /** @return total number of bytes denied, either immediately or after a timeout */
+  public long getDeniedBytes() {
+    return deniedBytes.get();
+  }
+
+  /** @return total number of bytes granted after waiting for memory to be released */
+  public long getWaitedBytes() {
+    return waitedBytes.get();
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2012-2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc;
+
+/**
+ * Adaptive sizing of the result chunk prefetch window.
+ *
+ * <p>The controller keeps an exponentially weighted moving average of the time a downloader thread
+ * spends on one chunk (download + parse) and of the time the consumer spends on one chunk. By
+ * Little's law the number of chunks that have to be in flight to keep the consumer busy is roughly
+ * service time / drain interval, so the window is sized to that value plus one chunk of headroom,
+ * bounded by the configured prefetch slots. The window grows when the consumer has to wait for a
+ * chunk and shrinks when the memory limit rejects a prefetch.
+ */
+class ChunkPrefetchController {
+  /** weight of the newest sample in the moving averages */
+  private static final double SMOOTHING_FACTOR = 0.3;
+
+  /** lower bound of the prefetch window */
+  private static final int MIN_PREFETCH_SLOTS = 1;
+
+  private final int maxPrefetchSlots;
+
+  private final int maxThreads;
+
+  // moving average of millis spent by one thread to download and parse a chunk
+  private double avgChunkServiceMillis = -1;
+
+  // moving average of millis spent by the consumer on one chunk
+  private double avgChunkDrainMillis = -1;
+
+  // extra slots granted because the consumer was starving
+  private int stallBoost = 0;
+
+  // upper bound imposed after the memory limit rejected a prefetch
+  private int memoryCap;
+
+  // timestamp when the consumer received the last chunk, -1 if it didn't receive any yet
+  private long lastChunkConsumedAt = -1;
+
+  /**
+   * @param maxPrefetchSlots configured number of prefetch slots, used as upper bound
+   * @param maxThreads configured number of downloader threads, used as upper bound
+   */
+  ChunkPrefetchController(int maxPrefetchSlots, int maxThreads) {
+    this.maxPrefetchSlots = Math.max(MIN_PREFETCH_SLOTS, maxPrefetchSlots);
+    this.maxThreads = Math.max(1, maxThreads);
+    this.memoryCap = this.maxPrefetchSlots;
+  }
+
+  /**
+   * Record the time a downloader thread spent on a chunk
+   *
+   * @param downloadMillis millis spent downloading the chunk
+   * @param parseMillis millis spent parsing the chunk
+   */
+  synchronized void recordChunkProcessed(long downloadMillis, long parseMillis) {
+    avgChunkServiceMillis = smooth(avgChunkServiceMillis, downloadMillis + parseMillis);
+  }
+
+  /**
+   * Record that the consumer asks for the next chunk
+   *
+   * @param nowMillis current time in millis
+   */
+  synchronized void recordConsumerRequest(long nowMillis) {
+    if (lastChunkConsumedAt >= 0) {
+      avgChunkDrainMillis = smooth(avgChunkDrainMillis, nowMillis - lastChunkConsumedAt);
+    }
+  }
+
+  /**
+   * Record that the consumer received a chunk
+   *
+   * @param nowMillis current time in millis
+   * @param waited true if the chunk was not ready and the consumer had to wait for it
+   */
+  synchronized void recordChunkConsumed(long nowMillis, boolean waited) {
+    lastChunkConsumedAt = nowMillis;
+    if (waited) {
+      // the consumer starves: allow one more chunk in flight and relax the memory cap
+      stallBoost = Math.min(stallBoost + 1, maxPrefetchSlots);
+      memoryCap = Math.min(memoryCap + 1, maxPrefetchSlots);
+    } else if (stallBoost > 0) {
+      stallBoost--;
+    }
+  }
+
+  /**
+   * Record that the memory limit did not allow to prefetch more chunks
+   *
+   * @param inFlightChunks number of chunks downloaded but not yet consumed
+   */
+  synchronized void recordMemoryPressure(int inFlightChunks) {
+    memoryCap = Math.max(MIN_PREFETCH_SLOTS, Math.min(memoryCap, inFlightChunks));
+    stallBoost = 0;
+  }
+
+  /** @return number of chunks that may be downloaded ahead of the consumer */
+  synchronized int getPrefetchSlots() {
+    int slots;
+    if (avgChunkServiceMillis < 0 || avgChunkDrainMillis < 0) {
+      // not enough samples yet, start with the configured window
+      slots = maxPrefetchSlots;
+    } else {
+      double drainMillis = Math.max(avgChunkDrainMillis, 1);
+      slots = (int) Math.ceil(avgChunkServiceMillis / drainMillis) + 1 + stallBoost;
+    }
+    return clamp(slots, MIN_PREFETCH_SLOTS, Math.min(memoryCap, maxPrefetchSlots));
+  }
+
+  /** @return number of downloader threads needed to fill the current prefetch window */
+  synchronized int getThreadCount() {
+    return clamp(getPrefetchSlots(), 1, maxThreads);
+  }
+
+  private static double smooth(double average, long sample) {
+    return average < 0 ? sample : SMOOTHING_FACTOR * sample + (1 - SMOOTHING_FACTOR) * average;
+  }
+
+  private static int clamp(int value, int min, int max) {
+    return Math.max(min, Math.min(value, max));
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2012-2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * InputStream that GZIP compresses another stream while it is read, so the compressed data never
+ * has to be stored. Compressing the same data twice gives the same bytes, which lets a file be
+ * compressed once to compute its size and digest and again while it is uploaded.
+ */
+class GzipCompressingInputStream extends InputStream {
+  private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+
+  private static final int TRAILER_SIZE = 8;
+
+  private final InputStream in;
+
+  private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+
+  private final CRC32 crc = new CRC32();
+
+  private final byte[] inputBuffer = new byte[64 * 1024];
+
+  // GZIP header or trailer not read yet
+  private byte[] pending = HEADER;
+
+  private int pendingOffset = 0;
+
+  private long inputSize = 0;
+
+  private boolean inputFinished = false;
+
+  private boolean trailerCreated = false;
+
+  GzipCompressingInputStream(InputStream in) {
+    this.in = in;
+  }
+
+  @Override
+  public int read() throws IOException {
+    byte[] b = new byte[1];
+    int n = read(b, 0, 1);
+    return n == -1 ? -1 : b[0] & 0xff;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    while (true) {
+      if (pending != null) {
+        if (pendingOffset < pending.length) {
+          int n = Math.min(len, pending.length - pendingOffset);
+          System.arraycopy(pending, pendingOffset, b, off, n);
+          pendingOffset += n;
+          return n;
+        }
+        if (trailerCreated) {
+          return -1;
+        }
+        pending = null;
+      }
+      if (deflater.finished()) {
+        pending = createTrailer();
+        pendingOffset = 0;
+        trailerCreated = true;
+        continue;
+      }
+      if (deflater.needsInput() && !inputFinished) {
+        int n = in.read(inputBuffer);
+        if (n == -1) {
+          inputFinished = true;
+          deflater.finish();
+        } else if (n > 0) {
+          crc.update(inputBuffer, 0, n);
+          inputSize += n;
+          deflater.setInput(inputBuffer, 0, n);
+        }
+      }
+      int n = deflater.deflate(b, off, len);
+      if (n > 0) {
+        return n;
+      }
+    }
+  }
+
+  private byte[] createTrailer() {
+    byte[] trailer = new byte[TRAILER_SIZE];
+    writeIntLittleEndian(trailer, 0, (int) crc.getValue());
+    // ISIZE is the input size modulo 2^32
+    writeIntLittleEndian(trailer, 4, (int) inputSize);
+    return trailer;
+  }
+
+  private static void writeIntLittleEndian(byte[] b, int offset, int value) {
+    b[offset] = (byte) value;
+    b[offset + 1] = (byte) (value >> 8);
+    b[offset + 2] = (byte) (value >> 16);
+    b[offset + 3] = (byte) (value >> 24);
+  }
+
+  @Override
+  public void close() throws IOException {
+    deflater.end();
+    in.close();
+  }
+}
@@ -8,6 +8,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import java.lang.ref.SoftReference;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -19,12 +20,42 @@ import net.snowflake.common.core.SqlState;
 public class JsonResultChunk extends SnowflakeResultChunk {
   private static final SFLogger logger = SFLoggerFactory.getLogger(JsonResultChunk.class);
 
+  private static final double[] POWERS_OF_TEN = {
+    1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16,
+    1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+  };
+
   private ResultChunkData data;
 
   private int currentRow;
 
   private SFBaseSession session;
 
+  /** Storage of a column in addition to the UTF-8 cell data */
+  public enum TypedColumn {
+    /** cells are only stored as UTF-8 data */
+    NONE,
+    /** cells are also stored as long values: FIXED with scale 0, BOOLEAN and DATE columns */
+    LONG,
+    /** cells are also stored as double values: REAL columns */
+    DOUBLE
+  }
+
+  // typed storage requested for each column, null if typed storage is disabled
+  private TypedColumn[] requestedTypedColumns;
+
+  // typed storage of each column in this chunk, a column falls back to NONE if a cell doesn't parse
+  private TypedColumn[] typedColumns;
+
+  private long[][] longValues;
+
+  private double[][] doubleValues;
+
+  // index and offset of the cell being parsed
+  private int parsedIndex;
+
+  private int parsedOffset;
+
   public JsonResultChunk(
       String url, int rowCount, int colCount, int uncompressedSize, SFBaseSession session) {
     super(url, rowCount, colCount, uncompressedSize);
@@ -111,6 +142,10 @@ public class JsonResultChunk extends SnowflakeResultChunk {
   public void reset() {
     this.currentRow = 0;
     this.data.reset();
+    this.parsedIndex = 0;
+    if (requestedTypedColumns != null) {
+      enableTypedColumns(requestedTypedColumns);
+    }
   }
 
   /**
@@ -120,8 +155,16 @@ public class JsonResultChunk extends SnowflakeResultChunk {
    */
   @Override
   public final long computeNeededChunkMemory() {
+    long typedMemory = 0;
+    if (requestedTypedColumns != null) {
+      for (TypedColumn column : requestedTypedColumns) {
+        if (column != TypedColumn.NONE) {
+          typedMemory += rowCount * 8L;
+        }
+      }
+    }
     if (data != null) {
-      return data.computeNeededChunkMemory();
+      return data.computeNeededChunkMemory() + typedMemory;
     }
     return 0;
   }
@@ -131,6 +174,10 @@ public class JsonResultChunk extends SnowflakeResultChunk {
     if (data != null) {
       data.freeData();
     }
+    if (typedColumns != null) {
+      Arrays.fill(longValues, null);
+      Arrays.fill(doubleValues, null);
+    }
   }
 
   public int computeCharactersNeeded() {
@@ -142,6 +189,7 @@ public class JsonResultChunk extends SnowflakeResultChunk {
 
   public void addOffset(int offset) throws SnowflakeSQLException {
     data.addOffset(offset);
+    parsedOffset = offset;
   }
 
   public void setIsNull() throws SnowflakeSQLException {
@@ -150,10 +198,212 @@ public class JsonResultChunk extends SnowflakeResultChunk {
 
   public void setLastLength(int len) throws SnowflakeSQLException {
     data.setLastLength(len);
+    if (typedColumns != null) {
+      parseTypedValue(parsedIndex / colCount, parsedIndex % colCount, parsedOffset, len);
+    }
   }
 
   public void nextIndex() throws SnowflakeSQLException {
     data.nextIndex();
+    parsedIndex++;
+  }
+
+  /**
+   * Additionally store the cells of the given columns as primitive values while the chunk is
+   * parsed, so numeric getters don't need to create and parse a String. Must be called before the
+   * chunk is downloaded.
+   *
+   * @param columns typed storage of each column
+   */
+  void enableTypedColumns(TypedColumn[] columns) {
+    this.requestedTypedColumns = columns;
+    this.typedColumns = columns.clone();
+    this.longValues = new long[colCount][];
+    this.doubleValues = new double[colCount][];
+  }
+
+  /**
+   * @param colIdx zero based column
+   * @return true if the cells of the column are available through {@link #getLong(int, int)}
+   */
+  public final boolean isLongColumn(int colIdx) {
+    return typedColumns != null && typedColumns[colIdx] == TypedColumn.LONG;
+  }
+
+  /**
+   * @param colIdx zero based column
+   * @return true if the cells of the column are available through {@link #getDouble(int, int)}
+   */
+  public final boolean isDoubleColumn(int colIdx) {
+    return typedColumns != null && typedColumns[colIdx] == TypedColumn.DOUBLE;
+  }
+
+  /**
+   * @param rowIdx zero based row
+   * @param colIdx zero based column
+   * @return true if the cell is null
+   */
+  public final boolean isNull(int rowIdx, int colIdx) {
+    return data.isNull(colCount * rowIdx + colIdx);
+  }
+
+  /**
+   * @param rowIdx zero based row
+   * @param colIdx zero based column of a long column
+   * @return the cell value, 0 if it is null
+   */
+  public final long getLong(int rowIdx, int colIdx) {
+    return longValues[colIdx][rowIdx];
+  }
+
+  /**
+   * @param rowIdx zero based row
+   * @param colIdx zero based column of a double column
+   * @return the cell value, 0 if it is null
+   */
+  public final double getDouble(int rowIdx, int colIdx) {
+    return doubleValues[colIdx][rowIdx];
+  }
+
+  private void parseTypedValue(int rowIdx, int colIdx, int offset, int length)
+      throws SnowflakeSQLException {
+    switch (typedColumns[colIdx]) {
+      case LONG:
+        if (longValues[colIdx] == null) {
+          longValues[colIdx] = new long[rowCount];
+        }
+        if (!parseLong(offset, length, longValues[colIdx], rowIdx)) {
+          // e.g. a number that doesn't fit into a long
+          typedColumns[colIdx] = TypedColumn.NONE;
+          longValues[colIdx] = null;
+        }
+        break;
+      case DOUBLE:
+        if (doubleValues[colIdx] == null) {
+          doubleValues[colIdx] = new double[rowCount];
+        }
+        if (!parseDouble(offset, length, doubleValues[colIdx], rowIdx)) {
+          typedColumns[colIdx] = TypedColumn.NONE;
+          doubleValues[colIdx] = null;
+        }
+        break;
+      default:
+        break;
+    }
+  }
+
+  /** Parse an integer of at most 18 digits, which can't overflow a long */
+  private boolean parseLong(int offset, int length, long[] values, int rowIdx)
+      throws SnowflakeSQLException {
+    int pos = 0;
+    boolean negative = false;
+    if (length > 0 && data.getByte(offset) == '-') {
+      negative = true;
+      pos++;
+    }
+    if (length == pos || length - pos > 18) {
+      return false;
+    }
+    long value = 0;
+    for (; pos < length; pos++) {
+      int digit = data.getByte(offset + pos) - '0';
+      if (digit < 0 || digit > 9) {
+        return false;
+      }
+      value = value * 10 + digit;
+    }
+    values[rowIdx] = negative ? -value : value;
+    return true;
+  }
+
+  /**
+   * Parse a decimal number. Numbers with at most 15 significant digits and a small exponent are
+   * converted exactly without a String, see Clinger's fast path; other numbers fall back to
+   * Double.parseDouble.
+   */
+  private boolean parseDouble(int offset, int length, double[] values, int rowIdx)
+      throws SnowflakeSQLException {
+    int pos = 0;
+    boolean negative = false;
+    if (length > 0 && data.getByte(offset) == '-') {
+      negative = true;
+      pos++;
+    }
+    long mantissa = 0;
+    int digits = 0;
+    int exponent = 0;
+    boolean seenDigit = false;
+    boolean seenPoint = false;
+    boolean fastPath = true;
+    for (; pos < length; pos++) {
+      byte b = data.getByte(offset + pos);
+      if (b >= '0' && b <= '9') {
+        seenDigit = true;
+        if (mantissa != 0 || b != '0') {
+          digits++;
+        }
+        if (digits > 15) {
+          fastPath = false;
+          break;
+        }
+        mantissa = mantissa * 10 + (b - '0');
+        if (seenPoint) {
+          exponent--;
+        }
+      } else if (b == '.' && !seenPoint) {
+        seenPoint = true;
+      } else {
+        break;
+      }
+    }
+    if (fastPath && pos < length) {
+      byte b = data.getByte(offset + pos);
+      if (seenDigit && (b == 'e' || b == 'E') && pos + 1 < length) {
+        pos++;
+        boolean negativeExponent = false;
+        if (data.getByte(offset + pos) == '-' || data.getByte(offset + pos) == '+') {
+          negativeExponent = data.getByte(offset + pos) == '-';
+          pos++;
+        }
+        int explicitExponent = 0;
+        for (; pos < length && explicitExponent < 1000; pos++) {
+          int digit = data.getByte(offset + pos) - '0';
+          if (digit < 0 || digit > 9) {
+            break;
+          }
+          explicitExponent = explicitExponent * 10 + digit;
+        }
+        exponent += negativeExponent ? -explicitExponent : explicitExponent;
+      }
+      if (pos < length) {
+        fastPath = false;
+      }
+    }
+    if (fastPath && seenDigit && exponent >= -22 && exponent <= 22) {
+      // both the mantissa and the power of ten are exact doubles, so is the result
+      double value =
+          exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+      values[rowIdx] = negative ? -value : value;
+      return true;
+    }
+
+    byte[] bytes = new byte[length];
+    for (int i = 0; i < length; i++) {
+      bytes[i] = data.getByte(offset + i);
+    }
+    String value = new String(bytes, StandardCharsets.UTF_8);
+    if ("inf".equals(value)) {
+      values[rowIdx] = Double.POSITIVE_INFINITY;
+    } else if ("-inf".equals(value)) {
+      values[rowIdx] = Double.NEGATIVE_INFINITY;
+    } else {
+      try {
+        values[rowIdx] = Double.parseDouble(value);
+      } catch (NumberFormatException ex) {
+        return false;
+      }
+    }
+    return true;
   }
 
   public byte get(int offset) throws SnowflakeSQLException {
@@ -188,6 +438,14 @@ public class JsonResultChunk extends SnowflakeResultChunk {
      */
     String get(int index);
 
+    /**
+     * Check whether an element is null
+     *
+     * @param index determines the element
+     * @return true if the element is null
+     */
+    boolean isNull(int index);
+
     /**
      * Compute the necessary memory to store this chunk
      *
@@ -362,10 +620,14 @@ public class JsonResultChunk extends SnowflakeResultChunk {
       }
     }
 
+    @Override
+    public boolean isNull(int index) {
+      return isNulls.get(getMetaBlock(index)).get(getMetaBlockIndex(index));
+    }
+
     @Override
     public String get(int index) {
-      final boolean isNull = isNulls.get(getMetaBlock(index)).get(getMetaBlockIndex(index));
-      if (isNull) {
+      if (isNull(index)) {
         return null;
       } else {
         final int offset = offsets.get(getMetaBlock(index))[getMetaBlockIndex(index)];
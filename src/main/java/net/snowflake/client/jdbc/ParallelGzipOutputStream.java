@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2012-2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * OutputStream that GZIP compresses fixed size blocks of the data in parallel on an executor and
+ * writes them in order as a multi-member GZIP stream, which is decompressed like a single member
+ * stream. The output only depends on the data written, not on how it is written.
+ */
+class ParallelGzipOutputStream extends FilterOutputStream {
+  static final int BLOCK_SIZE = 1024 * 1024;
+
+  private final ExecutorService executor;
+
+  private final int maxPendingBlocks;
+
+  // blocks being compressed, in output order
+  private final Deque<Future<byte[]>> pendingBlocks = new ArrayDeque<>();
+
+  private byte[] block = new byte[BLOCK_SIZE];
+
+  private int blockLength = 0;
+
+  private boolean blockSubmitted = false;
+
+  private boolean finished = false;
+
+  /**
+   * @param out stream receiving the compressed data
+   * @param executor executor compressing the blocks, not shut down by this stream
+   * @param maxPendingBlocks maximum number of blocks compressed or waiting to be written
+   */
+  ParallelGzipOutputStream(OutputStream out, ExecutorService executor, int maxPendingBlocks) {
+    super(out);
+    this.executor = executor;
+    this.maxPendingBlocks = Math.max(1, maxPendingBlocks);
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    write(new byte[] {(byte) b}, 0, 1);
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    if (finished) {
+      throw new IOException("write beyond end of stream");
+    }
+    while (len > 0) {
+      int n = Math.min(len, BLOCK_SIZE - blockLength);
+      System.arraycopy(b, off, block, blockLength, n);
+      blockLength += n;
+      off += n;
+      len -= n;
+      if (blockLength == BLOCK_SIZE) {
+        submitBlock();
+      }
+    }
+  }
+
+  /**
+   * Compress and write the remaining data without closing the underlying stream.
+   *
+   * @throws IOException if the data could not be compressed or written
+   */
+  public void finish() throws IOException {
+    if (finished) {
+      return;
+    }
+    // an empty input still needs one GZIP member
+    if (blockLength > 0 || !blockSubmitted) {
+      submitBlock();
+    }
+    while (!pendingBlocks.isEmpty()) {
+      writeBlock(pendingBlocks.poll());
+    }
+    finished = true;
+  }
+
+  @Override
+  public void flush() throws IOException {
+    // a partial block is not compressed early, so flushing does not change the output
+    out.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      finish();
+      out.flush();
+    } finally {
+      for (Future<byte[]> pendingBlock : pendingBlocks) {
+        pendingBlock.cancel(true);
+      }
+      out.close();
+    }
+  }
+
+  private void submitBlock() throws IOException {
+    final byte[] data = block;
+    final int length = blockLength;
+    pendingBlocks.add(executor.submit(() -> compressBlock(data, length)));
+    blockSubmitted = true;
+    block = new byte[BLOCK_SIZE];
+    blockLength = 0;
+
+    while (pendingBlocks.size() >= maxPendingBlocks) {
+      writeBlock(pendingBlocks.poll());
+    }
+  }
+
+  private void writeBlock(Future<byte[]> pendingBlock) throws IOException {
+    try {
+      out.write(pendingBlock.get());
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while compressing data");
+    } catch (ExecutionException ex) {
+      throw new IOException("Failed to compress data block", ex.getCause());
+    }
+  }
+
+  static byte[] compressBlock(byte[] data, int length) throws IOException {
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream(length / 2 + 64);
+    try (GZIPOutputStream gzipStream = new GZIPOutputStream(compressed)) {
+      gzipStream.write(data, 0, length);
+    }
+    return compressed.toByteArray();
+  }
+}
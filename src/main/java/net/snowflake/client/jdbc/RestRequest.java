@@ -28,10 +28,13 @@ import net.snowflake.client.util.DecorrelatedJitterBackoff;
 import net.snowflake.client.util.SecretDetector;
 import net.snowflake.client.util.Stopwatch;
 import net.snowflake.common.core.SqlState;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.client.utils.URIBuilder;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.util.EntityUtils;
 
 /**
  * This is an abstraction on top of http client.
@@ -57,6 +60,9 @@ public class RestRequest {
   // retry at least once even if timeout limit has been reached
   private static final int MIN_RETRY_COUNT = 1;
 
+  // largest response body read before a retry to keep the connection in the pool
+  static final long MAX_REUSED_RESPONSE_SIZE = 64 * 1024;
+
   public static CloseableHttpResponse execute(
       CloseableHttpClient httpClient,
       HttpRequestBase httpRequest,
@@ -555,6 +561,9 @@ public class RestRequest {
                   SqlState.IO_ERROR,
                   ErrorCode.NETWORK_ERROR.getMessageCode());
         }
+        if (savedEx == null) {
+          consumeResponseForReuse(response);
+        }
         savedEx = null;
 
         // release connection before retry
@@ -630,6 +639,25 @@ public class RestRequest {
     return response;
   }
 
+  /**
+   * Reads a small response body of a request that is retried to the end, so that the connection
+   * goes back to the pool and the retry does not need a new connection and TLS handshake. Bodies
+   * that are large or of unknown size are not read, and the connection is closed when the request
+   * is released.
+   *
+   * @param response response of the request
+   */
+  static void consumeResponseForReuse(HttpResponse response) {
+    HttpEntity entity = response == null ? null : response.getEntity();
+    if (entity == null) {
+      return;
+    }
+    long contentLength = entity.getContentLength();
+    if (contentLength >= 0 && contentLength <= MAX_REUSED_RESPONSE_SIZE) {
+      EntityUtils.consumeQuietly(entity);
+    }
+  }
+
   static boolean isNonRetryableHTTPCode(CloseableHttpResponse response, boolean retryHTTP403) {
     return response != null
         && (response.getStatusLine().getStatusCode() < 500
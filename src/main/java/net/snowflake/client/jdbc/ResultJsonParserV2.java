@@ -2,6 +2,7 @@ package net.snowflake.client.jdbc;
 
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import net.snowflake.client.core.SFBaseSession;
 import net.snowflake.common.core.SqlState;
 
@@ -24,6 +25,12 @@ public class ResultJsonParserV2 {
   }
 
   private static final byte[] BNULL = {0x6e, 0x75, 0x6c, 0x6c};
+
+  // the searched bytes repeated in each byte of a word
+  private static final long QUOTES = 0x2222222222222222L;
+  private static final long BACKSLASHES = 0x5c5c5c5c5c5c5c5cL;
+  private static final long LOW_7_BITS = 0x7f7f7f7f7f7f7f7fL;
+
   private State state = State.UNINITIALIZED;
   private int currentColumn;
   private int outputCurValuePosition;
@@ -233,8 +240,18 @@ public class ResultJsonParserV2 {
                 continue; // reread this char in WAIT_FOR_NEXT
               }
             default:
-              addByteToOutput(in.get(((Buffer) in).position() - 1));
-              break;
+              {
+                // copy the value up to the next delimiter in one go
+                int inputPositionStart = ((Buffer) in).position() - 1;
+                int inputPositionEnd =
+                    indexOfValueEnd(in, ((Buffer) in).position(), ((Buffer) in).limit());
+                ((Buffer) in).position(inputPositionEnd);
+                addByteArrayToOutput(
+                    in.array(),
+                    in.arrayOffset() + inputPositionStart,
+                    inputPositionEnd - inputPositionStart);
+                break;
+              }
           }
           break;
         case IN_STRING:
@@ -250,15 +267,9 @@ public class ResultJsonParserV2 {
               // Check how many characters don't have escape characters
               // copy those with one memcpy
               int inputPositionStart = ((Buffer) in).position() - 1;
-              while (in.hasRemaining()) {
-                byte cur = in.get();
-
-                if (cur == 0x22 /* '"' */ || cur == 0x5c /* '\\' */) {
-                  // end of string chunk
-                  ((Buffer) in).position(((Buffer) in).position() - 1);
-                  break;
-                }
-              }
+              int inputPositionEnd =
+                  indexOfQuoteOrBackslash(in, ((Buffer) in).position(), ((Buffer) in).limit());
+              ((Buffer) in).position(inputPositionEnd);
 
               addByteArrayToOutput(
                   in.array(),
@@ -385,6 +396,68 @@ public class ResultJsonParserV2 {
     }
   }
 
+  /**
+   * Find the end of the escape-free part of a string. Eight bytes are checked at a time, see
+   * "Determine if a word has a byte equal to n" in Bit Twiddling Hacks.
+   *
+   * @param in the data
+   * @param from absolute position to start the search at
+   * @param limit absolute position to end the search at
+   * @return the absolute position of the first '"' or '\\' in [from, limit), or limit
+   */
+  static int indexOfQuoteOrBackslash(ByteBuffer in, int from, int limit) {
+    boolean bigEndian = in.order() == ByteOrder.BIG_ENDIAN;
+    int pos = from;
+    for (; pos + 8 <= limit; pos += 8) {
+      long word = in.getLong(pos);
+      long matches = zeroBytes(word ^ QUOTES) | zeroBytes(word ^ BACKSLASHES);
+      if (matches != 0) {
+        int bit =
+            bigEndian ? Long.numberOfLeadingZeros(matches) : Long.numberOfTrailingZeros(matches);
+        return pos + (bit >>> 3);
+      }
+    }
+    for (; pos < limit; pos++) {
+      byte cur = in.get(pos);
+      if (cur == 0x22 /* '"' */ || cur == 0x5c /* '\\' */) {
+        return pos;
+      }
+    }
+    return limit;
+  }
+
+  /**
+   * @param x eight bytes
+   * @return a word with exactly the high bits of the bytes of x that are zero set
+   */
+  private static long zeroBytes(long x) {
+    long t = (x & LOW_7_BITS) + LOW_7_BITS;
+    return ~(t | x | LOW_7_BITS);
+  }
+
+  /**
+   * @param in the data
+   * @param from absolute position to start the search at
+   * @param limit absolute position to end the search at
+   * @return the absolute position of the first byte that ends an unquoted value, or limit
+   */
+  private static int indexOfValueEnd(ByteBuffer in, int from, int limit) {
+    for (int pos = from; pos < limit; pos++) {
+      switch (in.get(pos)) {
+        case 0x20: // ' '
+        case 0x9: // '\t'
+        case 0xa: // '\n'
+        case 0xd: // '\r'
+        case 0x2c: // ','
+        case 0x5d: // ']'
+          return pos;
+        default:
+          break;
+      }
+    }
+    return limit;
+  }
+
   private boolean isNull() throws SnowflakeSQLException {
     int pos = outputPosition;
     if (resultChunk.get(--pos) == BNULL[3]
@@ -17,13 +17,16 @@ import java.sql.Time;
 import java.sql.Timestamp;
 import java.util.List;
 import java.util.TimeZone;
+import java.util.concurrent.ExecutionException;
 import net.snowflake.client.core.QueryStatus;
 import net.snowflake.client.core.SFBaseResultSet;
 import net.snowflake.client.core.SFBaseSession;
 import net.snowflake.client.core.SFSession;
+import net.snowflake.client.core.SessionUtil;
 import net.snowflake.client.log.SFLogger;
 import net.snowflake.client.log.SFLoggerFactory;
 import net.snowflake.common.core.SqlState;
+import org.apache.arrow.vector.ipc.ArrowReader;
 
 /** SFAsyncResultSet implementation. Note: For Snowflake internal use */
 public class SFAsyncResultSet extends SnowflakeBaseResultSet
@@ -143,7 +146,9 @@ public class SFAsyncResultSet extends SnowflakeBaseResultSet
   private void getRealResults() throws SQLException {
     if (!resultSetForNextInitialized) {
       // If query has already succeeded, go straight to result scan to get results
-      if (this.lastQueriedStatus != QueryStatus.SUCCESS) {
+      if (this.lastQueriedStatus != QueryStatus.SUCCESS && isAsyncQueryMonitorEnabled()) {
+        waitForSuccessWithMonitor();
+      } else if (this.lastQueriedStatus != QueryStatus.SUCCESS) {
         QueryStatus qs = this.getStatus();
         int noDataRetry = 0;
         final int noDataMaxRetries = 30;
@@ -194,6 +199,60 @@ public class SFAsyncResultSet extends SnowflakeBaseResultSet
     }
   }
 
+  private boolean isAsyncQueryMonitorEnabled() {
+    if (!(session instanceof SFSession)) {
+      return false;
+    }
+    Object value = session.getOtherParameter(SessionUtil.JDBC_ENABLE_ASYNC_QUERY_MONITOR);
+    return value != null && Boolean.parseBoolean(value.toString());
+  }
+
+  /**
+   * Waits for the query to succeed using the status monitor of the session, which polls the status
+   * of all the asynchronous queries of the session on one thread.
+   *
+   * @throws SQLException if the query did not succeed or its status could not be retrieved
+   */
+  private void waitForSuccessWithMonitor() throws SQLException {
+    QueryStatusV2 status;
+    try {
+      status = ((SFSession) session).awaitQueryCompletion(this.queryID).get();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new SQLException("Interrupted while waiting for query " + this.queryID, ex);
+    } catch (ExecutionException ex) {
+      if (ex.getCause() instanceof SQLException) {
+        throw (SQLException) ex.getCause();
+      }
+      throw new SQLException(ex.getCause());
+    }
+    setCompletedStatus(status);
+  }
+
+  /**
+   * Records the status of the query once it is not running anymore, so that the results are read
+   * without polling the status again.
+   *
+   * @param status the status of the completed query
+   * @throws SQLException if the query did not succeed
+   */
+  void setCompletedStatus(QueryStatusV2 status) throws SQLException {
+    this.lastQueriedStatusV2 = status;
+    if (!status.isSuccess()) {
+      String errorMessage = status.getErrorMessage();
+      if (Strings.isNullOrEmpty(errorMessage)) {
+        errorMessage = "No error message available";
+      }
+      throw new SQLException(
+          "Status of query associated with resultSet is "
+              + status.getDescription()
+              + ". "
+              + errorMessage
+              + " Results not generated.");
+    }
+    this.lastQueriedStatus = QueryStatus.SUCCESS;
+  }
+
   /**
    * Advance to next row
    *
@@ -297,6 +356,12 @@ public class SFAsyncResultSet extends SnowflakeBaseResultSet
     return resultSetForNext.unwrap(SnowflakeResultSetV1.class).getTimestamp(columnIndex, tz);
   }
 
+  @Override
+  protected <T> T getJavaTimeObject(int columnIndex, Class<T> type) throws SQLException {
+    raiseSQLExceptionIfResultSetIsClosed();
+    return resultSetForNext.unwrap(SnowflakeResultSetV1.class).getJavaTimeObject(columnIndex, type);
+  }
+
   public ResultSetMetaData getMetaData() throws SQLException {
     raiseSQLExceptionIfResultSetIsClosed();
     getRealResults();
@@ -402,4 +467,28 @@ public class SFAsyncResultSet extends SnowflakeBaseResultSet
         .unwrap(SnowflakeResultSet.class)
         .getResultSetSerializables(maxSizeInBytes);
   }
+
+  @Override
+  public SnowflakeRecordBatch nextBatch() throws SQLException {
+    raiseSQLExceptionIfResultSetIsClosed();
+    getRealResults();
+    return resultSetForNext.unwrap(SnowflakeResultSet.class).nextBatch();
+  }
+
+  @Override
+  public ArrowReader getArrowReader() throws SQLException {
+    raiseSQLExceptionIfResultSetIsClosed();
+    getRealResults();
+    return resultSetForNext.unwrap(SnowflakeResultSet.class).getArrowReader();
+  }
+
+  @Override
+  public void consumeInParallel(
+      int parallelism, boolean ordered, SnowflakeRecordBatchHandler handler) throws SQLException {
+    raiseSQLExceptionIfResultSetIsClosed();
+    getRealResults();
+    resultSetForNext
+        .unwrap(SnowflakeResultSet.class)
+        .consumeInParallel(parallelism, ordered, handler);
+  }
 }
@@ -32,6 +32,8 @@ import java.sql.SQLXML;
 import java.sql.Statement;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.HashMap;
@@ -42,6 +44,7 @@ import java.util.TimeZone;
 import net.snowflake.client.core.ColumnTypeHelper;
 import net.snowflake.client.core.JsonSqlInput;
 import net.snowflake.client.core.ObjectMapperFactory;
+import net.snowflake.client.core.ResultUtil;
 import net.snowflake.client.core.SFBaseResultSet;
 import net.snowflake.client.core.SFBaseSession;
 import net.snowflake.client.core.SFException;
@@ -1406,6 +1409,8 @@ public abstract class SnowflakeBaseResultSet implements ResultSet {
       return (T) getTimestamp(columnIndex);
     } else if (BigDecimal.class.isAssignableFrom(type)) {
       return (T) getBigDecimal(columnIndex);
+    } else if (ResultUtil.isJavaTimeType(type)) {
+      return getJavaTimeObject(columnIndex, type);
     } else {
       logger.debug(
           "Unsupported type passed to getObject(int columnIndex,Class<T> type): " + type.getName());
@@ -1415,6 +1420,29 @@ public abstract class SnowflakeBaseResultSet implements ResultSet {
     }
   }
 
+  /**
+   * Get the value of a column as a java.time type. This implementation converts the Date, Time or
+   * Timestamp of the column.
+   *
+   * @param columnIndex column index, starting at 1
+   * @param type LocalDateTime, OffsetDateTime, Instant, LocalDate or LocalTime
+   * @param <T> the java.time type
+   * @return the value, null if the value is null
+   * @throws SQLException if the value cannot be converted to the type
+   */
+  protected <T> T getJavaTimeObject(int columnIndex, Class<T> type) throws SQLException {
+    if (type == LocalDate.class) {
+      Date date = getDate(columnIndex);
+      return mapSFExceptionToSQLException(() -> ResultUtil.toJavaTime(date, type));
+    } else if (type == LocalTime.class) {
+      Time time = getTime(columnIndex);
+      return mapSFExceptionToSQLException(() -> ResultUtil.toJavaTime(time, type));
+    } else {
+      Timestamp ts = getTimestamp(columnIndex);
+      return mapSFExceptionToSQLException(() -> ResultUtil.toJavaTime(ts, type));
+    }
+  }
+
   public <T> List<T> getList(int columnIndex, Class<T> type) throws SQLException {
     logger.trace("<T> List<T> getList(int columnIndex, Class<T> type)", false);
     if (!resultSetMetaData.isStructuredTypeColumn(columnIndex)) {
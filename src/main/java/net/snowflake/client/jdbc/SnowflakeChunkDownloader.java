@@ -16,18 +16,20 @@ import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import net.snowflake.client.core.ChunkDownloader;
@@ -63,6 +65,8 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
   private static final SFLogger logger = SFLoggerFactory.getLogger(SnowflakeChunkDownloader.class);
   private static final int STREAM_BUFFER_SIZE = MB;
   private static final long SHUTDOWN_TIME = 3;
+  /** Time that the downloads wait for the connection warm up */
+  private static final long CONNECTION_WARMUP_TIMEOUT_MILLIS = 2000;
   private final SnowflakeConnectString snowflakeConnectionString;
   private final OCSPMode ocspMode;
   private final HttpClientSettingsKey ocspModeAndProxyKey;
@@ -77,6 +81,9 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
   // index of next chunk to be consumed (it may not be ready yet)
   private int nextChunkToConsume = 0;
 
+  // chunks claimed by parallel consumers, see claimNextChunk
+  private final BitSet claimedChunks = new BitSet();
+
   // index of next chunk to be downloaded
   private int nextChunkToDownload = 0;
 
@@ -86,6 +93,9 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
   // thread pool
   private final ThreadPoolExecutor executor;
 
+  // resizes the prefetch window and thread pool at runtime, null if adaptive prefetch is disabled
+  private final ChunkPrefetchController prefetchController;
+
   // number of millis main thread waiting for chunks from downloader
   private long numberMillisWaitingForChunks = 0;
 
@@ -112,8 +122,8 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
   private final int maxHttpRetries;
   private long memoryLimit;
 
-  // the current memory usage across JVM
-  private static final AtomicLong currentMemoryUsage = new AtomicLong();
+  // tracks the memory usage across JVM
+  private final ChunkMemoryBroker memoryBroker = ChunkMemoryBroker.getInstance();
 
   // used to track the downloading threads
   private Map<Integer, Future> downloaderFutures = new ConcurrentHashMap<>();
@@ -129,19 +139,15 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
   private final int firstChunkRowCount;
 
   static long getCurrentMemoryUsage() {
-    synchronized (currentMemoryUsage) {
-      return currentMemoryUsage.longValue();
-    }
+    return ChunkMemoryBroker.getInstance().getUsedMemory();
   }
 
-  // The parameters used to wait for available memory:
+  // The parameters used to compute how long to wait for available memory:
   // starting waiting time will be BASE_WAITING_MS * WAITING_SECS_MULTIPLIER = 100 ms
   private long BASE_WAITING_MS = 50;
   private long WAITING_SECS_MULTIPLIER = 2;
   // the maximum waiting time
   private long MAX_WAITING_MS = 30 * 1000;
-  // the default jitter ratio 10%
-  private long WAITING_JITTER_RATIO = 10;
 
   private final ResultStreamProvider resultStreamProvider;
 
@@ -151,8 +157,8 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
 
   private static final int MAX_RETRY_JITTER = 1000; // milliseconds
 
-  // Only controls the max retry number when prefetch runs out of memory
-  // Will wait a while then retry to see if we can allocate the required memory
+  // Only controls how long the consumer waits for memory when prefetch runs out of memory
+  // The wait timeout is the sum of the backoff times of this many retries
   // Default value is 1
   private int prefetchMaxRetry = 1;
 
@@ -259,6 +265,13 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
           "Incorrect chunk count: " + resultSetSerializable.getChunkFileCount());
     }
 
+    boolean pipelinedArrowLoading =
+        isSessionParameterEnabled(this.session, SessionUtil.JDBC_ENABLE_PIPELINED_ARROW_LOADING);
+    JsonResultChunk.TypedColumn[] typedJsonColumns =
+        isSessionParameterEnabled(this.session, SessionUtil.JDBC_ENABLE_TYPED_JSON_CHUNKS)
+            ? getTypedJsonColumns(resultSetSerializable.getResultColumnMetadata())
+            : null;
+
     // initialize chunks with url and row count
     for (SnowflakeResultSetSerializableV1.ChunkFileMetadata chunkFileMetadata :
         resultSetSerializable.getChunkFileMetadatas()) {
@@ -274,6 +287,9 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
                   chunkFileMetadata.getUncompressedByteSize(),
                   this.rootAllocator,
                   this.session);
+          if (pipelinedArrowLoading) {
+            ((ArrowResultChunk) chunk).enablePipelinedLoading();
+          }
           break;
 
         case JSON:
@@ -284,6 +300,9 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
                   resultSetSerializable.getColumnCount(),
                   chunkFileMetadata.getUncompressedByteSize(),
                   this.session);
+          if (typedJsonColumns != null) {
+            ((JsonResultChunk) chunk).enableTypedColumns(typedJsonColumns);
+          }
           break;
 
         default:
@@ -319,10 +338,26 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
     // create thread pool
     executor = createChunkDownloaderExecutorService("result-chunk-downloader-", effectiveThreads);
 
+    this.prefetchController =
+        isSessionParameterEnabled(this.session, SessionUtil.JDBC_ENABLE_ADAPTIVE_PREFETCH)
+            ? new ChunkPrefetchController(prefetchSlots, effectiveThreads)
+            : null;
+
+    memoryBroker.register(this, memoryLimit);
+
+    // open one connection to the chunk host first, so that the parallel downloads resume its TLS
+    // session instead of each doing a full handshake
+    if (effectiveThreads > 1
+        && ocspModeAndProxyKey != null
+        && isSessionParameterEnabled(this.session, SessionUtil.JDBC_ENABLE_CONNECTION_WARMUP)) {
+      warmUpConnection();
+    }
+
     try {
-      startNextDownloaders();
+      startNextDownloaders(false);
     } catch (OutOfMemoryError outOfMemoryError) {
       logOutOfMemoryError();
+      memoryBroker.unregister(this);
       StringWriter errors = new StringWriter();
       outOfMemoryError.printStackTrace(new PrintWriter(errors));
       throw new SnowflakeSQLLoggedException(
@@ -330,14 +365,128 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
     }
   }
 
-  /** Submit download chunk tasks to executor. Number depends on thread and memory limit */
-  private void startNextDownloaders() throws SnowflakeSQLException {
+  /**
+   * Check whether a boolean session parameter handled by the chunk downloader is enabled
+   *
+   * @param session session, may be null
+   * @param parameterName name of the parameter
+   * @return true if the parameter is set to true for the session
+   */
+  private static boolean isSessionParameterEnabled(SFBaseSession session, String parameterName) {
+    if (session == null) {
+      return false;
+    }
+    Object value = session.getOtherParameter(parameterName);
+    return value != null && Boolean.parseBoolean(value.toString());
+  }
+
+  /**
+   * Choose the JSON chunk columns that are additionally stored as primitive values
+   *
+   * @param columnMetadata metadata of the result columns
+   * @return typed storage of each column
+   */
+  private static JsonResultChunk.TypedColumn[] getTypedJsonColumns(
+      List<SnowflakeColumnMetadata> columnMetadata) {
+    JsonResultChunk.TypedColumn[] columns = new JsonResultChunk.TypedColumn[columnMetadata.size()];
+    for (int i = 0; i < columns.length; i++) {
+      SnowflakeColumnMetadata metadata = columnMetadata.get(i);
+      switch (metadata.getBase()) {
+        case FIXED:
+          columns[i] =
+              metadata.getScale() == 0
+                  ? JsonResultChunk.TypedColumn.LONG
+                  : JsonResultChunk.TypedColumn.NONE;
+          break;
+        case BOOLEAN:
+        case DATE:
+          columns[i] = JsonResultChunk.TypedColumn.LONG;
+          break;
+        case REAL:
+          columns[i] = JsonResultChunk.TypedColumn.DOUBLE;
+          break;
+        default:
+          columns[i] = JsonResultChunk.TypedColumn.NONE;
+          break;
+      }
+    }
+    return columns;
+  }
+
+  /** @return number of chunks that may be downloaded ahead of the consumer */
+  private int getCurrentPrefetchSlots() {
+    return prefetchController == null ? prefetchSlots : prefetchController.getPrefetchSlots();
+  }
+
+  /** Resize the downloader thread pool to the size suggested by the prefetch controller */
+  private void resizeExecutor() {
+    if (prefetchController == null) {
+      return;
+    }
+    int threads = prefetchController.getThreadCount();
+    int currentThreads = executor.getCorePoolSize();
+    if (threads == currentThreads) {
+      return;
+    }
+    logger.debug(
+        "Resize chunk downloader pool from {} to {} threads, prefetch slots: {}",
+        currentThreads,
+        threads,
+        prefetchController.getPrefetchSlots());
+    // the maximum pool size must never be smaller than the core pool size
+    if (threads > currentThreads) {
+      executor.setMaximumPoolSize(threads);
+      executor.setCorePoolSize(threads);
+    } else {
+      executor.setCorePoolSize(threads);
+      executor.setMaximumPoolSize(threads);
+    }
+  }
+
+  /**
+   * The time the consumer waits for chunk memory before downloading the chunk without a
+   * reservation. It equals the backoff schedule used by the previous sleep-and-retry approach.
+   *
+   * @return wait timeout in milliseconds
+   */
+  private long getMemoryWaitTimeoutMillis() {
     long waitingTime = BASE_WAITING_MS;
-    long getPrefetchMemRetry = 0;
+    long timeout = 0;
+    for (int retry = 0; retry <= prefetchMaxRetry; retry++) {
+      waitingTime = Math.min(waitingTime * WAITING_SECS_MULTIPLIER, MAX_WAITING_MS);
+      timeout += waitingTime;
+    }
+    return timeout;
+  }
+
+  /**
+   * Opens a connection to the chunk host on the download executor. The downloads don't wait for it
+   * longer than CONNECTION_WARMUP_TIMEOUT_MILLIS, and open their own connections if the host is
+   * slow to answer.
+   */
+  private void warmUpConnection() {
+    String url = chunks.get(0).getUrl();
+    Future<?> warmUp = executor.submit(() -> HttpUtil.warmUpConnection(ocspModeAndProxyKey, url));
+    try {
+      warmUp.get(CONNECTION_WARMUP_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException | TimeoutException ex) {
+      logger.debug("Connection warm up didn't finish, starting the downloads: {}", ex.getMessage());
+    }
+  }
+
+  /**
+   * Submit download chunk tasks to executor. Number depends on thread and memory limit
+   *
+   * @param consumerRequest true if called by the consumer asking for the next chunk
+   */
+  private void startNextDownloaders(boolean consumerRequest) throws SnowflakeSQLException {
+    resizeExecutor();
 
     // submit the chunks to be downloaded up to the prefetch slot capacity
     // and limited by memory
-    while (nextChunkToDownload - nextChunkToConsume < prefetchSlots
+    while (nextChunkToDownload - nextChunkToConsume < getCurrentPrefetchSlots()
         && nextChunkToDownload < chunks.size()) {
       // check if memory limit allows more prefetching
       final SnowflakeResultChunk nextChunk = chunks.get(nextChunkToDownload);
@@ -352,146 +501,109 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
             (ArgSupplier) () -> neededChunkMemory / 1024 / 1024);
 
         memoryLimit = neededChunkMemory;
+        memoryBroker.register(this, memoryLimit);
       }
 
-      // try to reserve the needed memory
-      long curMem = currentMemoryUsage.addAndGet(neededChunkMemory);
-      // If there is not enough memory available for prefetch, cancel the memory allocation. It's
-      // cancelled when:
-      // 1. We haven't consumed enough chunks to download next chunk (nextChunkToDownload >
-      // nextChunkToConsume)
-      // 2. There is not enough memory for prefetching to begin with (nextChunkToDownload=0 &&
-      // nextChunkToConsume=0)
-      // In all other cases, don't cancel but wait until memory frees up.
-      if (curMem > memoryLimit
-          && (nextChunkToDownload - nextChunkToConsume > 0
-              || (nextChunkToDownload == 0 && nextChunkToConsume == 0))) {
-        // cancel the reserved memory and this downloader too
-        logger.debug(
-            "Not enough memory available for prefetch. Cancel reserved memory. MemoryLimit: {},"
-                + " curMem: {}, nextChunkToDownload: {}, nextChunkToConsume: {}, retry: {}",
-            memoryLimit,
-            curMem,
-            nextChunkToDownload,
-            nextChunkToConsume,
-            getPrefetchMemRetry);
-        currentMemoryUsage.addAndGet(-neededChunkMemory);
-        nextChunk.getLock().lock();
+      // The consumer is about to consume this chunk, so it waits for memory released by other
+      // downloaders and is served before their prefetching. Chunks ahead of the consumer are
+      // only prefetched if the memory is available right away; otherwise they stay NOT_STARTED
+      // and are reserved again once the consumer reaches them.
+      final boolean consumerBlocked = consumerRequest && nextChunkToDownload == nextChunkToConsume;
+      boolean reserved;
+      if (consumerBlocked) {
         try {
-          nextChunk.setDownloadState(DownloadState.FAILURE);
-        } finally {
-          nextChunk.getLock().unlock();
+          reserved =
+              memoryBroker.reserve(this, neededChunkMemory, true, getMemoryWaitTimeoutMillis());
+        } catch (InterruptedException ie) {
+          throw new SnowflakeSQLException(
+              SqlState.INTERNAL_ERROR,
+              ErrorCode.INTERNAL_ERROR.getMessageCode(),
+              "Waiting SnowflakeChunkDownloader has been interrupted.");
         }
-        break;
+      } else {
+        reserved = memoryBroker.tryReserve(this, neededChunkMemory);
       }
 
-      // only allocate memory when the future usage is less than the limit
-      if (curMem <= memoryLimit) {
-        if (queryResultFormat == QueryResultFormat.JSON) {
-          ((JsonResultChunk) nextChunk).tryReuse(chunkDataCache);
-        }
-
+      if (!reserved) {
         logger.debug(
-            "Thread {}: currentMemoryUsage in MB: {}, nextChunkToDownload: {}, "
-                + "nextChunkToConsume: {}, newReservedMemory in B: {} ",
-            (ArgSupplier) () -> Thread.currentThread().getId(),
-            curMem / MB,
+            "Not enough memory available for prefetch. MemoryLimit: {}, curMem: {},"
+                + " nextChunkToDownload: {}, nextChunkToConsume: {}, consumerBlocked: {}",
+            memoryLimit,
+            memoryBroker.getUsedMemory(),
             nextChunkToDownload,
             nextChunkToConsume,
-            neededChunkMemory);
-
-        logger.debug(
-            "Submit chunk #{} for downloading, url: {}",
-            this.nextChunkToDownload,
-            nextChunk.getScrubbedUrl());
-
-        // SNOW-615824 Imagine this scenario to understand the root cause of this issue:
-        // When consuming chunk N, we try to prefetch chunk N+1. The prefetching failed due to
-        // hitting memoryLimit. We will mark the chunk N+1 as FAILED.
-        // After we are done with chunk N, we try to consume chunk N+1.
-        // In getNextChunkToConsume, we first call startNextDownloaders then call waitForChunkReady.
-        // startNextDownloaders sees that the next chunk to download is N+1. With enough memory at
-        // this time, it will try to download the chunk. waitForChunkReady sees that chunk N+1 is
-        // marked as FAILED, it will also try to download the chunk because it thinks that no
-        // prefetching will download the chunk.
-        // Thus we will submit two download jobs, causing chunk N+1 appears to be lost.
-        // Therefore the fix is to only prefetch chunks that are marked as NOT_STARTED here.
-        nextChunk.getLock().lock();
-        try {
-          if (nextChunk.getDownloadState() != DownloadState.NOT_STARTED) {
-            break;
-          }
-        } finally {
-          nextChunk.getLock().unlock();
+            consumerBlocked);
+        if (prefetchController != null) {
+          prefetchController.recordMemoryPressure(nextChunkToDownload - nextChunkToConsume);
         }
-
-        Future downloaderFuture =
-            executor.submit(
-                getDownloadChunkCallable(
-                    this,
-                    nextChunk,
-                    qrmk,
-                    nextChunkToDownload,
-                    chunkHeadersMap,
-                    networkTimeoutInMilli,
-                    authTimeout,
-                    socketTimeout,
-                    maxHttpRetries,
-                    this.session,
-                    chunks.size(),
-                    queryId));
-        downloaderFutures.put(nextChunkToDownload, downloaderFuture);
-        // increment next chunk to download
-        nextChunkToDownload++;
-        // make sure reset waiting time
-        waitingTime = BASE_WAITING_MS;
-        // go to next chunk
-        continue;
-      } else {
-        // cancel the reserved memory
-        logger.debug("Cancel the reserved memory.", false);
-        curMem = currentMemoryUsage.addAndGet(-neededChunkMemory);
-        if (getPrefetchMemRetry > prefetchMaxRetry) {
-          logger.debug(
-              "Retry limit for prefetch has been reached. Cancel reserved memory and prefetch"
-                  + " attempt.",
-              false);
+        if (consumerBlocked) {
+          // give up waiting, waitForChunkReady will download the chunk without a reservation
           nextChunk.getLock().lock();
           try {
             nextChunk.setDownloadState(DownloadState.FAILURE);
           } finally {
             nextChunk.getLock().unlock();
           }
-          break;
         }
+        break;
+      }
+
+      if (queryResultFormat == QueryResultFormat.JSON) {
+        ((JsonResultChunk) nextChunk).tryReuse(chunkDataCache);
       }
 
-      // waiting when nextChunkToDownload is equal to nextChunkToConsume but reach memory limit
+      logger.debug(
+          "Thread {}: currentMemoryUsage in MB: {}, nextChunkToDownload: {}, "
+              + "nextChunkToConsume: {}, newReservedMemory in B: {} ",
+          (ArgSupplier) () -> Thread.currentThread().getId(),
+          (ArgSupplier) () -> memoryBroker.getUsedMemory() / MB,
+          nextChunkToDownload,
+          nextChunkToConsume,
+          neededChunkMemory);
+
+      logger.debug(
+          "Submit chunk #{} for downloading, url: {}",
+          this.nextChunkToDownload,
+          nextChunk.getScrubbedUrl());
+
+      // SNOW-615824 Imagine this scenario to understand the root cause of this issue:
+      // When consuming chunk N, we try to prefetch chunk N+1. The prefetching failed due to
+      // hitting memoryLimit. We will mark the chunk N+1 as FAILED.
+      // After we are done with chunk N, we try to consume chunk N+1.
+      // In getNextChunkToConsume, we first call startNextDownloaders then call waitForChunkReady.
+      // startNextDownloaders sees that the next chunk to download is N+1. With enough memory at
+      // this time, it will try to download the chunk. waitForChunkReady sees that chunk N+1 is
+      // marked as FAILED, it will also try to download the chunk because it thinks that no
+      // prefetching will download the chunk.
+      // Thus we will submit two download jobs, causing chunk N+1 appears to be lost.
+      // Therefore the fix is to only prefetch chunks that are marked as NOT_STARTED here.
+      nextChunk.getLock().lock();
       try {
-        waitingTime *= WAITING_SECS_MULTIPLIER;
-        waitingTime = waitingTime > MAX_WAITING_MS ? MAX_WAITING_MS : waitingTime;
-        long jitter = ThreadLocalRandom.current().nextLong(0, waitingTime / WAITING_JITTER_RATIO);
-        waitingTime += jitter;
-        getPrefetchMemRetry++;
-        if (logger.isDebugEnabled()) {
-          logger.debug(
-              "Thread {} waiting for {} s: currentMemoryUsage in MB: {}, neededChunkMemory in MB:"
-                  + " {}, nextChunkToDownload: {}, nextChunkToConsume: {}, retry: {}",
-              (ArgSupplier) () -> Thread.currentThread().getId(),
-              waitingTime / 1000.0,
-              curMem / MB,
-              neededChunkMemory / MB,
-              nextChunkToDownload,
-              nextChunkToConsume,
-              getPrefetchMemRetry);
+        if (nextChunk.getDownloadState() != DownloadState.NOT_STARTED) {
+          break;
         }
-        Thread.sleep(waitingTime);
-      } catch (InterruptedException ie) {
-        throw new SnowflakeSQLException(
-            SqlState.INTERNAL_ERROR,
-            ErrorCode.INTERNAL_ERROR.getMessageCode(),
-            "Waiting SnowflakeChunkDownloader has been interrupted.");
+      } finally {
+        nextChunk.getLock().unlock();
       }
+
+      Future downloaderFuture =
+          executor.submit(
+              getDownloadChunkCallable(
+                  this,
+                  nextChunk,
+                  qrmk,
+                  nextChunkToDownload,
+                  chunkHeadersMap,
+                  networkTimeoutInMilli,
+                  authTimeout,
+                  socketTimeout,
+                  maxHttpRetries,
+                  this.session,
+                  chunks.size(),
+                  queryId));
+      downloaderFutures.put(nextChunkToDownload, downloaderFuture);
+      // increment next chunk to download
+      nextChunkToDownload++;
     }
 
     // clear the cache, we can't download more at the moment
@@ -512,7 +624,8 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
             : chunks.get(chunkId).computeNeededChunkMemory();
     if (releaseSize > 0 && !chunks.get(chunkId).isReleased()) {
       // has to be before reusing the memory
-      long curMem = currentMemoryUsage.addAndGet(-releaseSize);
+      memoryBroker.release(this, releaseSize);
+      long curMem = memoryBroker.getUsedMemory();
       logger.debug(
           "Thread {} - currentMemoryUsage in MB: {}, released in MB: {}, "
               + "chunk: {}, optionalReleaseSize: {}, JVMFreeMem: {}",
@@ -551,6 +664,10 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
    */
   public SnowflakeResultChunk getNextChunkToConsume()
       throws InterruptedException, SnowflakeSQLException {
+    if (prefetchController != null) {
+      prefetchController.recordConsumerRequest(System.currentTimeMillis());
+    }
+
     // free previous chunk data and submit a new chunk for downloading
     if (this.nextChunkToConsume > 0) {
       int prevChunk = this.nextChunkToConsume - 1;
@@ -586,7 +703,7 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
 
     // prefetch next chunks
     try {
-      startNextDownloaders();
+      startNextDownloaders(true);
     } catch (OutOfMemoryError outOfMemoryError) {
       logOutOfMemoryError();
       StringWriter errors = new StringWriter();
@@ -599,6 +716,9 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
 
     if (currentChunk.getDownloadState() == DownloadState.SUCCESS) {
       logger.debug("Chunk #{} is ready to consume", nextChunkToConsume);
+      if (prefetchController != null) {
+        prefetchController.recordChunkConsumed(System.currentTimeMillis(), false);
+      }
       nextChunkToConsume++;
       if (nextChunkToConsume == this.chunks.size()) {
         // make sure to release the last chunk
@@ -612,7 +732,7 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
         logger.debug("Chunk#{} is not ready to consume", nextChunkToConsume);
         logger.debug("Consumer get lock to check chunk state", false);
 
-        waitForChunkReady(currentChunk);
+        waitForChunkReady(currentChunk, nextChunkToConsume);
 
         // downloader thread encountered an error
         if (currentChunk.getDownloadState() == DownloadState.FAILURE) {
@@ -633,6 +753,9 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
         }
 
         logger.debug("Chunk#{} is ready to consume", nextChunkToConsume);
+        if (prefetchController != null) {
+          prefetchController.recordChunkConsumed(System.currentTimeMillis(), true);
+        }
 
         nextChunkToConsume++;
 
@@ -656,22 +779,137 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
     }
   }
 
+  /**
+   * Claim the next chunk for one of several threads consuming the result in parallel, and wait
+   * until it is ready to consume. Claimed chunks are not freed when the next chunk is claimed; the
+   * consumer must call {@link #releaseChunk(int)} once it is done with a chunk. Must not be mixed
+   * with {@link #getNextChunkToConsume()}.
+   *
+   * @param ordered if true, chunks are claimed in chunk order. Otherwise a chunk that is already
+   *     downloaded is claimed first, and the oldest unclaimed chunk only if none is ready.
+   * @return index of the claimed chunk, or -1 if all chunks were claimed
+   * @throws InterruptedException if downloading thread was interrupted
+   * @throws SnowflakeSQLException if downloader encountered an error
+   */
+  public int claimNextChunk(boolean ordered) throws InterruptedException, SnowflakeSQLException {
+    int chunkIndex;
+    // pick the chunk under the monitor, but wait for it outside of it, so that other consumers can
+    // claim chunks that are already downloaded meanwhile
+    synchronized (this) {
+      if (nextChunkToConsume >= chunks.size()) {
+        return -1;
+      }
+      if (prefetchController != null) {
+        prefetchController.recordConsumerRequest(System.currentTimeMillis());
+      }
+      try {
+        startNextDownloaders(true);
+      } catch (OutOfMemoryError outOfMemoryError) {
+        logOutOfMemoryError();
+        StringWriter errors = new StringWriter();
+        outOfMemoryError.printStackTrace(new PrintWriter(errors));
+        throw new SnowflakeSQLLoggedException(
+            this.session,
+            ErrorCode.INTERNAL_ERROR.getMessageCode(),
+            SqlState.INTERNAL_ERROR,
+            errors);
+      }
+
+      chunkIndex = nextChunkToConsume;
+      if (!ordered) {
+        for (int i = nextChunkToConsume; i < nextChunkToDownload; i++) {
+          if (!claimedChunks.get(i) && chunks.get(i).getDownloadState() == DownloadState.SUCCESS) {
+            chunkIndex = i;
+            break;
+          }
+        }
+      }
+      claimedChunks.set(chunkIndex);
+      nextChunkToConsume = claimedChunks.nextClearBit(nextChunkToConsume);
+      // a chunk that could not be prefetched is downloaded by waitForChunkReady; move past it here
+      // so that waitForChunkReady does not update nextChunkToDownload without the monitor
+      if (nextChunkToDownload == chunkIndex) {
+        nextChunkToDownload = chunkIndex + 1;
+      }
+    }
+
+    SnowflakeResultChunk chunk = chunks.get(chunkIndex);
+    boolean waited = false;
+    chunk.getLock().lock();
+    try {
+      if (chunk.getDownloadState() != DownloadState.SUCCESS) {
+        logger.debug("Chunk#{} is not ready to consume", chunkIndex);
+        waitForChunkReady(chunk, chunkIndex);
+        waited = true;
+      }
+      if (chunk.getDownloadState() == DownloadState.FAILURE) {
+        logger.error("Downloader encountered error: {}", chunk.getDownloadError());
+        throw new SnowflakeSQLLoggedException(
+            this.session,
+            ErrorCode.INTERNAL_ERROR.getMessageCode(),
+            SqlState.INTERNAL_ERROR,
+            chunk.getDownloadError());
+      }
+    } finally {
+      chunk.getLock().unlock();
+    }
+    logger.debug("Chunk#{} is claimed for consumption", chunkIndex);
+    if (prefetchController != null) {
+      prefetchController.recordChunkConsumed(System.currentTimeMillis(), waited);
+    }
+    return chunkIndex;
+  }
+
+  /**
+   * @param chunkIndex index of a chunk claimed with {@link #claimNextChunk(boolean)}
+   * @return the claimed chunk
+   */
+  public SnowflakeResultChunk getChunk(int chunkIndex) {
+    return chunks.get(chunkIndex);
+  }
+
+  /**
+   * Free a chunk claimed with {@link #claimNextChunk(boolean)} and release its memory, so more
+   * chunks can be prefetched.
+   *
+   * @param chunkIndex index of the chunk
+   */
+  public void releaseChunk(int chunkIndex) {
+    List<SnowflakeResultChunk> chunks = this.chunks;
+    if (chunks == null) {
+      // already terminated
+      return;
+    }
+    // not synchronized with claimNextChunk, which may be waiting for this memory
+    SnowflakeResultChunk chunk = chunks.get(chunkIndex);
+    chunk.getLock().lock();
+    try {
+      long chunkMemUsage = chunk.computeNeededChunkMemory();
+      chunk.freeData();
+      releaseCurrentMemoryUsage(chunkIndex, Optional.of(chunkMemUsage));
+    } finally {
+      chunk.getLock().unlock();
+    }
+  }
+
   /**
    * wait for the current chunk to be ready to consume if the downloader fails then let it retry for
    * at most 10 times if the downloader is in progress for at most one hour or the downloader has
    * already retried more than 10 times, then throw an exception.
    *
    * @param currentChunk
+   * @param chunkIndex index of the chunk
    * @throws InterruptedException
    */
-  private void waitForChunkReady(SnowflakeResultChunk currentChunk) throws InterruptedException {
+  private void waitForChunkReady(SnowflakeResultChunk currentChunk, int chunkIndex)
+      throws InterruptedException {
     int retry = 0;
     long startTime = System.currentTimeMillis();
     while (true) {
       logger.debug(
           "Thread {} is waiting for chunk#{} to be ready, current chunk state is: {}, retry: {}",
           Thread.currentThread().getId(),
-          nextChunkToConsume,
+          chunkIndex,
           currentChunk.getDownloadState(),
           retry);
 
@@ -687,7 +925,7 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
               "Thread {} is timeout for waiting chunk#{} to be ready, current"
                   + " chunk state is: {}, retry: {}, scrubbedUrl: {}",
               Thread.currentThread().getId(),
-              nextChunkToConsume,
+              chunkIndex,
               currentChunk.getDownloadState(),
               retry,
               currentChunk.getScrubbedUrl());
@@ -696,7 +934,7 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
           currentChunk.setDownloadError(
               String.format(
                   "Timeout waiting for the download of chunk#%d(Total chunks: %d) retry: %d scrubbedUrl: %s",
-                  nextChunkToConsume, this.chunks.size(), retry, currentChunk.getScrubbedUrl()));
+                  chunkIndex, this.chunks.size(), retry, currentChunk.getScrubbedUrl()));
           break;
         }
       }
@@ -710,19 +948,19 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
             currentChunk.getDownloadState(),
             Thread.currentThread().getId(),
             retry,
-            nextChunkToConsume);
-        Future downloaderFuture = downloaderFutures.get(nextChunkToConsume);
+            chunkIndex);
+        Future downloaderFuture = downloaderFutures.get(chunkIndex);
         if (downloaderFuture != null) {
           downloaderFuture.cancel(true);
         }
         HttpUtil.closeExpiredAndIdleConnections();
 
-        chunks.get(nextChunkToConsume).getLock().lock();
+        chunks.get(chunkIndex).getLock().lock();
         try {
-          chunks.get(nextChunkToConsume).setDownloadState(DownloadState.IN_PROGRESS);
-          chunks.get(nextChunkToConsume).reset();
+          chunks.get(chunkIndex).setDownloadState(DownloadState.IN_PROGRESS);
+          chunks.get(chunkIndex).reset();
         } finally {
-          chunks.get(nextChunkToConsume).getLock().unlock();
+          chunks.get(chunkIndex).getLock().unlock();
         }
 
         // random jitter before start next retry
@@ -732,9 +970,9 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
             executor.submit(
                 getDownloadChunkCallable(
                     this,
-                    chunks.get(nextChunkToConsume),
+                    chunks.get(chunkIndex),
                     qrmk,
-                    nextChunkToConsume,
+                    chunkIndex,
                     chunkHeadersMap,
                     networkTimeoutInMilli,
                     authTimeout,
@@ -743,11 +981,12 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
                     session,
                     chunks.size(),
                     queryId));
-        downloaderFutures.put(nextChunkToConsume, downloaderFuture);
+        downloaderFutures.put(chunkIndex, downloaderFuture);
         // Only when prefetch fails due to internal memory limitation, nextChunkToDownload
-        // equals nextChunkToConsume. In that case we need to increment nextChunkToDownload
-        if (nextChunkToDownload == nextChunkToConsume) {
-          nextChunkToDownload = nextChunkToConsume + 1;
+        // equals the index of the waited chunk. In that case we need to increment
+        // nextChunkToDownload
+        if (nextChunkToDownload == chunkIndex) {
+          nextChunkToDownload = chunkIndex + 1;
         }
       }
 
@@ -759,7 +998,7 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
       }
     }
     if (currentChunk.getDownloadState() == DownloadState.SUCCESS) {
-      logger.debug("Ready to consume chunk#{}, succeed retry={}", nextChunkToConsume, retry);
+      logger.debug("Ready to consume chunk#{}, succeed retry={}", chunkIndex, retry);
     } else if (retry >= maxHttpRetries) {
       // stop retrying and report failure
       currentChunk.setDownloadState(DownloadState.FAILURE);
@@ -767,10 +1006,10 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
           String.format(
               "Max retry reached for the download of chunk#%d "
                   + "(Total chunks: %d) retry: %d, error: %s",
-              nextChunkToConsume,
+              chunkIndex,
               this.chunks.size(),
               retry,
-              chunks.get(nextChunkToConsume).getDownloadError()));
+              chunks.get(chunkIndex).getDownloadError()));
     }
     this.numberMillisWaitingForChunks += (System.currentTimeMillis() - startTime);
   }
@@ -797,7 +1036,7 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
         totalMillisDownloadingChunks.get(),
         totalMillisParsingChunks.get(),
         chunks.size(),
-        currentMemoryUsage,
+        memoryBroker.getUsedMemory(),
         memoryLimit,
         nextChunkToDownload,
         nextChunkToConsume);
@@ -875,6 +1114,7 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
           chunkDataCache.clear();
         }
         releaseAllChunkMemoryUsage();
+        memoryBroker.unregister(this);
         chunks = null;
       }
     }
@@ -995,6 +1235,11 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
         // add parsing time
         resultChunk.setParseTime(System.currentTimeMillis() - startTime);
         downloader.addParsingTime(resultChunk.getParseTime());
+
+        if (downloader.prefetchController != null) {
+          downloader.prefetchController.recordChunkProcessed(
+              resultChunk.getDownloadTime(), resultChunk.getParseTime());
+        }
       }
 
       private long startTime;
@@ -1084,7 +1329,11 @@ public class SnowflakeChunkDownloader implements ChunkDownloader {
           try {
             logger.debug("Get lock to set chunk download error", false);
             resultChunk.setDownloadState(DownloadState.FAILURE);
-            downloader.releaseCurrentMemoryUsage(chunkIndex, Optional.empty());
+            // the memory of published record batches is released with the chunk by the consumer
+            if (!(resultChunk instanceof ArrowResultChunk
+                && ((ArrowResultChunk) resultChunk).keepsPublishedBatches())) {
+              downloader.releaseCurrentMemoryUsage(chunkIndex, Optional.empty());
+            }
             StringWriter errors = new StringWriter();
             th.printStackTrace(new PrintWriter(errors));
             resultChunk.setDownloadError(errors.toString());
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2012-2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc;
+
+import java.sql.SQLException;
+import java.util.BitSet;
+
+/**
+ * Typed view of a single column of a {@link SnowflakeRecordBatch}. Row indexes are relative to the
+ * batch and start from 0.
+ *
+ * <p>The bulk accessors convert the whole column at once, without the per-cell converter lookup
+ * and null bookkeeping done by the row-by-row {@link java.sql.ResultSet} getters. Null cells are
+ * returned as 0 by the primitive accessors; use {@link #getNulls()} to tell them apart.
+ */
+public interface SnowflakeColumnVector {
+  /**
+   * @param rowIndex row index in the batch
+   * @return true if the value is SQL NULL
+   */
+  boolean isNull(int rowIndex);
+
+  /**
+   * @return bitmap with a set bit for every row with a SQL NULL value
+   */
+  BitSet getNulls();
+
+  /**
+   * Get the column as long values, following the same conversion rules as {@link
+   * java.sql.ResultSet#getLong(int)}
+   *
+   * @return one value per row
+   * @throws SQLException if the column can't be converted to long
+   */
+  long[] getLongs() throws SQLException;
+
+  /**
+   * Get the column as double values, following the same conversion rules as {@link
+   * java.sql.ResultSet#getDouble(int)}
+   *
+   * @return one value per row
+   * @throws SQLException if the column can't be converted to double
+   */
+  double[] getDoubles() throws SQLException;
+
+  /**
+   * Get the UTF-8 encoded string values of the column as one byte array. The value of row i spans
+   * the bytes from {@code getUtf8Offsets()[i]} to {@code getUtf8Offsets()[i + 1]}, exclusive.
+   *
+   * @return UTF-8 bytes of all values of the column
+   * @throws SQLException if the column can't be converted to string
+   */
+  byte[] getUtf8Bytes() throws SQLException;
+
+  /**
+   * @return offsets of the values in {@link #getUtf8Bytes()}, one per row plus the end offset
+   * @throws SQLException if the column can't be converted to string
+   */
+  int[] getUtf8Offsets() throws SQLException;
+}
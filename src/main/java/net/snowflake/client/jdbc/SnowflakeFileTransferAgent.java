@@ -17,8 +17,10 @@ import com.google.common.io.CountingOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.security.DigestOutputStream;
@@ -56,6 +58,7 @@ import net.snowflake.client.core.SFException;
 import net.snowflake.client.core.SFFixedViewResultSet;
 import net.snowflake.client.core.SFSession;
 import net.snowflake.client.core.SFStatement;
+import net.snowflake.client.core.SessionUtil;
 import net.snowflake.client.jdbc.cloud.storage.SnowflakeStorageClient;
 import net.snowflake.client.jdbc.cloud.storage.StageInfo;
 import net.snowflake.client.jdbc.cloud.storage.StorageClientFactory;
@@ -254,6 +257,9 @@ public class SnowflakeFileTransferAgent extends SFBaseFileTransferAgent {
   private String sourceCompression = SOURCE_COMPRESSION_AUTO_DETECT;
 
   private ExecutorService threadExecutor = null;
+
+  // storage clients taken from the storage client cache of the session, released after execute()
+  private final List<SnowflakeStorageClient> acquiredStorageClients = new ArrayList<>();
   private Boolean canceled = false;
 
   /** Result status enum */
@@ -333,6 +339,21 @@ public class SnowflakeFileTransferAgent extends SFBaseFileTransferAgent {
    */
   private static InputStreamWithMetadata compressStreamWithGZIP(
       InputStream inputStream, SFBaseSession session, String queryId) throws SnowflakeSQLException {
+    return compressStreamWithGZIP(inputStream, 1, session, queryId);
+  }
+
+  /**
+   * Compress an input stream with GZIP and return the result size, digest and compressed stream.
+   *
+   * @param inputStream data input
+   * @param compressionThreads number of threads compressing blocks of the input in parallel
+   * @param session the session
+   * @return result size, digest and compressed stream
+   * @throws SnowflakeSQLException if encountered exception when compressing
+   */
+  private static InputStreamWithMetadata compressStreamWithGZIP(
+      InputStream inputStream, int compressionThreads, SFBaseSession session, String queryId)
+      throws SnowflakeSQLException {
     FileBackedOutputStream tempStream = new FileBackedOutputStream(MAX_BUFFER_SIZE, true);
 
     try {
@@ -342,18 +363,10 @@ public class SnowflakeFileTransferAgent extends SFBaseFileTransferAgent {
 
       CountingOutputStream countingStream = new CountingOutputStream(digestStream);
 
-      // construct a gzip stream with sync_flush mode
-      GZIPOutputStream gzipStream;
-
-      gzipStream = new GZIPOutputStream(countingStream, true);
-
-      IOUtils.copy(inputStream, gzipStream);
+      compressWithGZIP(inputStream, countingStream, compressionThreads);
 
       inputStream.close();
 
-      gzipStream.finish();
-      gzipStream.flush();
-
       countingStream.flush();
 
       // Normal flow will never hit here. This is only for testing purposes
@@ -392,23 +405,31 @@ public class SnowflakeFileTransferAgent extends SFBaseFileTransferAgent {
   @Deprecated
   private static InputStreamWithMetadata compressStreamWithGZIPNoDigest(
       InputStream inputStream, SFBaseSession session, String queryId) throws SnowflakeSQLException {
+    return compressStreamWithGZIPNoDigest(inputStream, 1, session, queryId);
+  }
+
+  /**
+   * Compress an input stream with GZIP and return the result size and compressed stream.
+   *
+   * @param inputStream The input stream to compress
+   * @param compressionThreads number of threads compressing blocks of the input in parallel
+   * @return the compressed stream
+   * @throws SnowflakeSQLException Will be thrown if there is a problem with compression
+   * @deprecated Can be removed when all accounts are encrypted
+   */
+  @Deprecated
+  private static InputStreamWithMetadata compressStreamWithGZIPNoDigest(
+      InputStream inputStream, int compressionThreads, SFBaseSession session, String queryId)
+      throws SnowflakeSQLException {
     try {
       FileBackedOutputStream tempStream = new FileBackedOutputStream(MAX_BUFFER_SIZE, true);
 
       CountingOutputStream countingStream = new CountingOutputStream(tempStream);
 
-      // construct a gzip stream with sync_flush mode
-      GZIPOutputStream gzipStream;
-
-      gzipStream = new GZIPOutputStream(countingStream, true);
-
-      IOUtils.copy(inputStream, gzipStream);
+      compressWithGZIP(inputStream, countingStream, compressionThreads);
 
       inputStream.close();
 
-      gzipStream.finish();
-      gzipStream.flush();
-
       countingStream.flush();
 
       // Normal flow will never hit here. This is only for testing purposes
@@ -430,6 +451,44 @@ public class SnowflakeFileTransferAgent extends SFBaseFileTransferAgent {
     }
   }
 
+  /**
+   * Compress an input stream with GZIP into an output stream. With more than one thread, blocks of
+   * the input are compressed in parallel and written as a multi-member GZIP stream.
+   *
+   * @param inputStream data input
+   * @param out stream receiving the compressed data, not closed
+   * @param compressionThreads number of threads compressing blocks of the input in parallel
+   * @throws IOException if the data could not be read, compressed or written
+   */
+  private static void compressWithGZIP(
+      InputStream inputStream, OutputStream out, int compressionThreads) throws IOException {
+    if (compressionThreads <= 1) {
+      // construct a gzip stream with sync_flush mode
+      GZIPOutputStream gzipStream = new GZIPOutputStream(out, true);
+
+      IOUtils.copy(inputStream, gzipStream);
+
+      gzipStream.finish();
+      gzipStream.flush();
+      return;
+    }
+
+    ExecutorService compressionExecutor =
+        SnowflakeUtil.createDefaultExecutorService(
+            "sf-file-compression-worker-", compressionThreads);
+    try {
+      ParallelGzipOutputStream gzipStream =
+          new ParallelGzipOutputStream(out, compressionExecutor, 2 * compressionThreads);
+
+      IOUtils.copy(inputStream, gzipStream);
+
+      gzipStream.finish();
+      gzipStream.flush();
+    } finally {
+      compressionExecutor.shutdownNow();
+    }
+  }
+
   private static InputStreamWithMetadata computeDigest(InputStream is, boolean resetStream)
       throws NoSuchAlgorithmException, IOException {
     MessageDigest md = MessageDigest.getInstance("SHA-256");
@@ -459,6 +518,117 @@ public class SnowflakeFileTransferAgent extends SFBaseFileTransferAgent {
     }
   }
 
+  private static boolean isStreamingPutEnabled(SFBaseSession session) {
+    return isSessionParameterEnabled(session, SessionUtil.JDBC_ENABLE_STREAMING_PUT);
+  }
+
+  private static boolean isParallelPutCompressionEnabled(SFBaseSession session) {
+    return isSessionParameterEnabled(session, SessionUtil.JDBC_ENABLE_PARALLEL_PUT_COMPRESSION);
+  }
+
+  private static boolean isSessionParameterEnabled(SFBaseSession session, String name) {
+    Object value = session.getOtherParameter(name);
+    return value != null && Boolean.parseBoolean(value.toString());
+  }
+
+  /**
+   * Compress a file with GZIP without storing the result and return the compressed size and
+   * digest. The file is compressed again by {@link #pushCompressedFileToRemoteStore} while it is
+   * uploaded, which produces the same bytes.
+   *
+   * @param srcFile file to compress
+   * @param withDigest whether the digest of the compressed data is needed
+   * @param session the session
+   * @param queryId last executed query id
+   * @return compressed size and digest, without a stream
+   * @throws SnowflakeSQLException if encountered exception when compressing
+   */
+  private static InputStreamWithMetadata computeCompressedSizeAndDigest(
+      File srcFile, boolean withDigest, SFBaseSession session, String queryId)
+      throws SnowflakeSQLException {
+    try (InputStream compressedStream =
+        new GzipCompressingInputStream(new FileInputStream(srcFile))) {
+      if (withDigest) {
+        return computeDigest(compressedStream, false);
+      }
+      return new InputStreamWithMetadata(ByteStreams.exhaust(compressedStream), null, null);
+    } catch (IOException | NoSuchAlgorithmException ex) {
+      logger.error("Exception compressing file", ex);
+
+      throw new SnowflakeSQLLoggedException(
+          queryId,
+          session,
+          SqlState.INTERNAL_ERROR,
+          ErrorCode.INTERNAL_ERROR.getMessageCode(),
+          ex,
+          "error encountered for compression");
+    }
+  }
+
+  /**
+   * Upload a file to the remote store while compressing it with GZIP, so that the compressed data
+   * is never written to memory or a temp file. The storage clients cannot retry an upload from a
+   * stream, so a failed upload is retried here with a new compressing stream.
+   */
+  private static void pushCompressedFileToRemoteStore(
+      StageInfo stage,
+      String destFileName,
+      File srcFile,
+      long uploadSize,
+      String digest,
+      FileCompressionType compressionType,
+      SnowflakeStorageClient client,
+      SFSession session,
+      String command,
+      int parallel,
+      RemoteStoreFileEncryptionMaterial encMat,
+      String queryId)
+      throws SQLException, IOException {
+    for (int retryCount = 0; ; retryCount++) {
+      try (InputStream compressedStream =
+          new GzipCompressingInputStream(new FileInputStream(srcFile))) {
+        pushFileToRemoteStore(
+            stage,
+            destFileName,
+            compressedStream,
+            null,
+            uploadSize,
+            digest,
+            compressionType,
+            client,
+            session,
+            command,
+            parallel,
+            null,
+            true,
+            encMat,
+            null,
+            null,
+            queryId);
+        return;
+      } catch (SnowflakeSQLException ex) {
+        if (!isStreamUploadRetryable(ex) || retryCount >= client.getMaxRetries()) {
+          throw ex;
+        }
+        logger.debug(
+            "Retrying upload of {} after error: {}, retry count: {}",
+            destFileName,
+            ex.getMessage(),
+            retryCount + 1);
+      }
+    }
+  }
+
+  /**
+   * The storage clients throw this error when an upload from a stream failed with an error they
+   * would otherwise have retried. Any other error is final.
+   */
+  private static boolean isStreamUploadRetryable(SnowflakeSQLException ex) {
+    return ex.getErrorCode() == ErrorCode.IO_ERROR.getMessageCode()
+        && ex.getMessage() != null
+        && ex.getMessage().contains("Cannot retry upload from stream");
+  }
+
   /**
    * A callable that can be executed in a separate thread using executor service.
    *
@@ -593,14 +763,34 @@ public class SnowflakeFileTransferAgent extends SFBaseFileTransferAgent {
         // Temp file that needs to be cleaned up when upload was successful
         FileBackedOutputStream fileBackedOutputStream = null;
 
+        // compress the file while uploading it instead of staging the compressed data
+        boolean streamingCompression =
+            metadata.requireCompress
+                && !sourceFromStream
+                && srcFile != null
+                && stage.getStageType() != StageInfo.StageType.LOCAL_FS
+                && isStreamingPutEnabled(session);
+
         // SNOW-16082: we should capture exception if we fail to compress or
         // calculate digest.
         try {
-          if (metadata.requireCompress) {
+          if (streamingCompression) {
+            InputStreamWithMetadata compressedSize =
+                computeCompressedSizeAndDigest(srcFile, encMat != null, session, queryId);
+            uploadSize = compressedSize.size;
+            digest = compressedSize.digest;
+
+            logger.debug("New size after compression: {}", uploadSize);
+          } else if (metadata.requireCompress) {
+            // big files are uploaded one at a time with parallel part uploads, so they are
+            // compressed with the same number of threads
+            int compressionThreads =
+                parallel > 1 && isParallelPutCompressionEnabled(session) ? parallel : 1;
             InputStreamWithMetadata compressedSizeAndStream =
                 (encMat == null
-                    ? compressStreamWithGZIPNoDigest(uploadStream, session, queryId)
-                    : compressStreamWithGZIP(uploadStream, session, queryId));
+                    ? compressStreamWithGZIPNoDigest(
+                        uploadStream, compressionThreads, session, queryId)
+                    : compressStreamWithGZIP(uploadStream, compressionThreads, session, queryId));
 
             fileBackedOutputStream = compressedSizeAndStream.fileBackedOutputStream;
 
@@ -671,24 +861,40 @@ public class SnowflakeFileTransferAgent extends SFBaseFileTransferAgent {
             case S3:
             case AZURE:
             case GCS:
-              pushFileToRemoteStore(
-                  stage,
-                  destFileName,
-                  uploadStream,
-                  fileBackedOutputStream,
-                  uploadSize,
-                  digest,
-                  metadata.destCompressionType,
-                  client,
-                  session,
-                  command,
-                  parallel,
-                  fileToUpload,
-                  (fileToUpload == null),
-                  encMat,
-                  null,
-                  null,
-                  queryId);
+              if (streamingCompression) {
+                pushCompressedFileToRemoteStore(
+                    stage,
+                    destFileName,
+                    srcFile,
+                    uploadSize,
+                    digest,
+                    metadata.destCompressionType,
+                    client,
+                    session,
+                    command,
+                    parallel,
+                    encMat,
+                    queryId);
+              } else {
+                pushFileToRemoteStore(
+                    stage,
+                    destFileName,
+                    uploadStream,
+                    fileBackedOutputStream,
+                    uploadSize,
+                    digest,
+                    metadata.destCompressionType,
+                    client,
+                    session,
+                    command,
+                    parallel,
+                    fileToUpload,
+                    (fileToUpload == null),
+                    encMat,
+                    null,
+                    null,
+                    queryId);
+              }
               metadata.isEncrypted = encMat != null;
               break;
           }
@@ -1550,16 +1756,25 @@ public class SnowflakeFileTransferAgent extends SFBaseFileTransferAgent {
         logger.debug("Start segregate files by size");
         segregateFilesBySize();
 
-        if (bigSourceFiles != null) {
-          logger.debug("Start uploading big files");
-          uploadFiles(bigSourceFiles, 1);
-          logger.debug("End uploading big files");
-        }
+        if (bigSourceFiles != null
+            && smallSourceFiles != null
+            && parallel > 1
+            && isSessionParameterEnabled(session, SessionUtil.JDBC_ENABLE_SHARED_TRANSFER_POOL)) {
+          logger.debug("Start uploading big and small files");
+          uploadBigAndSmallFiles();
+          logger.debug("End uploading big and small files");
+        } else {
+          if (bigSourceFiles != null) {
+            logger.debug("Start uploading big files");
+            uploadFiles(bigSourceFiles, 1);
+            logger.debug("End uploading big files");
+          }
 
-        if (smallSourceFiles != null) {
-          logger.debug("Start uploading small files");
-          uploadFiles(smallSourceFiles, parallel);
-          logger.debug("End uploading small files");
+          if (smallSourceFiles != null) {
+            logger.debug("Start uploading small files");
+            uploadFiles(smallSourceFiles, parallel);
+            logger.debug("End uploading small files");
+          }
         }
       }
 
@@ -1571,7 +1786,35 @@ public class SnowflakeFileTransferAgent extends SFBaseFileTransferAgent {
       if (storageClient != null) {
         storageClient.shutdown();
       }
+      releaseStorageClients();
+    }
+  }
+
+  /**
+   * Create the storage client for transferring files, or take it from the storage client cache of
+   * the session if enabled.
+   *
+   * @param parallel the degree of parallelism to be used by the client
+   * @param encMat encryption material for the client
+   * @return the storage client
+   * @throws SnowflakeSQLException if the client could not be created
+   */
+  private SnowflakeStorageClient createStorageClient(
+      int parallel, RemoteStoreFileEncryptionMaterial encMat) throws SnowflakeSQLException {
+    if (!isSessionParameterEnabled(session, SessionUtil.JDBC_ENABLE_STORAGE_CLIENT_CACHE)) {
+      return storageFactory.createClient(stageInfo, parallel, encMat, session);
+    }
+    SnowflakeStorageClient client =
+        session.getStorageClientCache().acquire(stageInfo, parallel, encMat, session);
+    acquiredStorageClients.add(client);
+    return client;
+  }
+
+  private void releaseStorageClients() {
+    for (SnowflakeStorageClient client : acquiredStorageClients) {
+      session.getStorageClientCache().release(client);
     }
+    acquiredStorageClients.clear();
   }
 
   /** Helper to upload data from a stream */
@@ -1600,7 +1843,7 @@ public class SnowflakeFileTransferAgent extends SFBaseFileTransferAgent {
                     fileMetadata,
                     (stageInfo.getStageType() == StageInfo.StageType.LOCAL_FS)
                         ? null
-                        : storageFactory.createClient(stageInfo, parallel, encMat, session),
+                        : createStorageClient(parallel, encMat),
                     session,
                     command,
                     sourceStream,
@@ -1645,6 +1888,91 @@ public class SnowflakeFileTransferAgent extends SFBaseFileTransferAgent {
     }
   }
 
+  /**
+   * Upload one more stream to the stage location of this PUT command. The stage information and
+   * credentials returned for the command are reused, so no further PUT round-trip is needed. Can be
+   * called from several threads at once after {@link #execute()} uploaded the source stream of the
+   * command.
+   *
+   * @param inputStream the data to upload, closed when done
+   * @param destFileName destination file name, ".gz" is appended if the data is compressed
+   * @param compressData whether to compress the data with GZIP
+   * @throws SnowflakeSQLException if the upload fails
+   */
+  public void uploadAdditionalStream(
+      InputStream inputStream, String destFileName, boolean compressData)
+      throws SnowflakeSQLException {
+    if (commandType != CommandType.UPLOAD || !sourceFromStream) {
+      throw new SnowflakeSQLLoggedException(
+          queryID,
+          session,
+          ErrorCode.INTERNAL_ERROR.getMessageCode(),
+          SqlState.INTERNAL_ERROR,
+          "This API only supports PUT command from a stream");
+    }
+
+    // the source compression was determined for the source stream of the command
+    FileCompressionType srcCompressionType =
+        fileMetadataMap.get(SRC_FILE_NAME_FOR_STREAM).srcCompressionType;
+    FileMetadata fileMetadata = new FileMetadata();
+    fileMetadata.srcFileName = SRC_FILE_NAME_FOR_STREAM;
+    fileMetadata.srcCompressionType = srcCompressionType;
+    if (compressData) {
+      fileMetadata.destCompressionType = FileCompressionType.GZIP;
+      fileMetadata.requireCompress = true;
+    } else {
+      fileMetadata.destCompressionType = srcCompressionType;
+      fileMetadata.requireCompress = false;
+    }
+    if (compressData && !destFileName.endsWith(FileCompressionType.GZIP.getFileExtension())) {
+      fileMetadata.destFileName = destFileName + FileCompressionType.GZIP.getFileExtension();
+    } else {
+      fileMetadata.destFileName = destFileName;
+    }
+
+    RemoteStoreFileEncryptionMaterial encMat = encryptionMaterial.get(0);
+    // called from several threads, so a cached client is released here instead of being tracked
+    // in acquiredStorageClients
+    boolean cachedClient =
+        isSessionParameterEnabled(session, SessionUtil.JDBC_ENABLE_STORAGE_CLIENT_CACHE);
+    SnowflakeStorageClient client = null;
+    if (stageInfo.getStageType() != StageInfo.StageType.LOCAL_FS) {
+      client =
+          cachedClient
+              ? session.getStorageClientCache().acquire(stageInfo, 1, encMat, session)
+              : storageFactory.createClient(stageInfo, 1, encMat, session);
+    }
+    try {
+      getUploadFileCallable(
+              stageInfo,
+              SRC_FILE_NAME_FOR_STREAM,
+              fileMetadata,
+              client,
+              session,
+              command,
+              inputStream,
+              true,
+              1,
+              null,
+              encMat,
+              queryID)
+          .call();
+    } catch (SnowflakeSQLException ex) {
+      throw ex;
+    } catch (Exception ex) {
+      throw new SnowflakeSQLException(
+          queryID, ex, SqlState.INTERNAL_ERROR, ErrorCode.INTERNAL_ERROR.getMessageCode());
+    } finally {
+      if (client != null) {
+        if (cachedClient) {
+          session.getStorageClientCache().release(client);
+        } else {
+          client.shutdown();
+        }
+      }
+    }
+  }
+
   /** Download a file from remote, and return an input stream */
   @Override
   public InputStream downloadStream(String fileName) throws SnowflakeSQLException {
@@ -1712,7 +2040,7 @@ public class SnowflakeFileTransferAgent extends SFBaseFileTransferAgent {
                 fileMetadataMap,
                 (stageInfo.getStageType() == StageInfo.StageType.LOCAL_FS)
                     ? null
-                    : storageFactory.createClient(stageInfo, parallel, encMat, session),
+                    : createStorageClient(parallel, encMat),
                 session,
                 command,
                 parallel,
@@ -1772,20 +2100,6 @@ public class SnowflakeFileTransferAgent extends SFBaseFileTransferAgent {
           SnowflakeUtil.createDefaultExecutorService("sf-file-upload-worker-", parallel);
 
       for (String srcFile : fileList) {
-        FileMetadata fileMetadata = fileMetadataMap.get(srcFile);
-
-        // Check if the result status is already set so that we don't need to
-        // upload it
-        if (fileMetadata.resultStatus != ResultStatus.UNKNOWN) {
-          logger.debug(
-              "Skipping {}, status: {}, details: {}",
-              srcFile,
-              fileMetadata.resultStatus,
-              fileMetadata.errorDetails);
-
-          continue;
-        }
-
         /*
          * For small files, we upload files in parallel, so we don't
          * want the remote store uploader to upload parts in parallel for each file.
@@ -1793,44 +2107,75 @@ public class SnowflakeFileTransferAgent extends SFBaseFileTransferAgent {
          * to upload parts in parallel for each file. This is the reason
          * for the parallel value.
          */
-        File srcFileObj = new File(srcFile);
-        // PUT delay goes here!!
-        int delay = session.getInjectWaitInPut();
-        setUploadDelay(delay);
+        Callable<Void> uploadCallable =
+            createUploadFileCallable(srcFile, parallel, (parallel > 1 ? 1 : this.parallel));
 
-        threadExecutor.submit(
-            getUploadFileCallable(
-                stageInfo,
-                srcFile,
-                fileMetadata,
-                (stageInfo.getStageType() == StageInfo.StageType.LOCAL_FS)
-                    ? null
-                    : storageFactory.createClient(
-                        stageInfo, parallel, encryptionMaterial.get(0), session),
-                session,
-                command,
-                null,
-                false,
-                (parallel > 1 ? 1 : this.parallel),
-                srcFileObj,
-                encryptionMaterial.get(0),
-                queryID));
+        if (uploadCallable != null) {
+          threadExecutor.submit(uploadCallable);
 
-        logger.debug("Submitted copy job for: {}", srcFile);
+          logger.debug("Submitted copy job for: {}", srcFile);
+        }
       }
 
-      // shut down the thread executor
-      threadExecutor.shutdown();
+      awaitUploads();
+    } finally {
+      // shut down the thread pool in any case
+      if (threadExecutor != null) {
+        threadExecutor.shutdownNow();
+        threadExecutor = null;
+      }
+    }
+  }
 
-      try {
-        // wait for all threads to complete without timeout
-        threadExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
-      } catch (InterruptedException ex) {
-        throw new SnowflakeSQLLoggedException(
-            queryID, session, ErrorCode.INTERRUPTED.getMessageCode(), SqlState.QUERY_CANCELED);
+  /**
+   * Upload the big and the small files on one thread pool, so that the small files are uploaded
+   * while the parts of the big files are. The big files are uploaded one after the other on one
+   * thread of the pool, with half of the parallelism for their parts, and the small files use the
+   * other threads of the pool until the big files are done.
+   *
+   * @throws SnowflakeSQLException Will be thrown if uploading the files fails
+   */
+  private void uploadBigAndSmallFiles() throws SnowflakeSQLException {
+    try {
+      threadExecutor =
+          SnowflakeUtil.createDefaultExecutorService("sf-file-upload-worker-", parallel);
+
+      int bigFileParallel = Math.max(1, parallel / 2);
+      List<Callable<Void>> bigFileCallables = new ArrayList<>(bigSourceFiles.size());
+      for (String srcFile : bigSourceFiles) {
+        Callable<Void> uploadCallable = createUploadFileCallable(srcFile, 1, bigFileParallel);
+        if (uploadCallable != null) {
+          bigFileCallables.add(uploadCallable);
+        }
       }
-      logger.debug("Done with uploading");
 
+      // submitted first, so that a thread of the pool picks up the big files before small files
+      threadExecutor.submit(
+          () -> {
+            for (Callable<Void> uploadCallable : bigFileCallables) {
+              if (Thread.currentThread().isInterrupted()) {
+                break;
+              }
+              try {
+                uploadCallable.call();
+              } catch (Exception ex) {
+                // the error is recorded in the file metadata by the callable
+                logger.debug("Upload of big file failed: {}", ex.getMessage());
+              }
+            }
+          });
+      logger.debug("Submitted copy job for {} big files", bigFileCallables.size());
+
+      for (String srcFile : smallSourceFiles) {
+        Callable<Void> uploadCallable = createUploadFileCallable(srcFile, parallel, 1);
+        if (uploadCallable != null) {
+          threadExecutor.submit(uploadCallable);
+
+          logger.debug("Submitted copy job for: {}", srcFile);
+        }
+      }
+
+      awaitUploads();
     } finally {
       // shut down the thread pool in any case
       if (threadExecutor != null) {
@@ -1840,6 +2185,66 @@ public class SnowflakeFileTransferAgent extends SFBaseFileTransferAgent {
     }
   }
 
+  /**
+   * Create the callable uploading a file, or return null if the file does not need to be uploaded.
+   *
+   * @param srcFile the file to upload
+   * @param clientParallel degree of parallelism of the storage client
+   * @param uploadParallel degree of parallelism for the parts of the file
+   * @return the upload callable or null
+   */
+  private Callable<Void> createUploadFileCallable(
+      String srcFile, int clientParallel, int uploadParallel) {
+    FileMetadata fileMetadata = fileMetadataMap.get(srcFile);
+
+    // Check if the result status is already set so that we don't need to
+    // upload it
+    if (fileMetadata.resultStatus != ResultStatus.UNKNOWN) {
+      logger.debug(
+          "Skipping {}, status: {}, details: {}",
+          srcFile,
+          fileMetadata.resultStatus,
+          fileMetadata.errorDetails);
+
+      return null;
+    }
+
+    File srcFileObj = new File(srcFile);
+    // PUT delay goes here!!
+    int delay = session.getInjectWaitInPut();
+    setUploadDelay(delay);
+
+    return getUploadFileCallable(
+        stageInfo,
+        srcFile,
+        fileMetadata,
+        (stageInfo.getStageType() == StageInfo.StageType.LOCAL_FS)
+            ? null
+            : createStorageClient(clientParallel, encryptionMaterial.get(0)),
+        session,
+        command,
+        null,
+        false,
+        uploadParallel,
+        srcFileObj,
+        encryptionMaterial.get(0),
+        queryID);
+  }
+
+  private void awaitUploads() throws SnowflakeSQLException {
+    // shut down the thread executor
+    threadExecutor.shutdown();
+
+    try {
+      // wait for all threads to complete without timeout
+      threadExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+    } catch (InterruptedException ex) {
+      throw new SnowflakeSQLLoggedException(
+          queryID, session, ErrorCode.INTERRUPTED.getMessageCode(), SqlState.QUERY_CANCELED);
+    }
+    logger.debug("Done with uploading");
+  }
+
   private void segregateFilesBySize() {
     for (String srcFile : sourceFiles) {
       if ((new File(srcFile)).length() > bigFileThreshold) {
@@ -2426,6 +2831,23 @@ public class SnowflakeFileTransferAgent extends SFBaseFileTransferAgent {
         (ArgSupplier)
             () -> (encMat == null ? "NULL" : encMat.getSmkId() + "|" + encMat.getQueryId()));
 
+    if (initialClient.isEncrypting()
+        && session != null
+        && isSessionParameterEnabled(session, SessionUtil.JDBC_ENABLE_STREAMING_GET)) {
+      pullFileFromRemoteStoreAsStream(
+          stage,
+          stageFilePath,
+          destFileName,
+          localLocation,
+          initialClient,
+          session,
+          command,
+          parallel,
+          presignedUrl,
+          queryId);
+      return;
+    }
+
     initialClient.download(
         session,
         command,
@@ -2439,6 +2861,59 @@ public class SnowflakeFileTransferAgent extends SFBaseFileTransferAgent {
         queryId);
   }
 
+  /**
+   * Download an encrypted file by writing the decrypted stream of the storage client to the local
+   * file, instead of downloading the encrypted file and decrypting it in place. The file is only
+   * written once.
+   */
+  private static void pullFileFromRemoteStoreAsStream(
+      StageInfo stage,
+      String stageFilePath,
+      String destFileName,
+      String localLocation,
+      SnowflakeStorageClient client,
+      SFSession session,
+      String command,
+      int parallel,
+      String presignedUrl,
+      String queryId)
+      throws SQLException {
+    remoteLocation remoteLocation = extractLocationAndPath(stage.getLocation());
+    File localFile = new File(localLocation + localFSFileSep + destFileName);
+
+    for (int retryCount = 0; ; retryCount++) {
+      try (InputStream decryptedStream =
+              client.downloadToStream(
+                  session,
+                  command,
+                  parallel,
+                  remoteLocation.location,
+                  stageFilePath,
+                  stage.getRegion(),
+                  presignedUrl,
+                  queryId);
+          OutputStream fileStream = new FileOutputStream(localFile)) {
+        IOUtils.copy(decryptedStream, fileStream);
+        return;
+      } catch (IOException ex) {
+        if (retryCount >= client.getMaxRetries()) {
+          throw new SnowflakeSQLLoggedException(
+              queryId,
+              session,
+              SqlState.INTERNAL_ERROR,
+              ErrorCode.INTERNAL_ERROR.getMessageCode(),
+              ex,
+              "Failed to download file: " + stageFilePath);
+        }
+        logger.debug(
+            "Retrying download of {} after error: {}, retry count: {}",
+            stageFilePath,
+            ex.getMessage(),
+            retryCount + 1);
+      }
+    }
+  }
+
   /**
    * From the set of files intended to be uploaded/downloaded, derive a common prefix and use the
    * listObjects API to get the object summary for each object that has the common prefix.
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2012-2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc;
+
+import java.sql.SQLException;
+
+/**
+ * A batch of consecutive rows of a result set, accessed column by column.
+ *
+ * <p>A record batch is returned by {@link SnowflakeResultSet#nextBatch()}. It is backed by the
+ * result chunk the rows belong to and stays valid until the result set moves to another chunk,
+ * i.e. until the next call of {@link java.sql.ResultSet#next()} or {@link
+ * SnowflakeResultSet#nextBatch()} that leaves the current chunk, or until the result set is
+ * closed.
+ */
+public interface SnowflakeRecordBatch {
+  /**
+   * @return number of rows in the batch
+   */
+  int getRowCount();
+
+  /**
+   * @return number of columns in the batch
+   */
+  int getColumnCount();
+
+  /**
+   * Get a view of a column of the batch
+   *
+   * @param columnIndex column index, starting from 1
+   * @return the column view
+   * @throws SQLException if the column does not exist
+   */
+  SnowflakeColumnVector getColumn(int columnIndex) throws SQLException;
+}
@@ -0,0 +1,20 @@
+/*
+ * Copyright (c) 2012-2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc;
+
+import java.sql.SQLException;
+
+/** Callback receiving the record batches of a result set consumed in parallel */
+@FunctionalInterface
+public interface SnowflakeRecordBatchHandler {
+  /**
+   * Handle one record batch. All record batches of a chunk are handled by the same thread, in
+   * order; batches of different chunks are handled concurrently by different threads.
+   *
+   * @param chunkIndex index of the result chunk the batch belongs to, in result order
+   * @param batch the rows of the record batch, valid only during this call
+   * @throws SQLException to stop consuming the result set
+   */
+  void handle(int chunkIndex, SnowflakeRecordBatch batch) throws SQLException;
+}
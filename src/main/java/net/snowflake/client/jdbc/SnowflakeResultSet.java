@@ -5,8 +5,10 @@
 package net.snowflake.client.jdbc;
 
 import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
 import java.util.List;
 import net.snowflake.client.core.QueryStatus;
+import org.apache.arrow.vector.ipc.ArrowReader;
 
 /** This interface defines Snowflake specific APIs for ResultSet */
 public interface SnowflakeResultSet {
@@ -62,4 +64,67 @@ public interface SnowflakeResultSet {
    */
   List<SnowflakeResultSetSerializable> getResultSetSerializables(long maxSizeInBytes)
       throws SQLException;
+
+  /**
+   * Advance over a batch of rows and return them in columnar form. The batch holds the rows from
+   * the next row up to the end of the current result record batch, and the cursor is left on the
+   * last row of the batch, so the batch and row-by-row access can be mixed.
+   *
+   * <p>Only supported for Arrow result sets. The returned batch is valid until the result set moves
+   * past the current result chunk.
+   *
+   * @return the next batch of rows, or null if there are no more rows
+   * @throws SQLException if the result set is closed, the result format does not support batches,
+   *     or the rows could not be fetched
+   */
+  default SnowflakeRecordBatch nextBatch() throws SQLException {
+    throw new SQLFeatureNotSupportedException("nextBatch is not supported");
+  }
+
+  /**
+   * Get an ArrowReader over the remaining rows of this result set. Each loaded batch holds the
+   * Arrow vectors of one result record batch, in chunk order, moved into the reader's {@link
+   * org.apache.arrow.vector.VectorSchemaRoot} without copying. The vectors keep the Snowflake
+   * field metadata (logicalType, scale, ...) that describes how to interpret them.
+   *
+   * <p>Memory contract: the memory of a result chunk is released to the chunk downloader, and
+   * counted against CLIENT_MEMORY_LIMIT no longer, once the reader loads the first batch of the
+   * next chunk. The data of the current batch is owned by the reader and is freed when the next
+   * batch is loaded or the reader is closed; transfer the vectors out to keep them longer. The
+   * reader must be closed before the result set, and should not be mixed with row access.
+   *
+   * <p>Only supported for Arrow result sets. With the shaded driver jar the Arrow classes are
+   * relocated, so the thin jar should be used to pass the reader to other Arrow libraries.
+   *
+   * @return ArrowReader over the remaining rows
+   * @throws SQLException if the result set is closed or the result format does not support Arrow
+   *     export
+   */
+  default ArrowReader getArrowReader() throws SQLException {
+    throw new SQLFeatureNotSupportedException("getArrowReader is not supported");
+  }
+
+  /**
+   * Consume the remaining rows of this result set with several threads sharing the result chunk
+   * downloader. Each thread claims whole result chunks and passes their record batches to the
+   * handler, so handlers of different chunks run concurrently. The method returns once all rows
+   * were handled, or rethrows the first failure.
+   *
+   * <p>With ordered consumption, chunks are claimed in chunk order, so a thread waits for the next
+   * chunk even if a later one is already downloaded. Otherwise a thread claims any downloaded
+   * chunk first. The chunk index passed to the handler can be used to restore the result order.
+   *
+   * <p>Only supported for Arrow result sets. The result set is positioned after the last row
+   * afterwards.
+   *
+   * @param parallelism number of threads
+   * @param ordered true to claim chunks in chunk order, false to claim them as they are ready
+   * @param handler handler of the record batches
+   * @throws SQLException if the result set is closed, the result format does not support parallel
+   *     consumption, or the rows could not be fetched or handled
+   */
+  default void consumeInParallel(
+      int parallelism, boolean ordered, SnowflakeRecordBatchHandler handler) throws SQLException {
+    throw new SQLFeatureNotSupportedException("consumeInParallel is not supported");
+  }
 }
@@ -35,6 +35,7 @@ import net.snowflake.client.core.SFBaseResultSet;
 import net.snowflake.client.core.SFException;
 import net.snowflake.client.log.SFLogger;
 import net.snowflake.client.log.SFLoggerFactory;
+import org.apache.arrow.vector.ipc.ArrowReader;
 
 /** Snowflake ResultSet implementation */
 public class SnowflakeResultSetV1 extends SnowflakeBaseResultSet
@@ -127,6 +128,40 @@ public class SnowflakeResultSetV1 extends SnowflakeBaseResultSet
     }
   }
 
+  @Override
+  public SnowflakeRecordBatch nextBatch() throws SQLException {
+    raiseSQLExceptionIfResultSetIsClosed();
+    try {
+      return sfBaseResultSet.nextBatch();
+    } catch (SFException ex) {
+      throw new SnowflakeSQLException(
+          ex.getCause(), ex.getSqlState(), ex.getVendorCode(), ex.getParams());
+    }
+  }
+
+  @Override
+  public ArrowReader getArrowReader() throws SQLException {
+    raiseSQLExceptionIfResultSetIsClosed();
+    try {
+      return sfBaseResultSet.getArrowReader();
+    } catch (SFException ex) {
+      throw new SnowflakeSQLException(
+          ex.getCause(), ex.getSqlState(), ex.getVendorCode(), ex.getParams());
+    }
+  }
+
+  @Override
+  public void consumeInParallel(
+      int parallelism, boolean ordered, SnowflakeRecordBatchHandler handler) throws SQLException {
+    raiseSQLExceptionIfResultSetIsClosed();
+    try {
+      sfBaseResultSet.consumeInParallel(parallelism, ordered, handler);
+    } catch (SFException ex) {
+      throw new SnowflakeSQLException(
+          ex.getCause(), ex.getSqlState(), ex.getVendorCode(), ex.getParams());
+    }
+  }
+
   @Override
   public void close() throws SQLException {
     close(true);
@@ -260,6 +295,17 @@ public class SnowflakeResultSetV1 extends SnowflakeBaseResultSet
     }
   }
 
+  @Override
+  protected <T> T getJavaTimeObject(int columnIndex, Class<T> type) throws SQLException {
+    raiseSQLExceptionIfResultSetIsClosed();
+    try {
+      return sfBaseResultSet.getJavaTimeObject(columnIndex, type);
+    } catch (SFException ex) {
+      throw new SnowflakeSQLException(
+          ex.getCause(), ex.getSqlState(), ex.getVendorCode(), ex.getParams());
+    }
+  }
+
   public ResultSetMetaData getMetaData() throws SQLException {
     raiseSQLExceptionIfResultSetIsClosed();
 
@@ -6,7 +6,9 @@ package net.snowflake.client.jdbc;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import net.snowflake.client.core.SFBaseResultSet;
 
 /** This interface defines Snowflake specific APIs for Statement */
@@ -41,6 +43,20 @@ public interface SnowflakeStatement {
    */
   ResultSet executeAsyncQuery(String sql) throws SQLException;
 
+  /**
+   * Execute SQL query asynchronously without blocking a thread while it runs. The status of the
+   * queries executed this way is polled by one background thread per session. The future is
+   * completed on the common fork join pool, so stages added to it do not block that thread.
+   *
+   * @param sql sql statement
+   * @return future completed with the ResultSet once the query succeeded, or completed
+   *     exceptionally with a SQLException if the query failed
+   * @throws SQLException if the query could not be submitted
+   */
+  default CompletableFuture<ResultSet> executeAsync(String sql) throws SQLException {
+    throw new SQLFeatureNotSupportedException("executeAsync is not supported");
+  }
+
   /**
    * This method exposes SFBaseResultSet to the sub-classes of SnowflakeStatementV1.java. This is
    * required as SnowflakeStatementV1 doesn't directly expose ResultSet to the sub-classes making it
@@ -19,13 +19,17 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import net.snowflake.client.core.ExecTimeTelemetryData;
 import net.snowflake.client.core.ParameterBindingDTO;
 import net.snowflake.client.core.ResultUtil;
 import net.snowflake.client.core.SFBaseResultSet;
+import net.snowflake.client.core.SFBaseSession;
 import net.snowflake.client.core.SFBaseStatement;
 import net.snowflake.client.core.SFException;
+import net.snowflake.client.core.SFSession;
 import net.snowflake.client.core.SFStatement;
 import net.snowflake.client.core.StmtUtil;
 import net.snowflake.client.log.SFLogger;
@@ -177,6 +181,44 @@ class SnowflakeStatementV1 implements Statement, SnowflakeStatement {
     return rs;
   }
 
+  @Override
+  public CompletableFuture<ResultSet> executeAsync(String sql) throws SQLException {
+    ResultSet rs = executeAsyncQuery(sql);
+    SFBaseSession session = connection.getSFBaseSession();
+    if (!(session instanceof SFSession) || !(rs instanceof SFAsyncResultSet)) {
+      throw new SnowflakeLoggedFeatureNotSupportedException(session);
+    }
+    SFAsyncResultSet asyncResultSet = (SFAsyncResultSet) rs;
+    // The future is completed on the common pool, not on the status polling thread of the session,
+    // so the stages the caller adds do not hold up the other async queries of the session.
+    return ((SFSession) session)
+        .awaitQueryCompletion(asyncResultSet.getQueryID())
+        .handleAsync(
+            (status, error) -> {
+              Throwable failure = error;
+              if (failure == null) {
+                try {
+                  asyncResultSet.setCompletedStatus(status);
+                  return rs;
+                } catch (SQLException ex) {
+                  failure = ex;
+                }
+              }
+              // the result set of a failed query is never handed to the caller
+              try {
+                asyncResultSet.close();
+              } catch (SQLException ex) {
+                logger.debug(
+                    "Failed to close the result set of query {}: {}",
+                    asyncResultSet.getQueryID(),
+                    ex.getMessage());
+              }
+              throw failure instanceof CompletionException
+                  ? (CompletionException) failure
+                  : new CompletionException(failure);
+            });
+  }
+
   @Override
   public void resultSetMetadataHandler(SFBaseResultSet resultSet) throws SQLException {
     // No-Op.
@@ -65,7 +65,8 @@ public class EncryptionProvider {
 
     byte[] fileKeyBytes = keyCipher.doFinal(keyBytes);
 
-    SecretKey fileKey = new SecretKeySpec(fileKeyBytes, 0, decodedKey.length, AES);
+    // the file key can be shorter than the query stage master key, see decrypt(File, ...)
+    SecretKey fileKey = new SecretKeySpec(fileKeyBytes, AES);
 
     Cipher dataCipher = Cipher.getInstance(FILE_CIPHER);
 
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2012-2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc.cloud.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import net.snowflake.client.core.SFBaseSession;
+import net.snowflake.client.core.SessionUtil;
+import net.snowflake.client.jdbc.SnowflakeUtil;
+
+/**
+ * InputStream over a remote object that is read as byte ranges fetched concurrently. The ranges
+ * are returned in order, and at most a fixed number of ranges are fetched ahead of the reader.
+ *
+ * <p>Encrypted objects are decrypted by wrapping this stream, since the ranges are put back
+ * together in order before the data reaches the cipher.
+ */
+class RangedDownloadInputStream extends InputStream {
+  /** Fetches a byte range of the remote object */
+  @FunctionalInterface
+  interface RangeReader {
+    /**
+     * @param start offset of the first byte of the range
+     * @param length number of bytes of the range
+     * @return the bytes of the range
+     * @throws Exception if the range could not be fetched
+     */
+    byte[] read(long start, int length) throws Exception;
+  }
+
+  static final int DEFAULT_RANGE_SIZE = 4 * 1024 * 1024;
+
+  private final RangeReader reader;
+
+  private final long objectSize;
+
+  private final int rangeSize;
+
+  private final int maxReadAheadRanges;
+
+  private final ExecutorService executor;
+
+  // ranges being fetched, in object order
+  private final Deque<Future<byte[]>> pendingRanges = new ArrayDeque<>();
+
+  private long nextRangeStart = 0;
+
+  private byte[] currentRange = new byte[0];
+
+  private int currentPosition = 0;
+
+  private boolean closed = false;
+
+  /**
+   * @param reader fetches the byte ranges
+   * @param objectSize size of the remote object
+   * @param rangeSize size of each range
+   * @param parallelism number of ranges fetched concurrently, which is also the read-ahead
+   */
+  RangedDownloadInputStream(RangeReader reader, long objectSize, int rangeSize, int parallelism) {
+    this.reader = reader;
+    this.objectSize = objectSize;
+    this.rangeSize = rangeSize;
+    this.maxReadAheadRanges = Math.max(1, parallelism);
+    this.executor =
+        SnowflakeUtil.createDefaultExecutorService(
+            "sf-ranged-download-worker-", maxReadAheadRanges);
+    fetchAhead();
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (!ensureData()) {
+      return -1;
+    }
+    return currentRange[currentPosition++] & 0xff;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    if (!ensureData()) {
+      return -1;
+    }
+    int n = Math.min(len, currentRange.length - currentPosition);
+    System.arraycopy(currentRange, currentPosition, b, off, n);
+    currentPosition += n;
+    return n;
+  }
+
+  @Override
+  public int available() {
+    return currentRange.length - currentPosition;
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    stopFetching();
+  }
+
+  /**
+   * @param session the session
+   * @param parallelism number of threads for the download
+   * @param objectSize size of the remote object
+   * @return true if the object should be downloaded as concurrent byte ranges
+   */
+  static boolean isEnabled(SFBaseSession session, int parallelism, long objectSize) {
+    if (session == null || parallelism <= 1 || objectSize <= 2L * DEFAULT_RANGE_SIZE) {
+      return false;
+    }
+    Object value = session.getOtherParameter(SessionUtil.JDBC_ENABLE_RANGED_DOWNLOAD);
+    return value != null && Boolean.parseBoolean(value.toString());
+  }
+
+  private boolean ensureData() throws IOException {
+    if (closed) {
+      throw new IOException("Stream closed");
+    }
+    while (currentPosition == currentRange.length) {
+      if (pendingRanges.isEmpty()) {
+        stopFetching();
+        return false;
+      }
+      currentRange = waitForRange(pendingRanges.poll());
+      currentPosition = 0;
+      fetchAhead();
+    }
+    return true;
+  }
+
+  private void fetchAhead() {
+    while (pendingRanges.size() < maxReadAheadRanges && nextRangeStart < objectSize) {
+      final long start = nextRangeStart;
+      final int length = (int) Math.min(rangeSize, objectSize - start);
+      pendingRanges.add(executor.submit(() -> readRange(start, length)));
+      nextRangeStart += length;
+    }
+  }
+
+  private byte[] readRange(long start, int length) throws Exception {
+    byte[] range = reader.read(start, length);
+    if (range.length != length) {
+      throw new IOException(
+          "Expected " + length + " bytes at offset " + start + " but got " + range.length);
+    }
+    return range;
+  }
+
+  private void stopFetching() {
+    for (Future<byte[]> pendingRange : pendingRanges) {
+      pendingRange.cancel(true);
+    }
+    pendingRanges.clear();
+    executor.shutdownNow();
+  }
+
+  private byte[] waitForRange(Future<byte[]> pendingRange) throws IOException {
+    try {
+      return pendingRange.get();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      stopFetching();
+      throw new InterruptedIOException("Interrupted while downloading");
+    } catch (ExecutionException ex) {
+      stopFetching();
+      throw new IOException("Failed to download byte range: " + ex.getCause(), ex.getCause());
+    }
+  }
+}
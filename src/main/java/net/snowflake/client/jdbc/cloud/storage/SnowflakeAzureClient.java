@@ -36,6 +36,7 @@ import java.security.InvalidKeyException;
 import java.util.AbstractMap;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.EnumSet;
 import java.util.HashMap;
@@ -76,7 +77,9 @@ public class SnowflakeAzureClient implements SnowflakeStorageClient {
   private int encryptionKeySize = 0; // used for PUTs
   private StageInfo stageInfo;
   private RemoteStoreFileEncryptionMaterial encMat;
-  private CloudBlobClient azStorageClient;
+  // replaced on renewal while the ranged downloads read with it
+  private volatile CloudBlobClient azStorageClient;
+  private final Object renewLock = new Object();
   private static final SFLogger logger = SFLoggerFactory.getLogger(SnowflakeAzureClient.class);
   private OperationContext opContext = null;
   private SFBaseSession session;
@@ -445,6 +448,25 @@ public class SnowflakeAzureClient implements SnowflakeStorageClient {
         CloudBlob blob = container.getBlockBlobReference(stageFilePath);
 
         InputStream stream = blob.openInputStream(null, null, opContext);
+        long blobSize = blob.getProperties().getLength();
+        if (RangedDownloadInputStream.isEnabled(session, parallelism, blobSize)) {
+          // the blob input stream only fetched the blob attributes so far
+          stream.close();
+          stream =
+              new RangedDownloadInputStream(
+                  (start, length) ->
+                      readRange(
+                          session,
+                          command,
+                          queryId,
+                          remoteStorageLocation,
+                          stageFilePath,
+                          start,
+                          length),
+                  blobSize,
+                  RangedDownloadInputStream.DEFAULT_RANGE_SIZE,
+                  parallelism);
+        }
         stopwatch.stop();
         long downloadMillis = stopwatch.elapsedMillis();
         Map<String, String> userDefinedMetadata = blob.getMetadata();
@@ -509,6 +531,46 @@ public class SnowflakeAzureClient implements SnowflakeStorageClient {
         "Unexpected: download unsuccessful without exception!");
   }
 
+  private byte[] readRange(
+      SFSession session,
+      String command,
+      String queryId,
+      String remoteStorageLocation,
+      String stageFilePath,
+      long start,
+      int length)
+      throws SnowflakeSQLException {
+    byte[] range = new byte[length];
+    int retryCount = 0;
+    do {
+      // the blob is looked up again on each attempt, the client may have renewed its token
+      CloudBlobClient client = azStorageClient;
+      try {
+        CloudBlob blob =
+            client
+                .getContainerReference(remoteStorageLocation)
+                .getBlockBlobReference(stageFilePath);
+        int bytesRead =
+            blob.downloadRangeToByteArray(start, (long) length, range, 0, null, null, opContext);
+        return bytesRead == length ? range : Arrays.copyOf(range, bytesRead);
+      } catch (Exception ex) {
+        logger.debug(
+            "Download of range at offset {} of {} failed: {}",
+            start,
+            stageFilePath,
+            ex.getMessage());
+        handleAzureException(ex, ++retryCount, "download", session, command, this, queryId, client);
+      }
+    } while (retryCount <= getMaxRetries());
+
+    throw new SnowflakeSQLLoggedException(
+        queryId,
+        session,
+        ErrorCode.INTERNAL_ERROR.getMessageCode(),
+        SqlState.INTERNAL_ERROR,
+        "Unexpected: download unsuccessful without exception!");
+  }
+
   /**
    * Upload a file/stream to remote storage
    *
@@ -758,6 +820,39 @@ public class SnowflakeAzureClient implements SnowflakeStorageClient {
     return SFPair.of(stream, uploadFromStream);
   }
 
+  /**
+   * Renews the expired SAS token of the client. The concurrent ranged downloads all fail when the
+   * token expires, so only the first one renews the client that they used, and the others retry
+   * with the renewed client.
+   *
+   * @param session the current session
+   * @param command the command to get a fresh token for
+   * @param failedClient the CloudBlobClient of the failed request, or null to renew in any case
+   * @throws SnowflakeSQLException if the renewal fails
+   */
+  private void renewExpiredToken(SFSession session, String command, CloudBlobClient failedClient)
+      throws SnowflakeSQLException {
+    synchronized (renewLock) {
+      if (failedClient != null && failedClient != azStorageClient) {
+        logger.debug("The Azure client was already renewed, retrying with it");
+        return;
+      }
+      SnowflakeFileTransferAgent.renewExpiredToken(session, command, this);
+    }
+  }
+
+  private static void handleAzureException(
+      Exception ex,
+      int retryCount,
+      String operation,
+      SFSession session,
+      String command,
+      SnowflakeAzureClient azClient,
+      String queryId)
+      throws SnowflakeSQLException {
+    handleAzureException(ex, retryCount, operation, session, command, azClient, queryId, null);
+  }
+
   /**
    * Handles exceptions thrown by Azure Storage It will retry transient errors as defined by the
    * Azure Client retry policy It will re-create the client if the SAS token has expired, and re-try
@@ -769,6 +864,7 @@ public class SnowflakeAzureClient implements SnowflakeStorageClient {
    * @param session the current SFSession object used by the client
    * @param command the command attempted at the time of the exception
    * @param azClient the current Snowflake Azure client object
+   * @param failedClient the CloudBlobClient of the failed request, or null if not known
    * @throws SnowflakeSQLException exceptions not handled
    */
   private static void handleAzureException(
@@ -778,7 +874,8 @@ public class SnowflakeAzureClient implements SnowflakeStorageClient {
       SFSession session,
       String command,
       SnowflakeAzureClient azClient,
-      String queryId)
+      String queryId,
+      CloudBlobClient failedClient)
       throws SnowflakeSQLException {
 
     // no need to retry if it is invalid key exception
@@ -801,7 +898,7 @@ public class SnowflakeAzureClient implements SnowflakeStorageClient {
         // A 403 indicates that the SAS token has expired,
         // we need to refresh the Azure client with the new token
         if (session != null) {
-          SnowflakeFileTransferAgent.renewExpiredToken(session, command, azClient);
+          azClient.renewExpiredToken(session, command, failedClient);
         } else {
           // If session is null we cannot renew the token so throw the ExpiredToken exception
           throw new SnowflakeSQLException(
@@ -852,7 +949,7 @@ public class SnowflakeAzureClient implements SnowflakeStorageClient {
         if (se.getHttpStatusCode() == 403) {
           // A 403 indicates that the SAS token has expired,
           // we need to refresh the Azure client with the new token
-          SnowflakeFileTransferAgent.renewExpiredToken(session, command, azClient);
+          azClient.renewExpiredToken(session, command, failedClient);
         }
       }
     } else {
@@ -26,6 +26,7 @@ import com.amazonaws.services.s3.model.AmazonS3Exception;
 import com.amazonaws.services.s3.model.CryptoConfiguration;
 import com.amazonaws.services.s3.model.CryptoMode;
 import com.amazonaws.services.s3.model.EncryptionMaterials;
+import com.amazonaws.services.s3.model.GetObjectRequest;
 import com.amazonaws.services.s3.model.ObjectListing;
 import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.PutObjectRequest;
@@ -93,7 +94,9 @@ public class SnowflakeS3Client implements SnowflakeStorageClient {
   private static final String EXPIRED_AWS_TOKEN_ERROR_CODE = "ExpiredToken";
 
   private int encryptionKeySize = 0; // used for PUTs
-  private AmazonS3 amazonClient = null;
+  // replaced on renewal while the ranged downloads read with it
+  private volatile AmazonS3 amazonClient = null;
+  private final Object renewLock = new Object();
   private RemoteStoreFileEncryptionMaterial encMat = null;
   private ClientConfiguration clientConfig = null;
   private Properties proxyProperties = null;
@@ -285,6 +288,7 @@ public class SnowflakeS3Client implements SnowflakeStorageClient {
   @Override
   public void renew(Map<?, ?> stageCredentials) throws SnowflakeSQLException {
     logger.debug("Renewing the Snowflake S3 client");
+    AmazonS3 previousClient = amazonClient;
     // We renew the client with fresh credentials and with its original parameters
     setupSnowflakeS3Client(
         stageCredentials,
@@ -295,6 +299,11 @@ public class SnowflakeS3Client implements SnowflakeStorageClient {
         this.stageEndPoint,
         this.isClientSideEncrypted,
         this.session);
+    // release the connection pool of the replaced client, requests still running on it were sent
+    // with the old credentials and are retried with the renewed client
+    if (previousClient != null) {
+      previousClient.shutdown();
+    }
   }
 
   @Override
@@ -476,9 +485,27 @@ public class SnowflakeS3Client implements SnowflakeStorageClient {
     int retryCount = 0;
     do {
       try {
-        S3Object file = amazonClient.getObject(remoteStorageLocation, stageFilePath);
         ObjectMetadata meta = amazonClient.getObjectMetadata(remoteStorageLocation, stageFilePath);
-        InputStream stream = file.getObjectContent();
+        InputStream stream;
+        if (isRangedDownloadEnabled(session, parallelism, meta.getContentLength())) {
+          stream =
+              new RangedDownloadInputStream(
+                  (start, length) ->
+                      readRange(
+                          session,
+                          command,
+                          queryId,
+                          remoteStorageLocation,
+                          stageFilePath,
+                          start,
+                          length),
+                  meta.getContentLength(),
+                  RangedDownloadInputStream.DEFAULT_RANGE_SIZE,
+                  parallelism);
+        } else {
+          S3Object file = amazonClient.getObject(remoteStorageLocation, stageFilePath);
+          stream = file.getObjectContent();
+        }
         stopwatch.stop();
         long downloadMillis = stopwatch.elapsedMillis();
         Map<String, String> metaMap = meta.getUserMetadata();
@@ -536,6 +563,50 @@ public class SnowflakeS3Client implements SnowflakeStorageClient {
         "Unexpected: download unsuccessful without exception!");
   }
 
+  /**
+   * Ranged downloads are not used with 256 bit keys, since the encryption client would decrypt
+   * each range on its own instead of the whole object.
+   */
+  boolean isRangedDownloadEnabled(SFBaseSession session, int parallelism, long objectSize) {
+    return getEncryptionKeySize() != 256
+        && RangedDownloadInputStream.isEnabled(session, parallelism, objectSize);
+  }
+
+  private byte[] readRange(
+      SFSession session,
+      String command,
+      String queryId,
+      String remoteStorageLocation,
+      String stageFilePath,
+      long start,
+      int length)
+      throws SnowflakeSQLException {
+    GetObjectRequest request =
+        new GetObjectRequest(remoteStorageLocation, stageFilePath)
+            .withRange(start, start + length - 1);
+    int retryCount = 0;
+    do {
+      AmazonS3 client = amazonClient;
+      try (S3Object range = client.getObject(request)) {
+        return IOUtils.toByteArray(range.getObjectContent());
+      } catch (Exception ex) {
+        logger.debug(
+            "Download of range at offset {} of {} failed: {}",
+            start,
+            stageFilePath,
+            ex.getMessage());
+        handleS3Exception(ex, ++retryCount, "download", session, command, this, queryId, client);
+      }
+    } while (retryCount <= getMaxRetries());
+
+    throw new SnowflakeSQLLoggedException(
+        queryId,
+        session,
+        ErrorCode.INTERNAL_ERROR.getMessageCode(),
+        SqlState.INTERNAL_ERROR,
+        "Unexpected: download unsuccessful without exception!");
+  }
+
   /**
    * Upload a file (-stream) to S3.
    *
@@ -803,6 +874,27 @@ public class SnowflakeS3Client implements SnowflakeStorageClient {
     handleS3Exception(ex, retryCount, operation, session, command, this, queryId);
   }
 
+  /**
+   * Renews the expired credentials of the client. The concurrent ranged downloads all fail when
+   * the credentials expire, so only the first one renews the client that they used, and the
+   * others retry with the renewed client.
+   *
+   * @param session the current session
+   * @param command the command to get fresh credentials for
+   * @param failedClient the AmazonS3 client of the failed request, or null to renew in any case
+   * @throws SnowflakeSQLException if the renewal fails
+   */
+  private void renewExpiredToken(SFSession session, String command, AmazonS3 failedClient)
+      throws SnowflakeSQLException {
+    synchronized (renewLock) {
+      if (failedClient != null && failedClient != amazonClient) {
+        logger.debug("The S3 client was already renewed, retrying with it");
+        return;
+      }
+      SnowflakeFileTransferAgent.renewExpiredToken(session, command, this);
+    }
+  }
+
   private static void handleS3Exception(
       Exception ex,
       int retryCount,
@@ -812,6 +904,19 @@ public class SnowflakeS3Client implements SnowflakeStorageClient {
       SnowflakeS3Client s3Client,
       String queryId)
       throws SnowflakeSQLException {
+    handleS3Exception(ex, retryCount, operation, session, command, s3Client, queryId, null);
+  }
+
+  private static void handleS3Exception(
+      Exception ex,
+      int retryCount,
+      String operation,
+      SFSession session,
+      String command,
+      SnowflakeS3Client s3Client,
+      String queryId,
+      AmazonS3 failedClient)
+      throws SnowflakeSQLException {
     // no need to retry if it is invalid key exception
     if (ex.getCause() instanceof InvalidKeyException) {
       // Most likely cause is that the unlimited strength policy files are not installed
@@ -843,7 +948,7 @@ public class SnowflakeS3Client implements SnowflakeStorageClient {
           // does not return the ExpiredToken error code.
           // If session is null we cannot renew the token so throw the exception
           if (ex1.getStatusCode() == HttpStatus.SC_BAD_REQUEST && session != null) {
-            SnowflakeFileTransferAgent.renewExpiredToken(session, command, s3Client);
+            s3Client.renewExpiredToken(session, command, failedClient);
           } else {
             throw new SnowflakeSQLLoggedException(
                 queryId,
@@ -899,7 +1004,7 @@ public class SnowflakeS3Client implements SnowflakeStorageClient {
           if (s3ex.getErrorCode().equalsIgnoreCase(EXPIRED_AWS_TOKEN_ERROR_CODE)) {
             // If session is null we cannot renew the token so throw the ExpiredToken exception
             if (session != null) {
-              SnowflakeFileTransferAgent.renewExpiredToken(session, command, s3Client);
+              s3Client.renewExpiredToken(session, command, failedClient);
             } else {
               throw new SnowflakeSQLException(
                   queryId,
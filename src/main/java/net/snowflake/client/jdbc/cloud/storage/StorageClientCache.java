@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2012-2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc.cloud.storage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import net.snowflake.client.core.SFSession;
+import net.snowflake.client.jdbc.SnowflakeSQLException;
+import net.snowflake.client.log.SFLogger;
+import net.snowflake.client.log.SFLoggerFactory;
+import net.snowflake.common.core.RemoteStoreFileEncryptionMaterial;
+
+/**
+ * Cache of storage clients of a session, shared by the files of a PUT/GET command and by the
+ * commands of the session.
+ *
+ * <p>Clients are cached per stage location, region, end point, proxy, encryption material and
+ * parallelism. When a command gets a cached client with other stage credentials, an unused client
+ * is renewed with the new credentials instead of being created again. A client still used by
+ * another command is replaced by a new client, and shut down once that command releases it. A
+ * client is shut down once it has not been used for the idle timeout and no command uses it.
+ */
+public class StorageClientCache {
+  private static final SFLogger logger = SFLoggerFactory.getLogger(StorageClientCache.class);
+
+  static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 5 * 60 * 1000L;
+
+  private static class CachedClient {
+    private final SnowflakeStorageClient client;
+
+    private Map<?, ?> credentials;
+
+    // number of acquire() calls not released yet
+    private int users = 0;
+
+    private long lastUsedMillis;
+
+    private CachedClient(SnowflakeStorageClient client, Map<?, ?> credentials) {
+      this.client = client;
+      this.credentials = credentials;
+    }
+  }
+
+  private final Map<List<Object>, CachedClient> clients = new HashMap<>();
+
+  // clients removed from the cache while in use, shut down once they are released
+  private final List<CachedClient> retiredClients = new ArrayList<>();
+
+  private final long idleTimeoutMillis;
+
+  public StorageClientCache() {
+    this(DEFAULT_IDLE_TIMEOUT_MILLIS);
+  }
+
+  StorageClientCache(long idleTimeoutMillis) {
+    this.idleTimeoutMillis = idleTimeoutMillis;
+  }
+
+  /**
+   * Returns a cached storage client for the stage or creates one. Each call must be followed by a
+   * call to {@link #release(SnowflakeStorageClient)} once the client is not used anymore.
+   *
+   * @param stage the stage properties
+   * @param parallel the degree of parallelism to be used by the client
+   * @param encMat encryption material for the client
+   * @param session the session
+   * @return the storage client
+   * @throws SnowflakeSQLException if the client could not be created or renewed
+   */
+  public synchronized SnowflakeStorageClient acquire(
+      StageInfo stage, int parallel, RemoteStoreFileEncryptionMaterial encMat, SFSession session)
+      throws SnowflakeSQLException {
+    long now = System.currentTimeMillis();
+    evictIdleClients(now);
+
+    List<Object> key = createKey(stage, parallel, encMat);
+    CachedClient cachedClient = clients.get(key);
+    if (cachedClient == null) {
+      cachedClient =
+          new CachedClient(createClient(stage, parallel, encMat, session), stage.getCredentials());
+      clients.put(key, cachedClient);
+      logger.debug("Cached storage client for stage location: {}", stage.getLocation());
+    } else if (!Objects.equals(cachedClient.credentials, stage.getCredentials())) {
+      if (cachedClient.users == 0) {
+        logger.debug("Renewing cached storage client for stage location: {}", stage.getLocation());
+        cachedClient.client.renew(stage.getCredentials());
+        cachedClient.credentials = stage.getCredentials();
+      } else {
+        // the client may be transferring files of another command, so it is not renewed under it
+        logger.debug(
+            "Replacing cached storage client in use for stage location: {}", stage.getLocation());
+        retiredClients.add(cachedClient);
+        cachedClient =
+            new CachedClient(
+                createClient(stage, parallel, encMat, session), stage.getCredentials());
+        clients.put(key, cachedClient);
+      }
+    }
+    cachedClient.users++;
+    cachedClient.lastUsedMillis = now;
+    return cachedClient.client;
+  }
+
+  /**
+   * Releases a client returned by {@link #acquire(StageInfo, int,
+   * RemoteStoreFileEncryptionMaterial, SFSession)}.
+   *
+   * @param client the storage client
+   */
+  public synchronized void release(SnowflakeStorageClient client) {
+    long now = System.currentTimeMillis();
+    for (CachedClient cachedClient : clients.values()) {
+      if (cachedClient.client == client) {
+        cachedClient.users = Math.max(0, cachedClient.users - 1);
+        cachedClient.lastUsedMillis = now;
+        break;
+      }
+    }
+    Iterator<CachedClient> iterator = retiredClients.iterator();
+    while (iterator.hasNext()) {
+      CachedClient cachedClient = iterator.next();
+      if (cachedClient.client == client) {
+        if (--cachedClient.users <= 0) {
+          logger.debug("Shutting down released storage client removed from the cache", false);
+          cachedClient.client.shutdown();
+          iterator.remove();
+        }
+        break;
+      }
+    }
+    evictIdleClients(now);
+  }
+
+  /**
+   * Removes all clients from the cache and shuts down the ones not used anymore. The clients still
+   * in use are shut down when they are released.
+   */
+  public synchronized void clear() {
+    for (CachedClient cachedClient : clients.values()) {
+      if (cachedClient.users == 0) {
+        cachedClient.client.shutdown();
+      } else {
+        retiredClients.add(cachedClient);
+      }
+    }
+    clients.clear();
+  }
+
+  synchronized int size() {
+    return clients.size();
+  }
+
+  SnowflakeStorageClient createClient(
+      StageInfo stage, int parallel, RemoteStoreFileEncryptionMaterial encMat, SFSession session)
+      throws SnowflakeSQLException {
+    return StorageClientFactory.getFactory().createClient(stage, parallel, encMat, session);
+  }
+
+  private void evictIdleClients(long now) {
+    Iterator<CachedClient> iterator = clients.values().iterator();
+    while (iterator.hasNext()) {
+      CachedClient cachedClient = iterator.next();
+      if (cachedClient.users == 0 && now - cachedClient.lastUsedMillis >= idleTimeoutMillis) {
+        logger.debug("Shutting down idle storage client", false);
+        cachedClient.client.shutdown();
+        iterator.remove();
+      }
+    }
+  }
+
+  private static List<Object> createKey(
+      StageInfo stage, int parallel, RemoteStoreFileEncryptionMaterial encMat) {
+    return Arrays.asList(
+        stage.getStageType(),
+        stage.getLocation(),
+        stage.getRegion(),
+        stage.getEndPoint(),
+        stage.getStorageAccount(),
+        stage.getIsClientSideEncrypted(),
+        stage.getUseS3RegionalUrl(),
+        stage.getProxyProperties(),
+        parallel,
+        encMat == null ? null : encMat.getQueryStageMasterKey(),
+        encMat == null ? null : encMat.getQueryId(),
+        encMat == null ? null : encMat.getSmkId());
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2012-2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.core;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import net.snowflake.client.jdbc.SnowflakeResultSetSerializableV1;
+import net.snowflake.client.jdbc.telemetry.NoOpTelemetryClient;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowReader;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.types.Types;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Unit tests of the ArrowReader over the rows of an Arrow result set */
+public class ArrowResultSetReaderTest {
+  private static final int BATCH_COUNT = 2;
+
+  private static final int BATCH_SIZE = 3;
+
+  private Schema schema;
+
+  @Before
+  public void setUp() {
+    Map<String, String> customFieldMeta = new HashMap<>();
+    customFieldMeta.put("logicalType", "FIXED");
+    customFieldMeta.put("scale", "0");
+    FieldType type = new FieldType(true, Types.MinorType.INT.getType(), null, customFieldMeta);
+    schema = new Schema(Collections.singletonList(new Field("C1", type, null)));
+  }
+
+  /** Result set whose first chunk has record batches with the values 0, 1, 2, ... */
+  private SFArrowResultSet createResultSet() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (RootAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+        VectorSchemaRoot root = VectorSchemaRoot.create(schema, allocator);
+        ArrowStreamWriter streamWriter = new ArrowStreamWriter(root, null, out)) {
+      IntVector vector = (IntVector) root.getVector(0);
+      streamWriter.start();
+      for (int batch = 0; batch < BATCH_COUNT; batch++) {
+        vector.allocateNew(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+          vector.set(i, batch * BATCH_SIZE + i);
+        }
+        root.setRowCount(BATCH_SIZE);
+        streamWriter.writeBatch();
+      }
+      streamWriter.end();
+    }
+    byte[] data = out.toByteArray();
+
+    SnowflakeResultSetSerializableV1 resultSetSerializable = new SnowflakeResultSetSerializableV1();
+    // the allocator is closed with the result set
+    resultSetSerializable.setRootAllocator(new RootAllocator(Long.MAX_VALUE));
+    resultSetSerializable.setFirstChunkStringData(Base64.getEncoder().encodeToString(data));
+    resultSetSerializable.setFirstChunkByteData(data);
+    resultSetSerializable.setChunkFileCount(0);
+    return new SFArrowResultSet(resultSetSerializable, new NoOpTelemetryClient(), false);
+  }
+
+  private static void assertBatch(VectorSchemaRoot root, int firstValue, int rowCount) {
+    assertThat(root.getRowCount(), is(rowCount));
+    IntVector vector = (IntVector) root.getVector(0);
+    for (int i = 0; i < rowCount; i++) {
+      assertThat(vector.get(i), is(firstValue + i));
+    }
+  }
+
+  @Test
+  public void testLoadNextBatch() throws Exception {
+    SFArrowResultSet resultSet = createResultSet();
+    try (ArrowReader reader = resultSet.getArrowReader()) {
+      assertThat(reader.getVectorSchemaRoot().getSchema(), is(schema));
+      for (int batch = 0; batch < BATCH_COUNT; batch++) {
+        assertThat(reader.loadNextBatch(), is(true));
+        assertBatch(reader.getVectorSchemaRoot(), batch * BATCH_SIZE, BATCH_SIZE);
+      }
+      assertThat(reader.loadNextBatch(), is(false));
+    }
+    resultSet.close();
+  }
+
+  @Test
+  public void testLoadNextBatchAfterRowAccess() throws Exception {
+    SFArrowResultSet resultSet = createResultSet();
+    assertThat(resultSet.next(), is(true));
+    assertThat(resultSet.getInt(1), is(0));
+    try (ArrowReader reader = resultSet.getArrowReader()) {
+      // the reader starts after the row that was already read
+      assertThat(reader.loadNextBatch(), is(true));
+      assertBatch(reader.getVectorSchemaRoot(), 1, BATCH_SIZE - 1);
+      assertThat(reader.loadNextBatch(), is(true));
+      assertBatch(reader.getVectorSchemaRoot(), BATCH_SIZE, BATCH_SIZE);
+      assertThat(reader.loadNextBatch(), is(false));
+    }
+    resultSet.close();
+  }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2012-2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLData;
+import java.sql.SQLException;
+import java.sql.SQLInput;
+import java.sql.SQLOutput;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TimeZone;
+import net.snowflake.client.core.json.Converters;
+import net.snowflake.client.jdbc.FieldMetadata;
+import net.snowflake.client.jdbc.SnowflakeType;
+import net.snowflake.common.core.SFBinaryFormat;
+import net.snowflake.common.core.SnowflakeDateTimeFormat;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.complex.StructVector;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ArrowSqlInputTest {
+  public static class Inner implements SQLData {
+    private int c;
+
+    // private constructor, only reachable through the cached constructor handle
+    private Inner() {}
+
+    @Override
+    public String getSQLTypeName() {
+      return null;
+    }
+
+    @Override
+    public void readSQL(SQLInput stream, String typeName) throws SQLException {
+      c = stream.readInt();
+    }
+
+    @Override
+    public void writeSQL(SQLOutput stream) {}
+  }
+
+  public static class Outer implements SQLData {
+    private int a;
+    private boolean aWasNull;
+    private String b;
+    private Inner nested;
+
+    @Override
+    public String getSQLTypeName() {
+      return null;
+    }
+
+    @Override
+    public void readSQL(SQLInput stream, String typeName) throws SQLException {
+      a = stream.readInt();
+      aWasNull = stream.wasNull();
+      b = stream.readString();
+      nested = stream.readObject(Inner.class);
+    }
+
+    @Override
+    public void writeSQL(SQLOutput stream) {}
+  }
+
+  private BufferAllocator allocator;
+  private StructVector vector;
+  private Converters converters;
+  private List<FieldMetadata> fields;
+
+  @Before
+  public void setUp() {
+    allocator = new RootAllocator(Long.MAX_VALUE);
+    vector = StructVector.empty("outer", allocator);
+    IntVector a =
+        vector.addOrGet("a", FieldType.nullable(new ArrowType.Int(32, true)), IntVector.class);
+    VarCharVector b =
+        vector.addOrGet("b", FieldType.nullable(new ArrowType.Utf8()), VarCharVector.class);
+    StructVector nested =
+        vector.addOrGet("nested", FieldType.nullable(new ArrowType.Struct()), StructVector.class);
+    IntVector c =
+        nested.addOrGet("c", FieldType.nullable(new ArrowType.Int(32, true)), IntVector.class);
+
+    a.setSafe(0, 1);
+    b.setSafe(0, "x".getBytes(StandardCharsets.UTF_8));
+    c.setSafe(0, 5);
+    nested.setIndexDefined(0);
+    vector.setIndexDefined(0);
+
+    a.setNull(1);
+    b.setSafe(1, "y".getBytes(StandardCharsets.UTF_8));
+    c.setNull(1);
+    nested.setNull(1);
+    vector.setIndexDefined(1);
+    vector.setValueCount(2);
+
+    fields =
+        Arrays.asList(
+            intField("a"),
+            new FieldMetadata(
+                "b", "TEXT", Types.VARCHAR, true, 16, 0, 0, false, SnowflakeType.TEXT, null),
+            new FieldMetadata(
+                "nested",
+                "OBJECT",
+                Types.STRUCT,
+                true,
+                0,
+                0,
+                0,
+                false,
+                SnowflakeType.OBJECT,
+                Collections.singletonList(intField("c"))));
+
+    converters =
+        new Converters(
+            TimeZone.getTimeZone("UTC"),
+            new SFSession(),
+            1,
+            false,
+            false,
+            false,
+            false,
+            SFBinaryFormat.BASE64,
+            SnowflakeDateTimeFormat.fromSqlFormat("YYYY-MM-DD"),
+            SnowflakeDateTimeFormat.fromSqlFormat("HH24:MI:SS.FF3"),
+            SnowflakeDateTimeFormat.fromSqlFormat("YYYY-MM-DD HH24:MI:SS.FF3"),
+            SnowflakeDateTimeFormat.fromSqlFormat("YYYY-MM-DD HH24:MI:SS.FF3"),
+            SnowflakeDateTimeFormat.fromSqlFormat("YYYY-MM-DD HH24:MI:SS.FF3"));
+  }
+
+  @After
+  public void tearDown() {
+    vector.close();
+    allocator.close();
+  }
+
+  private static FieldMetadata intField(String name) {
+    return new FieldMetadata(
+        name, "NUMBER", Types.INTEGER, true, 0, 38, 0, true, SnowflakeType.FIXED, null);
+  }
+
+  @Test
+  public void testReadsFieldsFromChildVectors() throws SQLException {
+    Outer outer = readOuter(0);
+    assertEquals(1, outer.a);
+    assertFalse(outer.aWasNull);
+    assertEquals("x", outer.b);
+    assertEquals(5, outer.nested.c);
+
+    outer = readOuter(1);
+    assertTrue(outer.aWasNull);
+    assertEquals("y", outer.b);
+    assertNull(outer.nested);
+  }
+
+  @Test
+  public void testInputIsBuiltOnlyWhenRequested() {
+    ArrowSqlInput sqlInput = new ArrowSqlInput(vector, 0, null, converters, fields);
+    assertEquals(vector.getObject(0), sqlInput.getInput());
+  }
+
+  private Outer readOuter(int rowIndex) throws SQLException {
+    Outer outer = new Outer();
+    outer.readSQL(new ArrowSqlInput(vector, rowIndex, null, converters, fields), null);
+    return outer;
+  }
+}
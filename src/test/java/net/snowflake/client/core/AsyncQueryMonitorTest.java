@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2012-2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.snowflake.client.jdbc.QueryStatusV2;
+import org.junit.Test;
+
+public class AsyncQueryMonitorTest {
+  private static QueryStatusV2 status(String queryID, String name) {
+    return new QueryStatusV2(0, 0, "", queryID, name, 0, "", 0, "", 0, "", 0, "", "");
+  }
+
+  @Test
+  public void testCompletesQueriesWhenTheyStopRunning() throws Exception {
+    Map<String, AtomicInteger> polls = new ConcurrentHashMap<>();
+    AsyncQueryMonitor monitor =
+        new AsyncQueryMonitor(
+            queryID -> {
+              int count =
+                  polls.computeIfAbsent(queryID, id -> new AtomicInteger()).incrementAndGet();
+              if (queryID.equals("q1") && count < 2) {
+                return status(queryID, "RUNNING");
+              }
+              return status(queryID, queryID.equals("q2") ? "FAILED_WITH_ERROR" : "SUCCESS");
+            });
+    try {
+      CompletableFuture<QueryStatusV2> q1 = monitor.monitor("q1");
+      CompletableFuture<QueryStatusV2> q2 = monitor.monitor("q2");
+      assertSame(q1, monitor.monitor("q1"));
+
+      QueryStatusV2 q1Status = q1.get(10, TimeUnit.SECONDS);
+      assertTrue(q1Status.isSuccess());
+      assertEquals(2, polls.get("q1").get());
+      assertTrue(q2.get(10, TimeUnit.SECONDS).isAnError());
+      assertEquals(1, polls.get("q2").get());
+    } finally {
+      monitor.close();
+    }
+  }
+
+  @Test
+  public void testFailsQueryWhenStatusCannotBeRead() throws Exception {
+    AsyncQueryMonitor monitor =
+        new AsyncQueryMonitor(
+            queryID -> {
+              throw new SQLException("status not available");
+            });
+    try {
+      monitor.monitor("q1").get(10, TimeUnit.SECONDS);
+      fail("Expected the status read to fail");
+    } catch (ExecutionException ex) {
+      assertEquals("status not available", ex.getCause().getMessage());
+    } finally {
+      monitor.close();
+    }
+  }
+
+  @Test
+  public void testCloseFailsPendingQueries() throws Exception {
+    AsyncQueryMonitor monitor = new AsyncQueryMonitor(queryID -> status(queryID, "RUNNING"));
+    CompletableFuture<QueryStatusV2> future = monitor.monitor("q1");
+    monitor.close();
+    assertTrue(future.isCompletedExceptionally());
+    assertTrue(monitor.monitor("q2").isCompletedExceptionally());
+  }
+
+  @Test
+  public void testPollIntervalGrowsWithQueryAge() {
+    assertEquals(AsyncQueryMonitor.MIN_POLL_INTERVAL_MILLIS, AsyncQueryMonitor.getPollInterval(0));
+    assertEquals(1000, AsyncQueryMonitor.getPollInterval(4000));
+    assertEquals(
+        AsyncQueryMonitor.MAX_POLL_INTERVAL_MILLIS, AsyncQueryMonitor.getPollInterval(3600_000));
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2012-2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeFalse;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+import net.snowflake.client.RunningNotOnLinuxMac;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FileCacheManagerTest {
+  private static final String CACHE_DIR_PROP = "net.snowflake.jdbc.testCacheDir";
+
+  @Rule public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+  private File cacheDir;
+
+  private FileCacheManager fileCacheManager;
+
+  @Before
+  public void setUp() throws IOException {
+    cacheDir = tmpFolder.newFolder();
+    System.setProperty(CACHE_DIR_PROP, cacheDir.getCanonicalPath());
+    try {
+      fileCacheManager =
+          FileCacheManager.builder()
+              .setCacheDirectorySystemProperty(CACHE_DIR_PROP)
+              .setBaseCacheFileName("cache.json")
+              .setCacheExpirationInSeconds(60)
+              .setCacheFileLockExpirationInSeconds(60)
+              .build();
+    } finally {
+      System.clearProperty(CACHE_DIR_PROP);
+    }
+  }
+
+  @Test
+  public void testWriteReplacesCacheFile() {
+    ObjectNode first = ObjectMapperFactory.getObjectMapper().createObjectNode().put("a", 1);
+    fileCacheManager.writeCacheFile(first);
+    ObjectNode second = ObjectMapperFactory.getObjectMapper().createObjectNode().put("b", 2);
+    fileCacheManager.writeCacheFile(second);
+
+    assertEquals(second, fileCacheManager.readCacheFile());
+    // no temporary file or lock is left behind
+    assertArrayEquals(new String[] {"cache.json"}, cacheDir.list());
+  }
+
+  @Test
+  public void testUpdateReadsCacheFileUnderLock() {
+    ObjectNode first = ObjectMapperFactory.getObjectMapper().createObjectNode().put("a", 1);
+    fileCacheManager.writeCacheFile(first);
+    ObjectNode second = first.deepCopy().put("b", 2);
+    fileCacheManager.updateCacheFile(
+        content -> {
+          assertEquals(first, content);
+          // other processes can't write the cache file until it is updated
+          assertTrue(new File(cacheDir, "cache.json.lck").isDirectory());
+          return second;
+        });
+
+    assertEquals(second, fileCacheManager.readCacheFile());
+    assertArrayEquals(new String[] {"cache.json"}, cacheDir.list());
+  }
+
+  @Test
+  public void testWriteKeepsPermissionsOfCacheFile() throws IOException {
+    assumeFalse(RunningNotOnLinuxMac.isNotRunningOnLinuxMac());
+    Path cacheFile = new File(cacheDir, "cache.json").toPath();
+    Set<PosixFilePermission> perms = PosixFilePermissions.fromString("rw-r--r--");
+    Files.setPosixFilePermissions(cacheFile, perms);
+
+    fileCacheManager.writeCacheFile(
+        ObjectMapperFactory.getObjectMapper().createObjectNode().put("a", 1));
+
+    assertEquals(perms, Files.getPosixFilePermissions(cacheFile));
+  }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2012-2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.core;
+
+import static org.hamcrest.CoreMatchers.hasItems;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+
+import java.io.IOException;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.junit.Test;
+
+public class HttpUtilTest {
+  private static void assertIdlePool(PoolingHttpClientConnectionManager connectionManager) {
+    PoolStats stats = connectionManager.getTotalStats();
+    assertEquals(HttpUtil.DEFAULT_MAX_CONNECTIONS, stats.getMax());
+    assertEquals(0, stats.getLeased());
+  }
+
+  @Test
+  public void testPoolStatsCoverAllClients() throws IOException {
+    HttpClientSettingsKey key = new HttpClientSettingsKey(OCSPMode.INSECURE);
+    try (CloseableHttpClient client = HttpUtil.buildHttpClient(key, null, false);
+        CloseableHttpClient uncompressedClient = HttpUtil.buildHttpClient(key, null, true)) {
+      PoolingHttpClientConnectionManager connectionManager = HttpUtil.getConnectionManager(client);
+      PoolingHttpClientConnectionManager uncompressedConnectionManager =
+          HttpUtil.getConnectionManager(uncompressedClient);
+      assertNotNull(connectionManager);
+      assertNotNull(uncompressedConnectionManager);
+      assertNotSame(connectionManager, uncompressedConnectionManager);
+      // the stats sum the pools of all the clients
+      assertThat(
+          HttpUtil.getConnectionManagers(),
+          hasItems(connectionManager, uncompressedConnectionManager));
+      assertIdlePool(connectionManager);
+      assertIdlePool(uncompressedConnectionManager);
+    }
+  }
+}
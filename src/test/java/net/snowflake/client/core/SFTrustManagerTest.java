@@ -4,16 +4,45 @@ import static net.snowflake.client.core.SessionUtil.CLIENT_MEMORY_LIMIT;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import java.nio.charset.StandardCharsets;
 import java.sql.ResultSet;
 import java.util.Base64;
+import java.util.Date;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 import net.snowflake.client.jdbc.SnowflakeResultSetSerializable;
 import net.snowflake.client.jdbc.SnowflakeResultSetSerializableV1;
+import org.bouncycastle.cert.ocsp.BasicOCSPResp;
+import org.bouncycastle.cert.ocsp.SingleResp;
 import org.junit.Test;
 
 public class SFTrustManagerTest {
+  @Test
+  public void testVerifiedOcspResponseValidity() {
+    long thisUpdate = System.currentTimeMillis();
+    long nextUpdate = thisUpdate + TimeUnit.DAYS.toMillis(4);
+    SingleResp singleResp = mock(SingleResp.class);
+    when(singleResp.getThisUpdate()).thenReturn(new Date(thisUpdate));
+    when(singleResp.getNextUpdate()).thenReturn(new Date(nextUpdate));
+    BasicOCSPResp basicOcspResp = mock(BasicOCSPResp.class);
+    when(basicOcspResp.getResponses()).thenReturn(new SingleResp[] {singleResp});
+
+    SFTrustManager.VerifiedOcspResponse verified =
+        SFTrustManager.VerifiedOcspResponse.of("response", basicOcspResp, null);
+    assertTrue(verified.isValid(thisUpdate));
+    assertTrue(verified.isValid(nextUpdate + TimeUnit.HOURS.toMillis(1)));
+    assertFalse(verified.isValid(nextUpdate + TimeUnit.HOURS.toMillis(6)));
+    assertFalse(verified.isValid(thisUpdate - TimeUnit.HOURS.toMillis(1)));
+
+    assertFalse(verified.isRefreshDue(thisUpdate + TimeUnit.DAYS.toMillis(2)));
+    assertTrue(verified.isRefreshDue(thisUpdate + TimeUnit.DAYS.toMillis(3)));
+  }
+
   /** Test building OCSP retry URL */
   @Test
   public void testBuildRetryURL() throws Exception {
@@ -38,7 +38,7 @@ public class StmtUtilTest extends BaseJDBCTest {
       // Both mocks the call _and_ verifies that the headers are forwarded.
       Verification httpCalledWithHeaders =
           () ->
-              HttpUtil.executeRequest(
+              HttpUtil.executeRequestForJson(
                   Mockito.argThat(
                       arg -> {
                         for (Entry<String, String> definedHeader : additionalHeaders.entrySet()) {
@@ -66,7 +66,9 @@ public class StmtUtilTest extends BaseJDBCTest {
                   Mockito.nullable(ExecTimeTelemetryData.class));
       mockedHttpUtil
           .when(httpCalledWithHeaders)
-          .thenReturn("{\"data\":null,\"code\":333334,\"message\":null,\"success\":true}");
+          .thenReturn(
+              ObjectMapperFactory.getObjectMapper()
+                  .readTree("{\"data\":null,\"code\":333334,\"message\":null,\"success\":true}"));
 
       mockedHttpUtil
           .when(() -> HttpUtil.applyAdditionalHeadersForSnowsight(any(), any()))
@@ -14,6 +14,7 @@ import static org.junit.Assert.assertTrue;
 import java.sql.Date;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.time.Instant;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -117,6 +118,7 @@ public class BigIntToTimestampLTZConverterTest extends BaseConverterTest {
       if (nullValIndex.contains(j)) {
         assertThat(ts, is(nullValue()));
         assertThat(date, is(nullValue()));
+        assertThat(converter.toInstant(j), is(nullValue()));
         assertThat(false, is(converter.toBoolean(j)));
         assertThat(converter.toBytes(j), is(nullValue()));
       } else {
@@ -154,6 +156,11 @@ public class BigIntToTimestampLTZConverterTest extends BaseConverterTest {
         assertThat(oldTime, is(time));
         assertThat(timestampStr, is(tsStr));
         assertThat(converter.toBytes(j), is(notNullValue()));
+        Instant instant = converter.toInstant(j);
+        assertThat(instant, is(ts.toInstant()));
+        assertThat(
+            converter.toLocalDateTime(j),
+            is(instant.atZone(getTimeZone().toZoneId()).toLocalDateTime()));
         i++;
         if (i < testScales.length) {
           this.setScale(testScales[i]);
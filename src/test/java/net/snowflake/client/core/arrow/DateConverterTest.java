@@ -104,12 +104,14 @@ public class DateConverterTest extends BaseConverterTest {
         assertThat(intVal, is(0));
         assertThat(obj, is(nullValue()));
         assertThat(strVal, is(nullValue()));
+        assertThat(converter.toLocalDate(j), is(nullValue()));
         assertThat(false, is(converter.toBoolean(j)));
         assertThat(converter.toBytes(j), is(nullValue()));
       } else {
         assertThat(intVal, is(testDates[i]));
         assertThat(((Date) obj).getTime(), is(((Date) oldObj).getTime()));
         assertThat(obj.toString(), is(expectedDates[i]));
+        assertThat(converter.toLocalDate(j).toString(), is(expectedDates[i]));
         assertThat(((Date) obj).getTime(), is(((Date) oldObj).getTime()));
         assertThat(oldObj.toString(), is(expectedDates[i++]));
         final int x = j;
@@ -13,6 +13,8 @@ import static org.junit.Assert.assertTrue;
 import java.sql.Date;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -172,6 +174,7 @@ public class ThreeFieldStructToTimestampTZConverterTest extends BaseConverterTes
       if (nullValIndex.contains(j)) {
         assertThat(ts, is(nullValue()));
         assertThat(date, is(nullValue()));
+        assertThat(converter.toOffsetDateTime(j), is(nullValue()));
         assertThat(false, is(converter.toBoolean(j)));
         assertThat(converter.toBytes(j), is(nullValue()));
       } else {
@@ -208,6 +211,12 @@ public class ThreeFieldStructToTimestampTZConverterTest extends BaseConverterTes
         assertThat(oldTs, is(ts));
         assertThat(oldTime, is(time));
         assertThat(timestampStr, is(tsStr));
+        OffsetDateTime offsetDateTime = converter.toOffsetDateTime(j);
+        assertThat(offsetDateTime.toInstant(), is(ts.toInstant()));
+        assertThat(
+            offsetDateTime.getOffset(),
+            is(ZoneOffset.ofTotalSeconds((testTimeZoneIndices[i] - 1440) * 60)));
+        assertThat(converter.toLocalDateTime(j), is(offsetDateTime.toLocalDateTime()));
         final int x = j;
         TestUtil.assertSFException(invalidConversionErrorCode, () -> converter.toBoolean(x));
         TestUtil.assertSFException(invalidConversionErrorCode, () -> converter.toBytes(x));
@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2012-2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.core.arrow;
+
+import static org.junit.Assert.assertEquals;
+
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import net.snowflake.client.TestUtil;
+import net.snowflake.client.core.SFException;
+import net.snowflake.client.core.SFSession;
+import net.snowflake.client.core.json.DateTimeConverter;
+import net.snowflake.client.jdbc.SnowflakeUtil;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.complex.StructVector;
+import org.apache.arrow.vector.types.Types.MinorType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.junit.After;
+import org.junit.Test;
+
+/** JSON and Arrow results return the same java.time values for timestamps */
+public class TimestampJavaTimeParityTest extends BaseConverterTest {
+  private static final TimeZone SESSION_TIME_ZONE = TimeZone.getTimeZone("Pacific/Honolulu");
+
+  private static final List<Class<?>> JAVA_TIME_TYPES =
+      Arrays.asList(
+          LocalDateTime.class,
+          OffsetDateTime.class,
+          Instant.class,
+          LocalDate.class,
+          LocalTime.class);
+
+  private static final String[] JSON_VALUES = {
+    "1691568123.456789123", "-12345.123456789", "0.000000001"
+  };
+
+  private static final long[] SECONDS = {1691568123L, -12346L, 0L};
+
+  private static final int[] NANOS = {456789123, 876543211, 1};
+
+  private static final long[] SCALED_VALUES = {1691568123456789123L, -12345123456789L, 1L};
+
+  private static final int[] TIME_ZONE_INDICES = {1920, 960, 1440};
+
+  private final BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+
+  private final List<ValueVector> vectors = new ArrayList<>();
+
+  public TimestampJavaTimeParityTest() {
+    setScale(9);
+  }
+
+  @After
+  public void closeVectors() {
+    vectors.forEach(ValueVector::close);
+    allocator.close();
+  }
+
+  private static FieldType fieldType(MinorType type) {
+    Map<String, String> customFieldMeta = new HashMap<>();
+    customFieldMeta.put("logicalType", "TIMESTAMP");
+    return new FieldType(true, type.getType(), null, customFieldMeta);
+  }
+
+  private BigIntVector bigIntValues() {
+    BigIntVector bigIntVector =
+        new BigIntVector("timestamp", fieldType(MinorType.BIGINT), allocator);
+    vectors.add(bigIntVector);
+    for (int i = 0; i < SCALED_VALUES.length; i++) {
+      bigIntVector.setSafe(i, SCALED_VALUES[i]);
+    }
+    bigIntVector.setValueCount(SCALED_VALUES.length);
+    return bigIntVector;
+  }
+
+  private StructVector structValues(boolean withTimeZone) {
+    StructVector structVector = StructVector.empty("timestamp", allocator);
+    vectors.add(structVector);
+    List<Field> fields =
+        Arrays.asList(
+            new Field(
+                AbstractArrowVectorConverter.FIELD_NAME_EPOCH, fieldType(MinorType.BIGINT), null),
+            new Field(
+                AbstractArrowVectorConverter.FIELD_NAME_FRACTION, fieldType(MinorType.INT), null),
+            new Field(
+                AbstractArrowVectorConverter.FIELD_NAME_TIME_ZONE_INDEX,
+                fieldType(MinorType.INT),
+                null));
+    structVector.initializeChildrenFromFields(withTimeZone ? fields : fields.subList(0, 2));
+    BigIntVector epochs =
+        structVector.getChild(AbstractArrowVectorConverter.FIELD_NAME_EPOCH, BigIntVector.class);
+    IntVector fractions =
+        structVector.getChild(AbstractArrowVectorConverter.FIELD_NAME_FRACTION, IntVector.class);
+    for (int i = 0; i < SECONDS.length; i++) {
+      structVector.setIndexDefined(i);
+      epochs.setSafe(i, SECONDS[i]);
+      fractions.setSafe(i, NANOS[i]);
+      if (withTimeZone) {
+        structVector
+            .getChild(AbstractArrowVectorConverter.FIELD_NAME_TIME_ZONE_INDEX, IntVector.class)
+            .setSafe(i, TIME_ZONE_INDICES[i]);
+      }
+    }
+    structVector.setValueCount(SECONDS.length);
+    return structVector;
+  }
+
+  private static DateTimeConverter jsonConverter(boolean useSessionTimezone) {
+    return new DateTimeConverter(
+        SESSION_TIME_ZONE, new SFSession(), 1, true, false, useSessionTimezone, false);
+  }
+
+  /** Reads the value like SFArrowResultSet.getJavaTimeObject */
+  private static Object getArrowValue(ArrowVectorConverter converter, int index, Class<?> type)
+      throws SFException {
+    if (type == LocalDateTime.class) {
+      return converter.toLocalDateTime(index);
+    } else if (type == OffsetDateTime.class) {
+      return converter.toOffsetDateTime(index);
+    } else if (type == Instant.class) {
+      return converter.toInstant(index);
+    } else if (type == LocalDate.class) {
+      return converter.toLocalDate(index);
+    } else {
+      return converter.toLocalTime(index);
+    }
+  }
+
+  private void assertParity(
+      DateTimeConverter jsonConverter,
+      String[] jsonValues,
+      int columnSubType,
+      ArrowVectorConverter arrowConverter)
+      throws SFException {
+    for (int i = 0; i < jsonValues.length; i++) {
+      for (Class<?> type : JAVA_TIME_TYPES) {
+        assertEquals(
+            jsonValues[i] + " as " + type.getSimpleName(),
+            jsonConverter.getJavaTime(jsonValues[i], columnSubType, 9, type),
+            getArrowValue(arrowConverter, i, type));
+      }
+    }
+  }
+
+  @Test
+  public void testTimestampNTZIsReadAsWallClockTime() throws SFException {
+    DateTimeConverter jsonConverter = jsonConverter(false);
+    for (ArrowVectorConverter arrowConverter :
+        Arrays.asList(
+            new BigIntToTimestampNTZConverter(bigIntValues(), 0, this),
+            new TwoFieldStructToTimestampNTZConverter(structValues(false), 0, this))) {
+      for (int i = 0; i < JSON_VALUES.length; i++) {
+        LocalDateTime expected = LocalDateTime.ofEpochSecond(SECONDS[i], NANOS[i], ZoneOffset.UTC);
+        assertEquals(
+            expected,
+            jsonConverter.getJavaTime(JSON_VALUES[i], Types.TIMESTAMP, 9, LocalDateTime.class));
+        assertEquals(expected, arrowConverter.toLocalDateTime(i));
+        assertEquals(expected.toLocalDate(), arrowConverter.toLocalDate(i));
+        assertEquals(expected.toLocalTime(), arrowConverter.toLocalTime(i));
+
+        // a wall clock time without time zone is not an instant
+        String jsonValue = JSON_VALUES[i];
+        int index = i;
+        TestUtil.assertSFException(
+            invalidConversionErrorCode,
+            () -> jsonConverter.getJavaTime(jsonValue, Types.TIMESTAMP, 9, Instant.class));
+        TestUtil.assertSFException(
+            invalidConversionErrorCode,
+            () -> jsonConverter.getJavaTime(jsonValue, Types.TIMESTAMP, 9, OffsetDateTime.class));
+        TestUtil.assertSFException(
+            invalidConversionErrorCode, () -> arrowConverter.toInstant(index));
+        TestUtil.assertSFException(
+            invalidConversionErrorCode, () -> arrowConverter.toOffsetDateTime(index));
+      }
+    }
+  }
+
+  @Test
+  public void testTimestampLTZ() throws SFException {
+    for (boolean useSessionTimezone : new boolean[] {false, true}) {
+      DateTimeConverter jsonConverter = jsonConverter(useSessionTimezone);
+      ZoneId zone = useSessionTimezone ? SESSION_TIME_ZONE.toZoneId() : ZoneId.systemDefault();
+      for (ArrowVectorConverter arrowConverter :
+          Arrays.asList(
+              new BigIntToTimestampLTZConverter(bigIntValues(), 0, this),
+              new TwoFieldStructToTimestampLTZConverter(structValues(false), 0, this))) {
+        arrowConverter.setSessionTimeZone(SESSION_TIME_ZONE);
+        arrowConverter.setUseSessionTimezone(useSessionTimezone);
+        assertParity(
+            jsonConverter, JSON_VALUES, SnowflakeUtil.EXTRA_TYPES_TIMESTAMP_LTZ, arrowConverter);
+        for (int i = 0; i < SECONDS.length; i++) {
+          Instant instant = Instant.ofEpochSecond(SECONDS[i], NANOS[i]);
+          assertEquals(instant, arrowConverter.toInstant(i));
+          assertEquals(
+              OffsetDateTime.ofInstant(instant, zone), arrowConverter.toOffsetDateTime(i));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testTimestampTZ() throws SFException {
+    String[] jsonValues = new String[JSON_VALUES.length];
+    for (int i = 0; i < JSON_VALUES.length; i++) {
+      jsonValues[i] = JSON_VALUES[i] + " " + TIME_ZONE_INDICES[i];
+    }
+    ArrowVectorConverter arrowConverter =
+        new ThreeFieldStructToTimestampTZConverter(structValues(true), 0, this);
+    assertParity(
+        jsonConverter(false), jsonValues, SnowflakeUtil.EXTRA_TYPES_TIMESTAMP_TZ, arrowConverter);
+    for (int i = 0; i < SECONDS.length; i++) {
+      assertEquals(
+          OffsetDateTime.ofInstant(
+              Instant.ofEpochSecond(SECONDS[i], NANOS[i]),
+              ZoneOffset.ofTotalSeconds((TIME_ZONE_INDICES[i] - 1440) * 60)),
+          arrowConverter.toOffsetDateTime(i));
+    }
+  }
+}
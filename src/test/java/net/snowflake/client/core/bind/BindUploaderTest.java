@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2012-2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.core.bind;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.snowflake.client.core.ParameterBindingDTO;
+import net.snowflake.client.core.SFBaseStatement;
+import net.snowflake.client.core.SFSession;
+import net.snowflake.client.core.SFStatement;
+import net.snowflake.client.jdbc.FileBackedOutputStream;
+import net.snowflake.client.jdbc.FileUploaderPrepIT;
+import net.snowflake.client.jdbc.SFConnectionHandler;
+import net.snowflake.client.jdbc.SnowflakeFileTransferAgent;
+import net.snowflake.client.jdbc.SnowflakeSQLException;
+import net.snowflake.client.jdbc.SnowflakeType;
+import net.snowflake.client.jdbc.cloud.storage.SnowflakeStorageClient;
+import net.snowflake.client.jdbc.cloud.storage.StorageClientCache;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Unit tests of the bind uploader with a mocked session and storage client */
+public class BindUploaderTest extends FileUploaderPrepIT {
+  private SFSession session;
+
+  private StorageClientCache storageClientCache;
+
+  private SnowflakeStorageClient storageClient;
+
+  // uploaded data by bind file name
+  private final Map<String, byte[]> uploadedFiles = new ConcurrentHashMap<>();
+
+  private final AtomicInteger uploadAttempts = new AtomicInteger();
+
+  // name of the bind file whose upload fails
+  private volatile String failingFile;
+
+  @Before
+  public void setUp() throws Exception {
+    session = mock(SFSession.class);
+    when(session.getArrayBindStage()).thenReturn("SYSTEM$BIND");
+
+    storageClient = mock(SnowflakeStorageClient.class);
+    doAnswer(
+            invocation -> {
+              String destFileName = invocation.getArgument(6);
+              String fileName = destFileName.substring(destFileName.lastIndexOf('/') + 1);
+              uploadAttempts.incrementAndGet();
+              if (fileName.equals(failingFile)) {
+                throw new SnowflakeSQLException("injected upload failure", "XX000");
+              }
+              InputStream inputStream = invocation.getArgument(7);
+              FileBackedOutputStream fileBackedOutputStream = invocation.getArgument(8);
+              byte[] data;
+              if (fileBackedOutputStream != null) {
+                data = fileBackedOutputStream.asByteSource().read();
+              } else {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = inputStream.read(buffer)) != -1) {
+                  out.write(buffer, 0, read);
+                }
+                data = out.toByteArray();
+              }
+              uploadedFiles.put(fileName, data);
+              return null;
+            })
+        .when(storageClient)
+        .upload(
+            any(),
+            any(),
+            anyInt(),
+            anyBoolean(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any());
+    storageClientCache = mockStorageClientCache(session, storageClient);
+
+    SFStatement statement = mockStatement(exampleS3PutJsonNode);
+    SFConnectionHandler connectionHandler = mock(SFConnectionHandler.class);
+    when(connectionHandler.getBindStageName()).thenReturn("SYSTEM$BIND");
+    when(connectionHandler.getSFStatement()).thenReturn(mock(SFBaseStatement.class));
+    when(connectionHandler.getFileTransferAgent(anyString(), any()))
+        .thenAnswer(
+            invocation ->
+                new SnowflakeFileTransferAgent(invocation.getArgument(0), session, statement));
+    when(session.getSfConnectionHandler()).thenReturn(connectionHandler);
+  }
+
+  private static Map<String, ParameterBindingDTO> bindValues(int rowCount) {
+    List<String> names = new ArrayList<>(rowCount);
+    List<String> values = new ArrayList<>(rowCount);
+    for (int i = 0; i < rowCount; i++) {
+      names.add("row" + i);
+      values.add(Integer.toString(i));
+    }
+    Map<String, ParameterBindingDTO> bindValues = new HashMap<>();
+    bindValues.put("1", new ParameterBindingDTO("TEXT", names));
+    bindValues.put("2", new ParameterBindingDTO("FIXED", values));
+    return bindValues;
+  }
+
+  /** @return the uploaded files of the bind uploader in file order */
+  private String getUploadedData(int fileCount) {
+    StringBuilder data = new StringBuilder();
+    for (int i = 1; i <= fileCount; i++) {
+      data.append(new String(uploadedFiles.get(Integer.toString(i)), StandardCharsets.UTF_8));
+    }
+    return data.toString();
+  }
+
+  @Test
+  public void testMultipleFilesWithStorageClientCache() throws Exception {
+    int rowCount = 200;
+    try (BindUploader uploader = BindUploader.newInstance(session, "bind_dir")) {
+      uploader.setInputStreamBufferSize(100);
+      uploader.setUploadParallelism(3);
+      uploader.upload(bindValues(rowCount), false);
+
+      int fileCount = uploader.getFileCount();
+      assertTrue(fileCount > 3);
+      assertEquals(fileCount, uploadedFiles.size());
+      StringBuilder expected = new StringBuilder();
+      for (int i = 0; i < rowCount; i++) {
+        expected.append("row").append(i).append(',').append(i).append('\n');
+      }
+      assertEquals(expected.toString(), getUploadedData(fileCount));
+
+      // every file takes the cached client and gives it back, and it is never shut down
+      verify(storageClientCache, times(fileCount)).acquire(any(), anyInt(), any(), any());
+      verify(storageClientCache, times(fileCount)).release(storageClient);
+      verify(storageClient, never()).shutdown();
+    }
+  }
+
+  @Test
+  public void testFailedUploadStopsSerialization() throws Exception {
+    failingFile = "2";
+    try (BindUploader uploader = BindUploader.newInstance(session, "bind_dir")) {
+      uploader.setInputStreamBufferSize(100);
+      uploader.setUploadParallelism(2);
+      try {
+        uploader.upload(bindValues(2000), false);
+        fail("the failed upload of a bind file is not reported");
+      } catch (SQLException ex) {
+        assertThat(ex.getMessage(), containsString("injected upload failure"));
+      }
+      // about 200 files are serialized without the failure, only a few once it is seen
+      assertThat(uploader.getFileCount(), lessThan(50));
+      assertThat(uploadAttempts.get(), lessThan(50));
+    }
+  }
+
+  @Test
+  public void testCSVMatchesRowByRowSerialization() throws Exception {
+    List<String> texts =
+        Arrays.asList(
+            "plain",
+            "",
+            null,
+            "comma, inside",
+            "\"quoted\"",
+            "new\nline",
+            "back\\slash",
+            "unicode \u00e9\u4e2d\ud83d\ude00",
+            "trailing space ");
+    int rowCount = 500;
+    List<String> names = new ArrayList<>(rowCount);
+    List<String> values = new ArrayList<>(rowCount);
+    for (int i = 0; i < rowCount; i++) {
+      names.add(texts.get(i % texts.size()));
+      values.add(i % 7 == 0 ? null : Integer.toString(i));
+    }
+    Map<String, ParameterBindingDTO> bindValues = new HashMap<>();
+    bindValues.put("1", new ParameterBindingDTO("TEXT", names));
+    bindValues.put("2", new ParameterBindingDTO("FIXED", values));
+
+    // the files of the former serialization, which encoded each row on its own and cut a file
+    // once it reached the buffer size
+    int bufferSize = 200;
+    List<byte[]> expectedFiles = new ArrayList<>();
+    ByteArrayOutputStream expectedFile = new ByteArrayOutputStream();
+    for (int i = 0; i < rowCount; i++) {
+      String record =
+          SnowflakeType.escapeForCSV(names.get(i))
+              + ','
+              + SnowflakeType.escapeForCSV(values.get(i))
+              + '\n';
+      expectedFile.write(record.getBytes(StandardCharsets.UTF_8));
+      if (expectedFile.size() >= bufferSize || i == rowCount - 1) {
+        expectedFiles.add(expectedFile.toByteArray());
+        expectedFile.reset();
+      }
+    }
+
+    try (BindUploader uploader = BindUploader.newInstance(session, "bind_dir")) {
+      uploader.setInputStreamBufferSize(bufferSize);
+      uploader.upload(bindValues, false);
+
+      assertEquals(expectedFiles.size(), uploader.getFileCount());
+      for (int i = 0; i < expectedFiles.size(); i++) {
+        String fileName = Integer.toString(i + 1);
+        assertArrayEquals(
+            "bind file " + fileName, expectedFiles.get(i), uploadedFiles.get(fileName));
+      }
+    }
+  }
+
+  @Test
+  public void testValueThatIsNotAString() throws Exception {
+    Map<String, ParameterBindingDTO> bindValues = new HashMap<>();
+    bindValues.put("1", new ParameterBindingDTO("FIXED", Arrays.asList("1", 2)));
+    try (BindUploader uploader = BindUploader.newInstance(session, "bind_dir")) {
+      uploader.upload(bindValues, false);
+      fail("a value that is not a String is serialized");
+    } catch (BindException ex) {
+      assertEquals("Value in binding DTO could not be cast to a String", ex.getMessage());
+    }
+  }
+}
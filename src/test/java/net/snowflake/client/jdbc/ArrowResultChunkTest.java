@@ -5,7 +5,31 @@ package net.snowflake.client.jdbc;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.fail;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.types.Types;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
 import org.junit.Test;
 
 public class ArrowResultChunkTest {
@@ -17,4 +41,260 @@ public class ArrowResultChunkTest {
     assertThat(iterator.isAfterLast(), is(true));
     assertThat(iterator.isLast(), is(false));
   }
+
+  @Test
+  public void testPipelinedLoadingPublishesFirstBatchBeforeStreamEnds() throws Exception {
+    Map<String, String> customFieldMeta = new HashMap<>();
+    customFieldMeta.put("logicalType", "FIXED");
+    customFieldMeta.put("scale", "0");
+    FieldType type = new FieldType(true, Types.MinorType.INT.getType(), null, customFieldMeta);
+    Schema schema = new Schema(Collections.singletonList(new Field("C1", type, null)));
+
+    try (RootAllocator allocator = new RootAllocator(Long.MAX_VALUE)) {
+      ArrowResultChunk chunk = new ArrowResultChunk("", 4, 1, 0, allocator, null);
+      chunk.enablePipelinedLoading();
+
+      PipedOutputStream out = new PipedOutputStream();
+      PipedInputStream in = new PipedInputStream(out, 1024 * 1024);
+      CountDownLatch firstBatchConsumed = new CountDownLatch(1);
+
+      CompletableFuture<Void> writer =
+          CompletableFuture.runAsync(
+              () -> {
+                try (VectorSchemaRoot root = VectorSchemaRoot.create(schema, allocator);
+                    ArrowStreamWriter streamWriter = new ArrowStreamWriter(root, null, out)) {
+                  IntVector vector = (IntVector) root.getVector(0);
+                  streamWriter.start();
+                  for (int batch = 0; batch < 2; batch++) {
+                    if (batch == 1) {
+                      // the second batch is only sent once the first one was consumed
+                      firstBatchConsumed.await(30, TimeUnit.SECONDS);
+                    }
+                    vector.allocateNew(2);
+                    vector.set(0, batch * 2);
+                    vector.set(1, batch * 2 + 1);
+                    root.setRowCount(2);
+                    streamWriter.writeBatch();
+                  }
+                  streamWriter.end();
+                  out.close();
+                } catch (Exception e) {
+                  throw new RuntimeException(e);
+                }
+              });
+      CompletableFuture<Void> loader =
+          CompletableFuture.runAsync(
+              () -> {
+                try {
+                  chunk.readArrowStream(in);
+                } catch (Exception e) {
+                  throw new RuntimeException(e);
+                }
+              });
+
+      chunk.getLock().lock();
+      try {
+        while (chunk.getDownloadState() != SnowflakeResultChunk.DownloadState.SUCCESS) {
+          chunk.getDownloadCondition().await(30, TimeUnit.SECONDS);
+        }
+      } finally {
+        chunk.getLock().unlock();
+      }
+
+      ArrowResultChunk.ArrowChunkIterator iterator = chunk.getIterator(null);
+      for (int row = 0; row < 4; row++) {
+        assertThat(iterator.next(), is(true));
+        assertThat(
+            iterator.getCurrentConverter(0).toInt(iterator.getCurrentRowInRecordBatch()), is(row));
+        assertThat(iterator.isLast(), is(row == 3));
+        if (row == 1) {
+          firstBatchConsumed.countDown();
+        }
+      }
+      assertThat(iterator.next(), is(false));
+      assertThat(iterator.isAfterLast(), is(true));
+
+      writer.get(30, TimeUnit.SECONDS);
+      loader.get(30, TimeUnit.SECONDS);
+      chunk.freeData();
+    }
+  }
+
+  private static byte[] writeIntBatches(RootAllocator allocator, int batches) throws Exception {
+    Map<String, String> customFieldMeta = new HashMap<>();
+    customFieldMeta.put("logicalType", "FIXED");
+    customFieldMeta.put("scale", "0");
+    FieldType type = new FieldType(true, Types.MinorType.INT.getType(), null, customFieldMeta);
+    Schema schema = new Schema(Collections.singletonList(new Field("C1", type, null)));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (VectorSchemaRoot root = VectorSchemaRoot.create(schema, allocator);
+        ArrowStreamWriter streamWriter = new ArrowStreamWriter(root, null, out)) {
+      IntVector vector = (IntVector) root.getVector(0);
+      streamWriter.start();
+      for (int batch = 0; batch < batches; batch++) {
+        vector.allocateNew(1024);
+        for (int i = 0; i < 1024; i++) {
+          vector.set(i, i);
+        }
+        root.setRowCount(1024);
+        streamWriter.writeBatch();
+      }
+      streamWriter.end();
+    }
+    return out.toByteArray();
+  }
+
+  @Test
+  public void testFreedChunkStopsLoading() throws Exception {
+    try (RootAllocator allocator = new RootAllocator(Long.MAX_VALUE)) {
+      byte[] data = writeIntBatches(allocator, 2);
+      ArrowResultChunk chunk = new ArrowResultChunk("", 2048, 1, 0, allocator, null);
+      chunk.enablePipelinedLoading();
+      chunk.freeData();
+
+      chunk.readArrowStream(new ByteArrayInputStream(data));
+      assertThat(chunk.keepsPublishedBatches(), is(false));
+      assertThat(allocator.getAllocatedMemory(), is(0L));
+
+      // a chunk downloaded again after a reset loads its batches
+      chunk.reset();
+      chunk.readArrowStream(new ByteArrayInputStream(data));
+      assertThat(chunk.getIterator(null).next(), is(true));
+      chunk.freeData();
+    }
+  }
+
+  @Test
+  public void testFailureAfterPublishedBatchesKeepsChunkData() throws Exception {
+    try (RootAllocator allocator = new RootAllocator(Long.MAX_VALUE)) {
+      byte[] data = writeIntBatches(allocator, 2);
+      ArrowResultChunk chunk = new ArrowResultChunk("", 2048, 1, 0, allocator, null);
+      chunk.enablePipelinedLoading();
+
+      // the stream breaks in the second record batch
+      try {
+        chunk.readArrowStream(new ByteArrayInputStream(Arrays.copyOf(data, data.length - 100)));
+        fail("Expected the truncated stream to fail");
+      } catch (IOException ex) {
+        // expected
+      }
+      assertThat(chunk.keepsPublishedBatches(), is(true));
+      assertThat(chunk.getIterator(null).next(), is(true));
+      chunk.freeData();
+      assertThat(chunk.keepsPublishedBatches(), is(false));
+    }
+  }
+
+  @Test
+  public void testRecordBatchRows() throws Exception {
+    Map<String, String> fixedMeta = new HashMap<>();
+    fixedMeta.put("logicalType", "FIXED");
+    fixedMeta.put("scale", "0");
+    Map<String, String> textMeta = new HashMap<>();
+    textMeta.put("logicalType", "TEXT");
+    Schema schema =
+        new Schema(
+            Arrays.asList(
+                new Field(
+                    "C1",
+                    new FieldType(true, Types.MinorType.INT.getType(), null, fixedMeta),
+                    null),
+                new Field(
+                    "C2",
+                    new FieldType(true, Types.MinorType.VARCHAR.getType(), null, textMeta),
+                    null)));
+
+    try (RootAllocator allocator = new RootAllocator(Long.MAX_VALUE)) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      try (VectorSchemaRoot root = VectorSchemaRoot.create(schema, allocator);
+          ArrowStreamWriter streamWriter = new ArrowStreamWriter(root, null, out)) {
+        IntVector intVector = (IntVector) root.getVector(0);
+        VarCharVector varCharVector = (VarCharVector) root.getVector(1);
+        intVector.allocateNew(3);
+        varCharVector.allocateNew(3);
+        intVector.set(0, 1);
+        intVector.setNull(1);
+        intVector.set(2, 3);
+        varCharVector.setSafe(0, "a".getBytes(StandardCharsets.UTF_8));
+        varCharVector.setSafe(1, "bc".getBytes(StandardCharsets.UTF_8));
+        varCharVector.setNull(2);
+        root.setRowCount(3);
+        streamWriter.start();
+        streamWriter.writeBatch();
+        streamWriter.end();
+      }
+
+      ArrowResultChunk chunk = new ArrowResultChunk("", 3, 2, 0, allocator, null);
+      chunk.readArrowStream(new ByteArrayInputStream(out.toByteArray()));
+      ArrowResultChunk.ArrowChunkIterator iterator = chunk.getIterator(null);
+      assertThat(iterator.next(), is(true));
+      assertThat(iterator.next(), is(true));
+
+      // the batch starts at the current row
+      SnowflakeRecordBatch batch = iterator.nextRecordBatchRows();
+      assertThat(batch.getRowCount(), is(2));
+      assertThat(batch.getColumnCount(), is(2));
+      SnowflakeColumnVector numbers = batch.getColumn(1);
+      assertThat(numbers.isNull(0), is(true));
+      assertArrayEquals(new long[] {0, 3}, numbers.getLongs());
+      SnowflakeColumnVector strings = batch.getColumn(2);
+      assertThat(strings.getNulls().get(1), is(true));
+      assertArrayEquals("bc".getBytes(StandardCharsets.UTF_8), strings.getUtf8Bytes());
+      assertArrayEquals(new int[] {0, 2, 2}, strings.getUtf8Offsets());
+
+      assertThat(iterator.isLast(), is(true));
+      assertThat(iterator.next(), is(false));
+      chunk.freeData();
+    }
+  }
+
+  @Test
+  public void testTransferRecordBatchRows() throws Exception {
+    Map<String, String> customFieldMeta = new HashMap<>();
+    customFieldMeta.put("logicalType", "FIXED");
+    customFieldMeta.put("scale", "0");
+    FieldType type = new FieldType(true, Types.MinorType.INT.getType(), null, customFieldMeta);
+    Schema schema = new Schema(Collections.singletonList(new Field("C1", type, null)));
+
+    try (RootAllocator allocator = new RootAllocator(Long.MAX_VALUE)) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      try (VectorSchemaRoot root = VectorSchemaRoot.create(schema, allocator);
+          ArrowStreamWriter streamWriter = new ArrowStreamWriter(root, null, out)) {
+        IntVector vector = (IntVector) root.getVector(0);
+        streamWriter.start();
+        for (int batch = 0; batch < 2; batch++) {
+          vector.allocateNew(3);
+          for (int i = 0; i < 3; i++) {
+            vector.set(i, batch * 3 + i);
+          }
+          root.setRowCount(3);
+          streamWriter.writeBatch();
+        }
+        streamWriter.end();
+      }
+
+      ArrowResultChunk chunk = new ArrowResultChunk("", 6, 1, 0, allocator, null);
+      chunk.readArrowStream(new ByteArrayInputStream(out.toByteArray()));
+      ArrowResultChunk.ArrowChunkIterator iterator = chunk.getIterator(null);
+      try (VectorSchemaRoot target = VectorSchemaRoot.create(schema, allocator)) {
+        // a partial record batch is split off from the current row
+        assertThat(iterator.next(), is(true));
+        assertThat(iterator.next(), is(true));
+        assertThat(iterator.getCurrentRecordBatchSchema(), is(schema));
+        assertThat(iterator.transferRecordBatchRows(target.getFieldVectors()), is(2));
+        IntVector transferred = (IntVector) target.getVector(0);
+        assertThat(transferred.get(0), is(1));
+        assertThat(transferred.get(1), is(2));
+
+        // a whole record batch is transferred
+        assertThat(iterator.next(), is(true));
+        assertThat(iterator.transferRecordBatchRows(target.getFieldVectors()), is(3));
+        transferred = (IntVector) target.getVector(0);
+        assertThat(transferred.get(0), is(3));
+        assertThat(transferred.get(2), is(5));
+        assertThat(iterator.next(), is(false));
+      }
+      chunk.freeData();
+    }
+  }
 }
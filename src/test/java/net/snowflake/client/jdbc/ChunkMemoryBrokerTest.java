@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2012-2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class ChunkMemoryBrokerTest {
+  @Test
+  public void testReserveAndRelease() {
+    ChunkMemoryBroker broker = new ChunkMemoryBroker();
+    Object downloader = new Object();
+    broker.register(downloader, 100);
+
+    assertTrue(broker.tryReserve(downloader, 60));
+    assertFalse(broker.tryReserve(downloader, 60));
+    assertEquals(60, broker.getUsedMemory());
+
+    broker.release(downloader, 60);
+    assertTrue(broker.tryReserve(downloader, 60));
+    assertEquals(120, broker.getGrantedBytes());
+    assertEquals(60, broker.getDeniedBytes());
+
+    broker.unregister(downloader);
+    assertEquals(0, broker.getUsedMemory());
+  }
+
+  @Test
+  public void testAbandonedDownloaderIsReleased() throws InterruptedException {
+    ChunkMemoryBroker broker = new ChunkMemoryBroker();
+    Object downloader = new Object();
+    broker.register(downloader, 100);
+    assertTrue(broker.tryReserve(downloader, 60));
+
+    // the downloader is dropped without being unregistered
+    downloader = null;
+    for (int i = 0; i < 50 && broker.getUsedMemory() > 0; i++) {
+      System.gc();
+      Thread.sleep(100);
+    }
+    assertEquals(0, broker.getUsedMemory());
+  }
+
+  @Test
+  public void testLimitIsSharedAcrossDownloaders() {
+    ChunkMemoryBroker broker = new ChunkMemoryBroker();
+    Object first = new Object();
+    Object second = new Object();
+    broker.register(first, 100);
+    broker.register(second, 100);
+
+    assertTrue(broker.tryReserve(first, 80));
+    assertFalse(broker.tryReserve(second, 40));
+    assertTrue(broker.tryReserve(second, 20));
+  }
+
+  @Test
+  public void testFirstChunkLargerThanLimitIsGranted() {
+    ChunkMemoryBroker broker = new ChunkMemoryBroker();
+    Object downloader = new Object();
+    broker.register(downloader, 100);
+
+    assertTrue(broker.tryReserve(downloader, 200));
+  }
+
+  @Test
+  public void testBlockedConsumerIsWokenUpByRelease() throws Exception {
+    ChunkMemoryBroker broker = new ChunkMemoryBroker();
+    Object first = new Object();
+    Object second = new Object();
+    broker.register(first, 100);
+    broker.register(second, 100);
+    assertTrue(broker.tryReserve(first, 100));
+
+    CompletableFuture<Boolean> reserved =
+        CompletableFuture.supplyAsync(
+            () -> {
+              try {
+                return broker.reserve(second, 50, true, TimeUnit.SECONDS.toMillis(30));
+              } catch (InterruptedException e) {
+                return false;
+              }
+            });
+    Thread.sleep(100);
+    broker.release(first, 50);
+
+    assertTrue(reserved.get(30, TimeUnit.SECONDS));
+    assertEquals(100, broker.getUsedMemory());
+  }
+
+  @Test
+  public void testReserveTimesOut() throws InterruptedException {
+    ChunkMemoryBroker broker = new ChunkMemoryBroker();
+    Object first = new Object();
+    Object second = new Object();
+    broker.register(first, 100);
+    broker.register(second, 100);
+    assertTrue(broker.tryReserve(first, 100));
+
+    assertFalse(broker.reserve(second, 50, true, 10));
+    assertEquals(50, broker.getDeniedBytes());
+  }
+}
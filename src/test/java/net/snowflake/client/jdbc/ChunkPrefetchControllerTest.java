@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2012-2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class ChunkPrefetchControllerTest {
+  @Test
+  public void testStartsWithConfiguredWindow() {
+    ChunkPrefetchController controller = new ChunkPrefetchController(8, 4);
+    assertEquals(8, controller.getPrefetchSlots());
+    assertEquals(4, controller.getThreadCount());
+  }
+
+  @Test
+  public void testShrinksForSlowConsumer() {
+    ChunkPrefetchController controller = new ChunkPrefetchController(8, 4);
+    // a chunk takes 100 ms to load, the consumer needs 1000 ms per chunk
+    controller.recordChunkProcessed(80, 20);
+    controller.recordChunkConsumed(0, false);
+    controller.recordConsumerRequest(1000);
+    controller.recordChunkConsumed(1000, false);
+
+    assertEquals(2, controller.getPrefetchSlots());
+    assertEquals(2, controller.getThreadCount());
+  }
+
+  @Test
+  public void testGrowsForFastConsumer() {
+    ChunkPrefetchController controller = new ChunkPrefetchController(8, 4);
+    // a chunk takes 500 ms to load, the consumer needs 100 ms per chunk
+    controller.recordChunkProcessed(400, 100);
+    controller.recordChunkConsumed(0, false);
+    controller.recordConsumerRequest(100);
+    controller.recordChunkConsumed(100, false);
+
+    assertEquals(6, controller.getPrefetchSlots());
+    assertEquals(4, controller.getThreadCount());
+  }
+
+  @Test
+  public void testStallAndMemoryPressure() {
+    ChunkPrefetchController controller = new ChunkPrefetchController(8, 4);
+    controller.recordChunkProcessed(100, 0);
+    controller.recordChunkConsumed(0, false);
+    controller.recordConsumerRequest(1000);
+    controller.recordChunkConsumed(1000, true);
+    assertEquals(3, controller.getPrefetchSlots());
+
+    controller.recordMemoryPressure(1);
+    assertEquals(1, controller.getPrefetchSlots());
+
+    // starving again relaxes the memory cap by one slot
+    controller.recordConsumerRequest(2000);
+    controller.recordChunkConsumed(2000, true);
+    assertEquals(2, controller.getPrefetchSlots());
+  }
+}
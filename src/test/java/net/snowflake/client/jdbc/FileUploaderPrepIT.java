@@ -4,16 +4,28 @@
 
 package net.snowflake.client.jdbc;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.Arrays;
 import java.util.List;
+import net.snowflake.client.core.SFSession;
+import net.snowflake.client.core.SFStatement;
+import net.snowflake.client.core.SessionUtil;
+import net.snowflake.client.jdbc.cloud.storage.SnowflakeStorageClient;
+import net.snowflake.client.jdbc.cloud.storage.StorageClientCache;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.rules.TemporaryFolder;
 
 /** File uploader test prep reused by IT/connection tests and sessionless tests */
-abstract class FileUploaderPrepIT extends BaseJDBCTest {
+public abstract class FileUploaderPrepIT extends BaseJDBCTest {
   @Rule public TemporaryFolder folder = new TemporaryFolder();
   private ObjectMapper mapper = new ObjectMapper();
 
@@ -242,11 +254,108 @@ abstract class FileUploaderPrepIT extends BaseJDBCTest {
           + "  \"success\": true\n"
           + "}";
 
+  // PUT to an S3 stage without client side encryption, for tests with a mocked storage client
+  private final String exampleS3PutJsonString =
+      "{\n"
+          + "  \"data\": {\n"
+          + "    \"src_locations\": [\n"
+          + "      \"/tmp/files/orders_100.csv\"\n"
+          + "    ],\n"
+          + "    \"parallel\": 4,\n"
+          + "    \"autoCompress\": true,\n"
+          + "    \"overwrite\": true,\n"
+          + "    \"sourceCompression\": \"none\",\n"
+          + "    \"clientShowEncryptionParameter\": false,\n"
+          + "    \"queryId\": \"EXAMPLE_QUERY_ID\",\n"
+          + "    \"stageInfo\": {\n"
+          + "      \"locationType\": \"S3\",\n"
+          + "      \"location\": \"stage/location/foo/\",\n"
+          + "      \"region\": \"us-west-2\",\n"
+          + "      \"isClientSideEncrypted\": false,\n"
+          + "      \"creds\": {\n"
+          + "        \"AWS_KEY_ID\": \"EXAMPLE_AWS_KEY_ID\",\n"
+          + "        \"AWS_SECRET_KEY\": \"EXAMPLE_AWS_SECRET_KEY\",\n"
+          + "        \"AWS_TOKEN\": \"EXAMPLE_AWS_TOKEN\"\n"
+          + "      }\n"
+          + "    },\n"
+          + "    \"command\": \"UPLOAD\"\n"
+          + "  },\n"
+          + "  \"code\": null,\n"
+          + "  \"message\": null,\n"
+          + "  \"success\": true\n"
+          + "}";
+
+  // GET of an encrypted file from an S3 stage, for tests with a mocked storage client
+  private final String exampleS3GetJsonString =
+      "{\n"
+          + "  \"data\": {\n"
+          + "    \"src_locations\": [\n"
+          + "      \"orders_100.csv\"\n"
+          + "    ],\n"
+          + "    \"parallel\": 4,\n"
+          + "    \"overwrite\": true,\n"
+          + "    \"localLocation\": \"/tmp/files\",\n"
+          + "    \"clientShowEncryptionParameter\": false,\n"
+          + "    \"queryId\": \"EXAMPLE_QUERY_ID\",\n"
+          + "    \"encryptionMaterial\": [\n"
+          + "      {\n"
+          + "        \"queryStageMasterKey\": \"EXAMPLE_QUERY_STAGE_MASTER_KEY\",\n"
+          + "        \"queryId\": \"EXAMPLE_QUERY_ID\",\n"
+          + "        \"smkId\": 123\n"
+          + "      }\n"
+          + "    ],\n"
+          + "    \"stageInfo\": {\n"
+          + "      \"locationType\": \"S3\",\n"
+          + "      \"location\": \"stage/location/foo/\",\n"
+          + "      \"region\": \"us-west-2\",\n"
+          + "      \"isClientSideEncrypted\": true,\n"
+          + "      \"creds\": {\n"
+          + "        \"AWS_KEY_ID\": \"EXAMPLE_AWS_KEY_ID\",\n"
+          + "        \"AWS_SECRET_KEY\": \"EXAMPLE_AWS_SECRET_KEY\",\n"
+          + "        \"AWS_TOKEN\": \"EXAMPLE_AWS_TOKEN\"\n"
+          + "      }\n"
+          + "    },\n"
+          + "    \"command\": \"DOWNLOAD\"\n"
+          + "  },\n"
+          + "  \"code\": null,\n"
+          + "  \"message\": null,\n"
+          + "  \"success\": true\n"
+          + "}";
+
+  // PUT to a local directory
+  private final String exampleLocalFsPutJsonString =
+      "{\n"
+          + "  \"data\": {\n"
+          + "    \"src_locations\": [\n"
+          + "      \"/tmp/files/orders_100.csv\"\n"
+          + "    ],\n"
+          + "    \"parallel\": 4,\n"
+          + "    \"threshold\": 209715200,\n"
+          + "    \"autoCompress\": false,\n"
+          + "    \"overwrite\": true,\n"
+          + "    \"sourceCompression\": \"none\",\n"
+          + "    \"clientShowEncryptionParameter\": false,\n"
+          + "    \"queryId\": \"EXAMPLE_QUERY_ID\",\n"
+          + "    \"stageInfo\": {\n"
+          + "      \"locationType\": \"LOCAL_FS\",\n"
+          + "      \"location\": \"/tmp/stage\",\n"
+          + "      \"isClientSideEncrypted\": false\n"
+          + "    },\n"
+          + "    \"command\": \"UPLOAD\"\n"
+          + "  },\n"
+          + "  \"code\": null,\n"
+          + "  \"message\": null,\n"
+          + "  \"success\": true\n"
+          + "}";
+
   protected JsonNode exampleS3JsonNode;
   protected JsonNode exampleS3StageEndpointJsonNode;
   protected JsonNode exampleAzureJsonNode;
   protected JsonNode exampleGCSJsonNode;
   protected List<JsonNode> exampleNodes;
+  protected JsonNode exampleS3PutJsonNode;
+  protected JsonNode exampleS3GetJsonNode;
+  protected JsonNode exampleLocalFsPutJsonNode;
 
   @Before
   public void setup() throws Exception {
@@ -255,5 +364,39 @@ abstract class FileUploaderPrepIT extends BaseJDBCTest {
     exampleAzureJsonNode = mapper.readTree(exampleAzureJsonString);
     exampleGCSJsonNode = mapper.readTree(exampleGCSJsonString);
     exampleNodes = Arrays.asList(exampleS3JsonNode, exampleAzureJsonNode, exampleGCSJsonNode);
+    exampleS3PutJsonNode = mapper.readTree(exampleS3PutJsonString);
+    exampleS3GetJsonNode = mapper.readTree(exampleS3GetJsonString);
+    exampleLocalFsPutJsonNode = mapper.readTree(exampleLocalFsPutJsonString);
+  }
+
+  /**
+   * Mock a statement that returns the given response of GS to the PUT/GET command
+   *
+   * @param response the response of GS
+   * @return the statement to pass to SnowflakeFileTransferAgent
+   */
+  protected static SFStatement mockStatement(JsonNode response) throws Exception {
+    SFStatement statement = mock(SFStatement.class);
+    when(statement.executeHelper(
+            anyString(), anyString(), any(), anyBoolean(), anyBoolean(), anyBoolean(), any()))
+        .thenReturn(response);
+    return statement;
+  }
+
+  /**
+   * Enable the storage client cache of a mocked session, with a mocked cache that returns the
+   * given storage client
+   *
+   * @param session the mocked session
+   * @param storageClient the storage client used for all transfers
+   * @return the mocked cache
+   */
+  protected static StorageClientCache mockStorageClientCache(
+      SFSession session, SnowflakeStorageClient storageClient) throws Exception {
+    StorageClientCache storageClientCache = mock(StorageClientCache.class);
+    when(storageClientCache.acquire(any(), anyInt(), any(), any())).thenReturn(storageClient);
+    when(session.getOtherParameter(SessionUtil.JDBC_ENABLE_STORAGE_CLIENT_CACHE)).thenReturn(true);
+    when(session.getStorageClientCache()).thenReturn(storageClientCache);
+    return storageClientCache;
   }
 }
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2012-2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import net.snowflake.client.core.SFSession;
+import net.snowflake.client.core.SFStatement;
+import net.snowflake.client.core.SessionUtil;
+import org.junit.Test;
+
+/** Tests of the upload of big and small files on one shared thread pool */
+public class FileUploaderSharedPoolTest extends FileUploaderPrepIT {
+  private static final int THRESHOLD = 1024;
+
+  private static byte[] createFile(File file, int size) throws Exception {
+    byte[] data = new byte[size];
+    Arrays.fill(data, (byte) ('a' + file.getName().length() % 26));
+    Files.write(file.toPath(), data);
+    return data;
+  }
+
+  @Test
+  public void testBigAndSmallFilesOnSharedPool() throws Exception {
+    File srcDir = folder.newFolder("src");
+    File stageDir = folder.newFolder("stage");
+    List<String> fileNames = new ArrayList<>();
+    List<byte[]> contents = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      // the big files are listed first, so they are also first in the sorted status rows
+      fileNames.add(i, "big_" + i + ".csv");
+      contents.add(i, createFile(new File(srcDir, "big_" + i + ".csv"), 4 * THRESHOLD));
+      fileNames.add("small_" + i + ".csv");
+      contents.add(createFile(new File(srcDir, "small_" + i + ".csv"), 16));
+    }
+    String srcLocation = srcDir.getAbsolutePath() + "/*";
+
+    SFSession session = mock(SFSession.class);
+    when(session.getOtherParameter(SessionUtil.JDBC_ENABLE_SHARED_TRANSFER_POOL)).thenReturn(true);
+    when(session.getSessionPropertyByKey("sort")).thenReturn(true);
+    // the failure of a big file must not keep the next big files from being uploaded
+    when(session.getInjectFileUploadFailure()).thenReturn("big_1.csv");
+    ObjectNode putResponse = exampleLocalFsPutJsonNode.deepCopy();
+    ObjectNode data = (ObjectNode) putResponse.path("data");
+    data.putArray("src_locations").add(srcLocation);
+    data.put("threshold", THRESHOLD);
+    ((ObjectNode) data.path("stageInfo")).put("location", stageDir.getAbsolutePath());
+    SFStatement statement = mockStatement(putResponse);
+
+    SnowflakeFileTransferAgent agent =
+        new SnowflakeFileTransferAgent("PUT file://" + srcLocation + " @~", session, statement);
+    agent.execute();
+
+    assertEquals(fileNames.size(), agent.getTotalRows());
+    for (int i = 0; i < fileNames.size(); i++) {
+      String fileName = fileNames.get(i);
+      List<Object> row = agent.getNextRow();
+      // source, target, source_size, target_size, source_compression, target_compression,
+      // status, message
+      assertEquals(fileName, row.get(0));
+      if ("big_1.csv".equals(fileName)) {
+        assertEquals("ERROR", row.get(6));
+        assertThat((String) row.get(7), containsString("big_1.csv"));
+        assertFalse(new File(stageDir, fileName).exists());
+      } else {
+        assertEquals("UPLOADED", row.get(6));
+        assertNull(row.get(7));
+        assertArrayEquals(
+            contents.get(i), Files.readAllBytes(new File(stageDir, fileName).toPath()));
+      }
+    }
+    assertNull(agent.getNextRow());
+  }
+}
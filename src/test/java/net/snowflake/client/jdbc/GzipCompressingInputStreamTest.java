@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2012-2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+public class GzipCompressingInputStreamTest {
+  @Test
+  public void testCompressedDataIsValidGzip() throws IOException {
+    byte[] data = createData(300 * 1024);
+    byte[] compressed = compress(data, 8192);
+
+    try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+      assertArrayEquals(data, IOUtils.toByteArray(in));
+    }
+  }
+
+  @Test
+  public void testEmptyInput() throws IOException {
+    byte[] compressed = compress(new byte[0], 8192);
+
+    try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+      assertArrayEquals(new byte[0], IOUtils.toByteArray(in));
+    }
+  }
+
+  @Test
+  public void testCompressionIsRepeatable() throws IOException {
+    byte[] data = createData(200 * 1024);
+
+    // the compressed bytes do not depend on how the stream is read
+    assertArrayEquals(compress(data, 8192), compress(data, 1));
+    assertArrayEquals(compress(data, 8192), compress(data, 100000));
+  }
+
+  private static byte[] createData(int size) {
+    // half random, half repeated data
+    byte[] data = new byte[size];
+    new Random(42).nextBytes(data);
+    for (int i = size / 2; i < size; i++) {
+      data[i] = (byte) (i % 13);
+    }
+    return data;
+  }
+
+  private static byte[] compress(byte[] data, int readSize) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (InputStream in = new GzipCompressingInputStream(new ByteArrayInputStream(data))) {
+      if (readSize == 1) {
+        int b;
+        while ((b = in.read()) != -1) {
+          out.write(b);
+        }
+      } else {
+        byte[] buffer = new byte[readSize];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+          out.write(buffer, 0, n);
+        }
+      }
+    }
+    return out.toByteArray();
+  }
+}
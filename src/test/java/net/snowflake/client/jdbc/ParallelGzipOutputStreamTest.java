@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2012-2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.GZIPInputStream;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParallelGzipOutputStreamTest {
+  private ExecutorService executor;
+
+  @Before
+  public void setUp() {
+    executor = SnowflakeUtil.createDefaultExecutorService("parallel-gzip-test-", 4);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void testMultipleBlocksDecompressAsOneStream() throws IOException {
+    byte[] data = createData(5 * ParallelGzipOutputStream.BLOCK_SIZE + 12345);
+
+    assertArrayEquals(data, decompress(compress(data, 8192, 3)));
+  }
+
+  @Test
+  public void testEmptyInput() throws IOException {
+    assertArrayEquals(new byte[0], decompress(compress(new byte[0], 8192, 3)));
+  }
+
+  @Test
+  public void testOutputDoesNotDependOnWriteSize() throws IOException {
+    byte[] data = createData(2 * ParallelGzipOutputStream.BLOCK_SIZE + 1);
+
+    assertArrayEquals(compress(data, 8192, 8), compress(data, 1000000, 1));
+  }
+
+  private static byte[] createData(int size) {
+    // half random, half repeated data
+    byte[] data = new byte[size];
+    new Random(42).nextBytes(data);
+    for (int i = size / 2; i < size; i++) {
+      data[i] = (byte) (i % 13);
+    }
+    return data;
+  }
+
+  private byte[] compress(byte[] data, int writeSize, int maxPendingBlocks) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (ParallelGzipOutputStream gzipStream =
+        new ParallelGzipOutputStream(out, executor, maxPendingBlocks)) {
+      for (int offset = 0; offset < data.length; offset += writeSize) {
+        gzipStream.write(data, offset, Math.min(writeSize, data.length - offset));
+      }
+    }
+    return out.toByteArray();
+  }
+
+  private static byte[] decompress(byte[] compressed) throws IOException {
+    try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+      return IOUtils.toByteArray(in);
+    }
+  }
+}
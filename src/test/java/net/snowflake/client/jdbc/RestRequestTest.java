@@ -12,9 +12,12 @@ import static org.junit.Assert.fail;
 import static org.junit.Assume.assumeFalse;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.SocketTimeoutException;
 import java.util.ArrayList;
 import java.util.List;
@@ -23,6 +26,7 @@ import net.snowflake.client.RunningNotOnLinuxMac;
 import net.snowflake.client.core.ExecTimeTelemetryData;
 import net.snowflake.client.core.HttpUtil;
 import net.snowflake.client.jdbc.telemetryOOB.TelemetryService;
+import org.apache.http.HttpEntity;
 import org.apache.http.StatusLine;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
@@ -411,6 +415,34 @@ public class RestRequestTest {
     }
   }
 
+  @Test
+  public void testSmallRetriedResponseIsConsumed() throws IOException, SnowflakeSQLException {
+    InputStream smallContent = mock(InputStream.class);
+    HttpEntity smallEntity = mock(HttpEntity.class);
+    when(smallEntity.getContentLength()).thenReturn(100L);
+    when(smallEntity.isStreaming()).thenReturn(true);
+    when(smallEntity.getContent()).thenReturn(smallContent);
+    CloseableHttpResponse smallResponse = retryResponse();
+    when(smallResponse.getEntity()).thenReturn(smallEntity);
+
+    HttpEntity largeEntity = mock(HttpEntity.class);
+    when(largeEntity.getContentLength()).thenReturn(RestRequest.MAX_REUSED_RESPONSE_SIZE + 1);
+    CloseableHttpResponse largeResponse = retryResponse();
+    when(largeResponse.getEntity()).thenReturn(largeEntity);
+
+    CloseableHttpClient client = mock(CloseableHttpClient.class);
+    when(client.execute(any(HttpUriRequest.class)))
+        .thenReturn(smallResponse)
+        .thenReturn(largeResponse)
+        .thenReturn(successResponse());
+
+    execute(client, "fakeurl.com/?requestId=abcd-1234", 0, 0, 0, true, false);
+
+    // the small body is read to the end so its connection can be reused by the retry
+    verify(smallContent).close();
+    verify(largeEntity, never()).getContent();
+  }
+
   /**
    * Test that after socket timeout, retryReason parameter is set for queries and is set to 0 for
    * null response.
@@ -4,9 +4,12 @@
 package net.snowflake.client.jdbc;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
 import net.snowflake.client.core.SFSession;
 import org.apache.commons.text.StringEscapeUtils;
@@ -211,6 +214,111 @@ public class ResultJsonParserV2Test {
     assertEquals("03 C3 A4 00 ", stringToHex(chunk.getCell(0, 0).toString()));
   }
 
+  @Test
+  public void indexOfQuoteOrBackslashTest() {
+    byte[] data = "0123456789abcdef\"01234\\".getBytes(StandardCharsets.UTF_8);
+    for (ByteOrder order : new ByteOrder[] {ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+      ByteBuffer byteBuffer = ByteBuffer.wrap(data).order(order);
+      for (int from = 0; from <= 16; from++) {
+        assertEquals(16, ResultJsonParserV2.indexOfQuoteOrBackslash(byteBuffer, from, data.length));
+      }
+      assertEquals(22, ResultJsonParserV2.indexOfQuoteOrBackslash(byteBuffer, 17, data.length));
+      assertEquals(20, ResultJsonParserV2.indexOfQuoteOrBackslash(byteBuffer, 17, 20));
+    }
+  }
+
+  @Test
+  public void longValuesTest() throws SnowflakeSQLException {
+    SFSession session = null;
+    StringBuilder json = new StringBuilder();
+    String[] expected = new String[24];
+    for (int row = 0; row < 12; row++) {
+      // move the escapes across the eight byte words scanned at once
+      StringBuilder text = new StringBuilder();
+      StringBuilder escaped = new StringBuilder();
+      for (int i = 0; i < row + 10; i++) {
+        text.append((char) ('a' + i));
+        escaped.append((char) ('a' + i));
+      }
+      text.append("\"\\").append(row);
+      escaped.append("\\\"\\\\").append(row);
+      StringBuilder number = new StringBuilder("-");
+      for (int i = 0; i <= row; i++) {
+        number.append(i % 10);
+      }
+      expected[row * 2] = text.toString();
+      expected[row * 2 + 1] = number.toString();
+      if (row > 0) {
+        json.append(",");
+      }
+      json.append("[\"").append(escaped).append("\", ").append(number).append("]");
+    }
+    byte[] data = json.toString().getBytes(StandardCharsets.UTF_8);
+    JsonResultChunk chunk = new JsonResultChunk("", 12, 2, data.length, session);
+    ResultJsonParserV2 jp = new ResultJsonParserV2();
+    jp.startParsing(chunk, session);
+    int len = 13;
+    ByteBuffer byteBuffer = null;
+    for (int i = 0; i < data.length; i += len) {
+      if (i + len < data.length) {
+        byteBuffer = ByteBuffer.wrap(data, i, len);
+        jp.continueParsing(byteBuffer, session);
+      } else {
+        byteBuffer = ByteBuffer.wrap(data, i, data.length - i);
+        jp.continueParsing(byteBuffer, session);
+      }
+    }
+    byte[] remaining = new byte[byteBuffer.remaining()];
+    byteBuffer.get(remaining);
+    jp.endParsing(ByteBuffer.wrap(remaining), session);
+    for (int row = 0; row < 12; row++) {
+      assertEquals(expected[row * 2], chunk.getCell(row, 0).toString());
+      assertEquals(expected[row * 2 + 1], chunk.getCell(row, 1).toString());
+    }
+  }
+
+  @Test
+  public void typedColumnsTest() throws SnowflakeSQLException {
+    SFSession session = null;
+    String simple =
+        "[\"1\", \"1.01\", \"a\"],"
+            + "[null, null, null],"
+            + "[\"-123456789012\", \"-2.5e-3\", \"b\"],"
+            + "[\"42\", \"1e300\", \"c\"]";
+    byte[] data = simple.getBytes(StandardCharsets.UTF_8);
+    JsonResultChunk chunk = new JsonResultChunk("", 4, 3, data.length, session);
+    chunk.enableTypedColumns(
+        new JsonResultChunk.TypedColumn[] {
+          JsonResultChunk.TypedColumn.LONG,
+          JsonResultChunk.TypedColumn.DOUBLE,
+          JsonResultChunk.TypedColumn.LONG
+        });
+    ResultJsonParserV2 jp = new ResultJsonParserV2();
+    jp.startParsing(chunk, session);
+    ByteBuffer byteBuffer = ByteBuffer.wrap(data);
+    jp.continueParsing(byteBuffer, session);
+    byte[] remaining = new byte[byteBuffer.remaining()];
+    byteBuffer.get(remaining);
+    jp.endParsing(ByteBuffer.wrap(remaining), session);
+
+    assertTrue(chunk.isLongColumn(0));
+    assertEquals(1L, chunk.getLong(0, 0));
+    assertTrue(chunk.isNull(1, 0));
+    assertEquals(-123456789012L, chunk.getLong(2, 0));
+    assertEquals(42L, chunk.getLong(3, 0));
+
+    assertTrue(chunk.isDoubleColumn(1));
+    assertEquals(1.01, chunk.getDouble(0, 1), 0);
+    assertTrue(chunk.isNull(1, 1));
+    assertEquals(-2.5e-3, chunk.getDouble(2, 1), 0);
+    assertEquals(1e300, chunk.getDouble(3, 1), 0);
+
+    // a column that doesn't parse falls back to the cell data
+    assertFalse(chunk.isLongColumn(2));
+    assertEquals("b", chunk.getCell(2, 2).toString());
+    assertEquals("1", chunk.getCell(0, 0).toString());
+  }
+
   public static String stringToHex(String input) {
     byte[] byteArray = input.getBytes(StandardCharsets.UTF_8);
     StringBuilder sb = new StringBuilder();
@@ -5,12 +5,21 @@
 package net.snowflake.client.jdbc;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import net.snowflake.client.category.TestCategoryResultSet;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
@@ -49,4 +58,49 @@ public class ResultSetAsyncLatestIT extends BaseJDBCTest {
           secretMetaData.getQueryID(), resultSet.unwrap(SnowflakeResultSet.class).getQueryID());
     }
   }
+
+  @Test
+  public void testExecuteAsyncCompletesFuture() throws Exception {
+    try (Connection connection = getConnection();
+        Statement statement = connection.createStatement()) {
+      List<CompletableFuture<ResultSet>> futures = new ArrayList<>();
+      for (int i = 0; i < 10; i++) {
+        futures.add(
+            statement
+                .unwrap(SnowflakeStatement.class)
+                .executeAsync("select " + i + ", system$wait(1)"));
+      }
+      for (int i = 0; i < futures.size(); i++) {
+        try (ResultSet rs = futures.get(i).get(60, TimeUnit.SECONDS)) {
+          assertTrue(rs.next());
+          assertEquals(i, rs.getInt(1));
+          assertFalse(rs.next());
+        }
+      }
+
+      CompletableFuture<ResultSet> failed =
+          statement.unwrap(SnowflakeStatement.class).executeAsync("select 1/0");
+      try {
+        failed.get(60, TimeUnit.SECONDS);
+        fail("Expected the query to fail");
+      } catch (ExecutionException ex) {
+        assertTrue(ex.getCause() instanceof SQLException);
+      }
+
+      // the stages of the caller do not run on the status polling thread of the session
+      CompletableFuture<String> consumerThread =
+          statement
+              .unwrap(SnowflakeStatement.class)
+              .executeAsync("select system$wait(1)")
+              .thenApply(
+                  rs -> {
+                    try (ResultSet consumed = rs) {
+                      return Thread.currentThread().getName();
+                    } catch (SQLException ex) {
+                      throw new CompletionException(ex);
+                    }
+                  });
+      assertFalse(consumerThread.get(60, TimeUnit.SECONDS).startsWith("async-query-monitor"));
+    }
+  }
 }
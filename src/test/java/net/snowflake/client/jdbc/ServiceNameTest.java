@@ -11,6 +11,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import net.snowflake.client.core.ExecTimeTelemetryData;
 import net.snowflake.client.core.HttpClientSettingsKey;
 import net.snowflake.client.core.HttpUtil;
+import net.snowflake.client.core.ObjectMapperFactory;
 import net.snowflake.client.core.SFSessionProperty;
 import org.apache.http.client.methods.HttpRequestBase;
 import org.junit.Test;
@@ -108,7 +109,7 @@ public class ServiceNameTest {
       mockedHttpUtil
           .when(
               () ->
-                  HttpUtil.executeRequest(
+                  HttpUtil.executeRequestForJson(
                       Mockito.any(HttpRequestBase.class),
                       Mockito.anyInt(),
                       Mockito.anyInt(),
@@ -120,7 +121,7 @@ public class ServiceNameTest {
                       Mockito.anyBoolean(),
                       Mockito.any(HttpClientSettingsKey.class),
                       Mockito.any(ExecTimeTelemetryData.class)))
-          .thenReturn(responseQuery());
+          .thenReturn(ObjectMapperFactory.getObjectMapper().readTree(responseQuery()));
 
       Properties props = new Properties();
       props.setProperty(SFSessionProperty.ACCOUNT.getPropertyKey(), "fakeaccount");
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2012-2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import net.snowflake.client.core.QueryResultFormat;
+import net.snowflake.client.jdbc.SnowflakeResultChunk.DownloadState;
+import org.junit.Test;
+
+/** Unit tests of the parallel consumption of result chunks with claimNextChunk */
+public class SnowflakeChunkDownloaderTest {
+  private static final long TIMEOUT_SECONDS = 30;
+
+  /** Each chunk has a single row with the chunk index as only value */
+  private static InputStream chunkData(ChunkDownloadContext context) {
+    String row = "[\"" + context.getChunkIndex() + "\"]";
+    return new ByteArrayInputStream(row.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static SnowflakeChunkDownloader createDownloader(
+      int chunkCount, ResultStreamProvider resultStreamProvider) throws SnowflakeSQLException {
+    SnowflakeResultSetSerializableV1 resultSetSerializable = new SnowflakeResultSetSerializableV1();
+    resultSetSerializable.setQueryResultFormat(QueryResultFormat.JSON);
+    resultSetSerializable.setChunkFileCount(chunkCount);
+    resultSetSerializable.setResultStreamProvider(resultStreamProvider);
+    resultSetSerializable.columnCount = 1;
+    resultSetSerializable.resultPrefetchThreads = 2;
+    resultSetSerializable.maxHttpRetries = 1;
+    resultSetSerializable.memoryLimit = 64L * 1024 * 1024;
+    for (int i = 0; i < chunkCount; i++) {
+      resultSetSerializable.chunkFileMetadatas.add(
+          new SnowflakeResultSetSerializableV1.ChunkFileMetadata("chunk" + i, 1, 16, 16));
+    }
+    return new SnowflakeChunkDownloader(resultSetSerializable);
+  }
+
+  private static int getValue(SnowflakeChunkDownloader downloader, int chunkIndex) {
+    JsonResultChunk chunk = (JsonResultChunk) downloader.getChunk(chunkIndex);
+    return Integer.parseInt(chunk.getCell(0, 0).toString());
+  }
+
+  private static void waitForDownload(SnowflakeChunkDownloader downloader, int chunkIndex)
+      throws InterruptedException {
+    long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS);
+    while (downloader.getChunk(chunkIndex).getDownloadState() != DownloadState.SUCCESS) {
+      assertTrue("chunk#" + chunkIndex + " not downloaded", System.currentTimeMillis() < deadline);
+      Thread.sleep(10);
+    }
+  }
+
+  @Test
+  public void testConcurrentClaimAndRelease() throws Exception {
+    int chunkCount = 50;
+    SnowflakeChunkDownloader downloader =
+        createDownloader(chunkCount, SnowflakeChunkDownloaderTest::chunkData);
+    Set<Integer> claimed = ConcurrentHashMap.newKeySet();
+    ExecutorService consumers = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Void>> futures = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        futures.add(
+            consumers.submit(
+                () -> {
+                  int chunkIndex;
+                  while ((chunkIndex = downloader.claimNextChunk(false)) >= 0) {
+                    assertEquals(chunkIndex, getValue(downloader, chunkIndex));
+                    assertTrue("chunk#" + chunkIndex + " claimed twice", claimed.add(chunkIndex));
+                    downloader.releaseChunk(chunkIndex);
+                  }
+                  return null;
+                }));
+      }
+      for (Future<Void> future : futures) {
+        future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+      }
+      assertEquals(chunkCount, claimed.size());
+      assertEquals(-1, downloader.claimNextChunk(false));
+    } finally {
+      consumers.shutdownNow();
+      downloader.terminate();
+    }
+  }
+
+  @Test
+  public void testUnorderedClaimSkipsChunkInProgress() throws Exception {
+    CountDownLatch firstChunkBlocked = new CountDownLatch(1);
+    SnowflakeChunkDownloader downloader =
+        createDownloader(
+            3,
+            context -> {
+              if (context.getChunkIndex() == 0) {
+                firstChunkBlocked.await();
+              }
+              return chunkData(context);
+            });
+    try {
+      waitForDownload(downloader, 1);
+      assertEquals(1, downloader.claimNextChunk(false));
+      firstChunkBlocked.countDown();
+      waitForDownload(downloader, 0);
+      assertEquals(0, downloader.claimNextChunk(false));
+      assertEquals(2, downloader.claimNextChunk(false));
+      assertEquals(-1, downloader.claimNextChunk(false));
+      for (int i = 0; i < 3; i++) {
+        assertEquals(i, getValue(downloader, i));
+      }
+    } finally {
+      firstChunkBlocked.countDown();
+      downloader.terminate();
+    }
+  }
+
+  @Test
+  public void testOrderedClaimWaitsWithoutBlockingOtherConsumers() throws Exception {
+    CountDownLatch firstChunkBlocked = new CountDownLatch(1);
+    SnowflakeChunkDownloader downloader =
+        createDownloader(
+            3,
+            context -> {
+              if (context.getChunkIndex() == 0) {
+                firstChunkBlocked.await();
+              }
+              return chunkData(context);
+            });
+    ExecutorService consumers = Executors.newFixedThreadPool(2);
+    try {
+      waitForDownload(downloader, 1);
+      Future<Integer> first = consumers.submit(() -> downloader.claimNextChunk(true));
+      try {
+        first.get(200, TimeUnit.MILLISECONDS);
+        fail("chunk#0 is claimed before it is downloaded");
+      } catch (TimeoutException ex) {
+        // expected, the consumer waits for chunk#0
+      }
+      // the waiting consumer does not keep others from claiming the next chunk
+      Future<Integer> second = consumers.submit(() -> downloader.claimNextChunk(true));
+      assertEquals(1, (int) second.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+      assertFalse(first.isDone());
+
+      firstChunkBlocked.countDown();
+      assertEquals(0, (int) first.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+      assertEquals(0, getValue(downloader, 0));
+      assertEquals(2, downloader.claimNextChunk(true));
+      assertEquals(-1, downloader.claimNextChunk(true));
+    } finally {
+      firstChunkBlocked.countDown();
+      consumers.shutdownNow();
+      downloader.terminate();
+    }
+  }
+
+  @Test
+  public void testClaimOfFailedChunkThrows() throws Exception {
+    SnowflakeChunkDownloader downloader =
+        createDownloader(
+            3,
+            context -> {
+              if (context.getChunkIndex() == 1) {
+                throw new IOException("injected download failure");
+              }
+              return chunkData(context);
+            });
+    try {
+      assertEquals(0, downloader.claimNextChunk(true));
+      try {
+        downloader.claimNextChunk(true);
+        fail("the failed chunk is claimed");
+      } catch (SnowflakeSQLException ex) {
+        assertThat(ex.getMessage(), containsString("injected download failure"));
+      }
+      // the other chunks can still be claimed and released
+      assertEquals(2, downloader.claimNextChunk(true));
+      downloader.releaseChunk(0);
+      downloader.releaseChunk(2);
+    } finally {
+      downloader.terminate();
+    }
+  }
+}
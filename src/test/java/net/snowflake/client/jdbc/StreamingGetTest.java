@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2012-2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Random;
+import net.snowflake.client.core.SFSession;
+import net.snowflake.client.core.SFStatement;
+import net.snowflake.client.core.SessionUtil;
+import net.snowflake.client.jdbc.cloud.storage.SnowflakeStorageClient;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Tests of a GET that writes the decrypted stream of the storage client to the local file */
+public class StreamingGetTest extends FileUploaderPrepIT {
+  // file name of the GET response
+  private static final String FILE_NAME = "orders_100.csv";
+
+  private SFSession session;
+
+  private SFStatement statement;
+
+  private SnowflakeStorageClient storageClient;
+
+  private File localDir;
+
+  private byte[] content;
+
+  /** A download that breaks after half of the file is read */
+  private InputStream brokenStream() {
+    InputStream data = new ByteArrayInputStream(content);
+    return new InputStream() {
+      private int position;
+
+      @Override
+      public int read() throws IOException {
+        if (position >= content.length / 2) {
+          throw new IOException("connection reset");
+        }
+        position++;
+        return data.read();
+      }
+    };
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    localDir = folder.newFolder("download");
+    content = new byte[64 * 1024];
+    new Random(42).nextBytes(content);
+
+    storageClient = mock(SnowflakeStorageClient.class);
+    when(storageClient.isEncrypting()).thenReturn(true);
+    when(storageClient.getMaxRetries()).thenReturn(3);
+
+    session = mock(SFSession.class);
+    when(session.getOtherParameter(SessionUtil.JDBC_ENABLE_STREAMING_GET)).thenReturn(true);
+    mockStorageClientCache(session, storageClient);
+
+    ObjectNode getResponse = exampleS3GetJsonNode.deepCopy();
+    ((ObjectNode) getResponse.path("data")).put("localLocation", localDir.getAbsolutePath());
+    statement = mockStatement(getResponse);
+  }
+
+  private List<Object> executeGet() throws Exception {
+    SnowflakeFileTransferAgent agent =
+        new SnowflakeFileTransferAgent(
+            "GET @~/" + FILE_NAME + " file://" + localDir.getAbsolutePath(), session, statement);
+    agent.execute();
+    assertEquals(1, agent.getTotalRows());
+    return agent.getNextRow();
+  }
+
+  private void verifyDownloads(int count) throws Exception {
+    verify(storageClient, times(count))
+        .downloadToStream(any(), any(), anyInt(), any(), any(), any(), any(), any());
+    // the encrypted file is never downloaded to be decrypted in place
+    verify(storageClient, never())
+        .download(any(), any(), any(), any(), anyInt(), any(), any(), any(), any(), any());
+  }
+
+  @Test
+  public void testBrokenStreamIsRetried() throws Exception {
+    when(storageClient.downloadToStream(any(), any(), anyInt(), any(), any(), any(), any(), any()))
+        .thenReturn(brokenStream(), brokenStream(), new ByteArrayInputStream(content));
+
+    List<Object> row = executeGet();
+
+    // file, size, status, message
+    assertEquals(FILE_NAME, row.get(0));
+    assertEquals("DOWNLOADED", row.get(2));
+    verifyDownloads(3);
+    // the retry rewrites the local file instead of appending to the broken download
+    assertArrayEquals(content, Files.readAllBytes(new File(localDir, FILE_NAME).toPath()));
+  }
+
+  @Test
+  public void testBrokenStreamFailsAfterMaxRetries() throws Exception {
+    when(storageClient.downloadToStream(any(), any(), anyInt(), any(), any(), any(), any(), any()))
+        .thenAnswer(invocation -> brokenStream());
+
+    List<Object> row = executeGet();
+
+    assertEquals("ERROR", row.get(2));
+    assertThat((String) row.get(3), containsString("Failed to download file"));
+    // the first attempt and the 3 retries of the client
+    verifyDownloads(4);
+  }
+}
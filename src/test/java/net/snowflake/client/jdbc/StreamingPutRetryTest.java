@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2012-2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import net.snowflake.client.core.SFSession;
+import net.snowflake.client.core.SFStatement;
+import net.snowflake.client.core.SessionUtil;
+import net.snowflake.client.jdbc.cloud.storage.SnowflakeStorageClient;
+import net.snowflake.common.core.SqlState;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Tests of the retries of a PUT that compresses the file while uploading it */
+public class StreamingPutRetryTest extends FileUploaderPrepIT {
+  private SFSession session;
+
+  private SFStatement statement;
+
+  private SnowflakeStorageClient storageClient;
+
+  private File srcFile;
+
+  private byte[] content;
+
+  /** Error of a storage client when an upload from a stream would have been retried */
+  private static SnowflakeSQLException streamRetryError() {
+    return new SnowflakeSQLException(
+        "EXAMPLE_QUERY_ID",
+        new RuntimeException("connection reset"),
+        SqlState.SYSTEM_ERROR,
+        ErrorCode.IO_ERROR.getMessageCode(),
+        "Encountered exception during upload: connection reset"
+            + "\nCannot retry upload from stream.");
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    srcFile = folder.newFile("data.csv");
+    content = new byte[64 * 1024];
+    new Random(42).nextBytes(content);
+    Files.write(srcFile.toPath(), content);
+
+    storageClient = mock(SnowflakeStorageClient.class);
+    when(storageClient.getMaxRetries()).thenReturn(3);
+
+    session = mock(SFSession.class);
+    when(session.getOtherParameter(SessionUtil.JDBC_ENABLE_STREAMING_PUT)).thenReturn(true);
+    mockStorageClientCache(session, storageClient);
+
+    ObjectNode putResponse = exampleS3PutJsonNode.deepCopy();
+    ((ObjectNode) putResponse.path("data"))
+        .putArray("src_locations")
+        .add(srcFile.getAbsolutePath());
+    statement = mockStatement(putResponse);
+  }
+
+  /** Makes the upload of the storage client fail with the given errors before it succeeds */
+  private ByteArrayOutputStream failUploads(SnowflakeSQLException... errors) throws Exception {
+    AtomicInteger attempt = new AtomicInteger();
+    ByteArrayOutputStream uploaded = new ByteArrayOutputStream();
+    doAnswer(
+            invocation -> {
+              InputStream inputStream = invocation.getArgument(7);
+              int currentAttempt = attempt.getAndIncrement();
+              if (currentAttempt < errors.length) {
+                // part of the stream is consumed before the upload fails
+                inputStream.read(new byte[1024]);
+                throw errors[currentAttempt];
+              }
+              byte[] buffer = new byte[8192];
+              int read;
+              while ((read = inputStream.read(buffer)) != -1) {
+                uploaded.write(buffer, 0, read);
+              }
+              return null;
+            })
+        .when(storageClient)
+        .upload(
+            any(),
+            any(),
+            anyInt(),
+            anyBoolean(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any());
+    return uploaded;
+  }
+
+  private List<Object> executePut() throws Exception {
+    SnowflakeFileTransferAgent agent =
+        new SnowflakeFileTransferAgent(
+            "PUT file://" + srcFile.getAbsolutePath() + " @~", session, statement);
+    agent.execute();
+    assertEquals(1, agent.getTotalRows());
+    return agent.getNextRow();
+  }
+
+  private static byte[] gunzip(byte[] data) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+      byte[] buffer = new byte[8192];
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        out.write(buffer, 0, read);
+      }
+    }
+    return out.toByteArray();
+  }
+
+  @Test
+  public void testUploadFromStreamIsRetriedWithNewStream() throws Exception {
+    ByteArrayOutputStream uploaded = failUploads(streamRetryError(), streamRetryError());
+
+    List<Object> row = executePut();
+
+    assertEquals("UPLOADED", row.get(6));
+    verify(storageClient, times(3))
+        .upload(
+            any(),
+            any(),
+            anyInt(),
+            anyBoolean(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any());
+    // the last attempt uploads the whole compressed file again
+    assertArrayEquals(content, gunzip(uploaded.toByteArray()));
+  }
+
+  @Test
+  public void testOtherErrorsAreNotRetried() throws Exception {
+    failUploads(
+        new SnowflakeSQLException(
+            "EXAMPLE_QUERY_ID",
+            new RuntimeException("Access Denied"),
+            SqlState.SYSTEM_ERROR,
+            ErrorCode.IO_ERROR.getMessageCode(),
+            "Encountered exception during upload: Access Denied"));
+
+    List<Object> row = executePut();
+
+    assertEquals("ERROR", row.get(6));
+    assertThat((String) row.get(7), containsString("Access Denied"));
+    verify(storageClient, times(1))
+        .upload(
+            any(),
+            any(),
+            anyInt(),
+            anyBoolean(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any(),
+            any());
+  }
+}
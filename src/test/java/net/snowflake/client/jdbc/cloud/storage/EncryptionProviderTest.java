@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2012-2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc.cloud.storage;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.Base64;
+import java.util.Random;
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import net.snowflake.common.core.RemoteStoreFileEncryptionMaterial;
+import org.junit.Test;
+
+/** Unit tests of the decryption of downloaded files */
+public class EncryptionProviderTest {
+  private static final Random random = new Random(42);
+
+  private static byte[] randomBytes(int length) {
+    byte[] bytes = new byte[length];
+    random.nextBytes(bytes);
+    return bytes;
+  }
+
+  private static byte[] readAll(InputStream inputStream) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[8192];
+    int read;
+    while ((read = inputStream.read(buffer)) != -1) {
+      out.write(buffer, 0, read);
+    }
+    return out.toByteArray();
+  }
+
+  /** Encrypts the data like the files of a stage, and decrypts it with decryptStream */
+  private static void assertDecryptStream(int masterKeyLength, int fileKeyLength) throws Exception {
+    byte[] masterKey = randomBytes(masterKeyLength);
+    byte[] fileKey = randomBytes(fileKeyLength);
+    byte[] iv = randomBytes(16);
+    byte[] data = randomBytes(100 * 1024 + 7);
+
+    Cipher dataCipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
+    dataCipher.init(
+        Cipher.ENCRYPT_MODE, new SecretKeySpec(fileKey, "AES"), new IvParameterSpec(iv));
+    byte[] encryptedData = dataCipher.doFinal(data);
+
+    Cipher keyCipher = Cipher.getInstance("AES/ECB/PKCS5Padding");
+    keyCipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(masterKey, "AES"));
+    byte[] encryptedFileKey = keyCipher.doFinal(fileKey);
+
+    RemoteStoreFileEncryptionMaterial encMat =
+        new RemoteStoreFileEncryptionMaterial(
+            Base64.getEncoder().encodeToString(masterKey), "123456", 123L);
+    try (InputStream decrypted =
+        EncryptionProvider.decryptStream(
+            new ByteArrayInputStream(encryptedData),
+            Base64.getEncoder().encodeToString(encryptedFileKey),
+            Base64.getEncoder().encodeToString(iv),
+            encMat)) {
+      assertArrayEquals(data, readAll(decrypted));
+    }
+  }
+
+  @Test
+  public void testDecryptStream() throws Exception {
+    assertDecryptStream(16, 16);
+    assertDecryptStream(32, 32);
+  }
+
+  @Test
+  public void testDecryptStreamWithFileKeyShorterThanMasterKey() throws Exception {
+    assertDecryptStream(32, 16);
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2012-2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc.cloud.storage;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+public class RangedDownloadInputStreamTest {
+  @Test
+  public void testRangesAreReturnedInOrder() throws IOException {
+    byte[] data = new byte[10001];
+    new Random(42).nextBytes(data);
+
+    try (InputStream in =
+        new RangedDownloadInputStream(
+            (start, length) -> Arrays.copyOfRange(data, (int) start, (int) start + length),
+            data.length,
+            1000,
+            3)) {
+      assertArrayEquals(data, readAll(in));
+      assertEquals(-1, in.read());
+    }
+  }
+
+  @Test
+  public void testFailedRangeFailsRead() {
+    byte[] data = new byte[5000];
+
+    try (InputStream in =
+        new RangedDownloadInputStream(
+            (start, length) -> {
+              if (start >= 2000) {
+                throw new IOException("range not available");
+              }
+              return Arrays.copyOfRange(data, (int) start, (int) start + length);
+            },
+            data.length,
+            1000,
+            2)) {
+      readAll(in);
+      fail("read should fail");
+    } catch (IOException ex) {
+      assertEquals("range not available", ex.getCause().getMessage());
+    }
+  }
+
+  private static byte[] readAll(InputStream in) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[777];
+    int n;
+    while ((n = in.read(buffer)) != -1) {
+      out.write(buffer, 0, n);
+    }
+    return out.toByteArray();
+  }
+}
@@ -4,7 +4,19 @@
 package net.snowflake.client.jdbc.cloud.storage;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
+import com.amazonaws.ClientConfiguration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import net.snowflake.client.core.SFSession;
+import net.snowflake.client.core.SessionUtil;
+import net.snowflake.client.jdbc.SnowflakeSQLException;
+import net.snowflake.common.core.RemoteStoreFileEncryptionMaterial;
 import org.junit.Test;
 
 public class SnowflakeS3ClientTest {
@@ -15,4 +27,41 @@ public class SnowflakeS3ClientTest {
     assertEquals(
         "amazonaws.com.cn", SnowflakeS3Client.getDomainSuffixForRegionalUrl("cn-northwest-1"));
   }
+
+  @Test
+  public void shouldNotUseRangedDownloadWith256BitKey() throws SnowflakeSQLException {
+    SFSession session = mock(SFSession.class);
+    when(session.getOtherParameter(SessionUtil.JDBC_ENABLE_RANGED_DOWNLOAD)).thenReturn(true);
+    long objectSize = 4L * RangedDownloadInputStream.DEFAULT_RANGE_SIZE;
+
+    SnowflakeS3Client client128 = createClient(session, 16);
+    assertEquals(128, client128.getEncryptionKeySize());
+    assertTrue(client128.isRangedDownloadEnabled(session, 4, objectSize));
+
+    // the encryption client decrypts every range on its own
+    SnowflakeS3Client client256 = createClient(session, 32);
+    assertEquals(256, client256.getEncryptionKeySize());
+    assertFalse(client256.isRangedDownloadEnabled(session, 4, objectSize));
+  }
+
+  private static SnowflakeS3Client createClient(SFSession session, int keyLength)
+      throws SnowflakeSQLException {
+    Map<String, String> credentials = new HashMap<>();
+    credentials.put("AWS_KEY_ID", "EXAMPLE_AWS_KEY_ID");
+    credentials.put("AWS_SECRET_KEY", "EXAMPLE_AWS_SECRET_KEY");
+    credentials.put("AWS_TOKEN", "EXAMPLE_AWS_TOKEN");
+    RemoteStoreFileEncryptionMaterial encMat =
+        new RemoteStoreFileEncryptionMaterial(
+            Base64.getEncoder().encodeToString(new byte[keyLength]), "123456", 123L);
+    return new SnowflakeS3Client(
+        credentials,
+        new ClientConfiguration(),
+        encMat,
+        null,
+        "us-west-2",
+        null,
+        true,
+        session,
+        false);
+  }
 }
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2012-2024 Snowflake Computing Inc. All rights reserved.
+ */
+package net.snowflake.client.jdbc.cloud.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.HashMap;
+import java.util.Map;
+import net.snowflake.client.core.SFSession;
+import net.snowflake.common.core.RemoteStoreFileEncryptionMaterial;
+import org.junit.Test;
+
+public class StorageClientCacheTest {
+  private static class TestStorageClientCache extends StorageClientCache {
+    private int createdClients = 0;
+
+    TestStorageClientCache(long idleTimeoutMillis) {
+      super(idleTimeoutMillis);
+    }
+
+    @Override
+    SnowflakeStorageClient createClient(
+        StageInfo stage,
+        int parallel,
+        RemoteStoreFileEncryptionMaterial encMat,
+        SFSession session) {
+      createdClients++;
+      return mock(SnowflakeStorageClient.class);
+    }
+  }
+
+  private static StageInfo createStage(String token) {
+    Map<String, String> credentials = new HashMap<>();
+    credentials.put("AWS_TOKEN", token);
+    return StageInfo.createStageInfo(
+        "S3", "bucket/path", credentials, "us-west-2", null, null, true);
+  }
+
+  @Test
+  public void testClientIsSharedForSameStage() throws Exception {
+    TestStorageClientCache cache = new TestStorageClientCache(60000);
+
+    SnowflakeStorageClient client = cache.acquire(createStage("token"), 4, null, null);
+    assertSame(client, cache.acquire(createStage("token"), 4, null, null));
+    assertNotSame(client, cache.acquire(createStage("token"), 1, null, null));
+    assertEquals(2, cache.createdClients);
+  }
+
+  @Test
+  public void testClientIsRenewedWhenCredentialsChange() throws Exception {
+    TestStorageClientCache cache = new TestStorageClientCache(60000);
+
+    SnowflakeStorageClient client = cache.acquire(createStage("token1"), 4, null, null);
+    cache.release(client);
+    StageInfo stage = createStage("token2");
+    assertSame(client, cache.acquire(stage, 4, null, null));
+    verify(client).renew(stage.getCredentials());
+    assertEquals(1, cache.createdClients);
+  }
+
+  @Test
+  public void testClientInUseIsReplacedWhenCredentialsChange() throws Exception {
+    TestStorageClientCache cache = new TestStorageClientCache(60000);
+
+    SnowflakeStorageClient usedClient = cache.acquire(createStage("token1"), 4, null, null);
+    SnowflakeStorageClient newClient = cache.acquire(createStage("token2"), 4, null, null);
+    assertNotSame(usedClient, newClient);
+    verify(usedClient, never()).renew(any());
+    assertEquals(2, cache.createdClients);
+    assertEquals(1, cache.size());
+
+    // the replaced client is shut down once the command using it is done
+    cache.release(newClient);
+    verify(usedClient, never()).shutdown();
+    cache.release(usedClient);
+    verify(usedClient).shutdown();
+    verify(newClient, never()).shutdown();
+    assertSame(newClient, cache.acquire(createStage("token2"), 4, null, null));
+  }
+
+  @Test
+  public void testIdleClientIsShutDownWhenNotUsed() throws Exception {
+    TestStorageClientCache cache = new TestStorageClientCache(0);
+
+    SnowflakeStorageClient client1 = cache.acquire(createStage("token"), 4, null, null);
+    SnowflakeStorageClient client2 = cache.acquire(createStage("token"), 1, null, null);
+    // clients in use are not evicted
+    verify(client1, never()).shutdown();
+    assertEquals(2, cache.size());
+
+    cache.release(client1);
+    verify(client1).shutdown();
+    verify(client2, never()).shutdown();
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  public void testClientInUseIsShutDownWhenReleasedAfterClear() throws Exception {
+    TestStorageClientCache cache = new TestStorageClientCache(60000);
+
+    SnowflakeStorageClient idleClient = cache.acquire(createStage("token"), 1, null, null);
+    cache.release(idleClient);
+    SnowflakeStorageClient usedClient = cache.acquire(createStage("token"), 4, null, null);
+    cache.acquire(createStage("token"), 4, null, null);
+
+    cache.clear();
+    verify(idleClient).shutdown();
+    verify(usedClient, never()).shutdown();
+    assertEquals(0, cache.size());
+
+    cache.release(usedClient);
+    verify(usedClient, never()).shutdown();
+    cache.release(usedClient);
+    verify(usedClient).shutdown();
+  }
+}